@@ -0,0 +1,95 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Whole lists of activities per second, written and read as JSON and in each binary format, with mappers
+ * built the way {@code BinaryFormats} builds them. The encoded size of each list is printed in the
+ * output of its fork.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityBinaryFormatsBenchmark {
+
+    private static final TypeReference<List<ActivityDTO>> ACTIVITIES = new TypeReference<>() {
+    };
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile", "msgpack"})
+    private String format;
+
+    private List<ActivityDTO> activities;
+    private byte[] encoded;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        long[] minutes = {15, 30, 45, 60, 90, 120, 1440};
+        activities = IntStream.range(0, size)
+                .mapToObj(i -> new ActivityDTO((long) i + 1, "Activity " + i, minutes[i % minutes.length],
+                        LocalDate.of(2024, 1, 1).plusDays(i / 3 % 366)))
+                .toList();
+
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper mapper = switch (format) {
+            case "json" -> builder.build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "msgpack" -> builder.factory(new MessagePackFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        listWriter = mapper.writerFor(ACTIVITIES);
+        listReader = mapper.readerFor(ACTIVITIES);
+        encoded = listWriter.writeValueAsBytes(activities);
+        System.out.printf("%n%s, %d activities: %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public int writeList() throws IOException {
+        out.reset();
+        listWriter.writeValue(out, activities);
+        return out.size();
+    }
+
+    @Benchmark
+    public List<ActivityDTO> readList() throws IOException {
+        return listReader.readValue(encoded);
+    }
+}
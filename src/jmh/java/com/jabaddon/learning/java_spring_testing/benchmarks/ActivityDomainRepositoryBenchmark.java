@@ -0,0 +1,132 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.jabaddon.learning.java_spring_testing.JavaSpringTestingApplication;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The JPA-backed {@link ActivityDomainRepository} against an in-memory H2 database, without the cache,
+ * so every call reaches the database. Each benchmark method gets a freshly seeded application context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityDomainRepositoryBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private ActivityDomainRepository repository;
+    private List<Long> ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JavaSpringTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments, unlike builder properties, take precedence over application.properties
+                .run(
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--spring.datasource.url=jdbc:h2:mem:repositorybenchmarkdb",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=password",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.flyway.enabled=false",
+                        "--app.activities.search.strategy=like",
+                        "--app.activities.cache.enabled=false");
+        repository = context.getBean(ActivityDomainRepository.class);
+        ids = repository.saveAll(IntStream.range(0, ROWS)
+                        .mapToObj(i -> new Activity("Activity " + i, i, LocalDate.of(2024, 1, 1).plusDays(i % 365)))
+                        .toList())
+                .stream()
+                .map(Activity::getId)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Activity> findById() {
+        next = (next + 1) % ROWS;
+        return repository.findById(ids.get(next));
+    }
+
+    @Benchmark
+    public List<Activity> findByNameContainingIgnoreCase() {
+        return repository.findByNameContainingIgnoreCase("activity 99");
+    }
+
+    @Benchmark
+    public List<Activity> findAll() {
+        return repository.findAll();
+    }
+
+    // save and saveAll return the stored state; the ReadBack variants add the findById per activity that
+    // creating one used to take, so the two can be compared in operations per second
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Activity save() {
+        return repository.save(new Activity("Morning Run", 45, LocalDate.of(2024, 1, 15)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Optional<Activity> saveAndReadBack() {
+        return repository.findById(repository.save(new Activity("Morning Run", 45, LocalDate.of(2024, 1, 15))).getId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Activity> saveAll() {
+        return repository.saveAll(batch());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Optional<Activity>> saveAllAndReadBack() {
+        return repository.saveAll(batch()).stream()
+                .map(activity -> repository.findById(activity.getId()))
+                .toList();
+    }
+
+    private static List<Activity> batch() {
+        return IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> new Activity("Batch " + i, i, LocalDate.of(2024, 1, 15)))
+                .toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson (configured like Spring Boot's) writing activities as the API returns them,
+ * and reading a create request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityJsonBenchmark {
+
+    private static final String NEW_ACTIVITY_JSON = "{\"name\":\"Morning Run\",\"time\":\"45m\",\"date\":\"2024-01-15\"}";
+
+    private final ActivityDTO activity = new ActivityDTO(1L, "Morning Run", 45, LocalDate.of(2024, 1, 15));
+    private final List<ActivityDTO> page = LongStream.rangeClosed(1, 50)
+            .mapToObj(id -> new ActivityDTO(id, "Activity " + id, id, LocalDate.of(2024, 1, 1).plusDays(id)))
+            .toList();
+
+    private ObjectWriter writer;
+    private ObjectReader newActivityReader;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = objectMapper.writer();
+        newActivityReader = objectMapper.readerFor(NewActivityDTO.class);
+    }
+
+    @Benchmark
+    public byte[] writeActivity() throws JsonProcessingException {
+        return writer.writeValueAsBytes(activity);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public NewActivityDTO readNewActivity() throws JsonProcessingException {
+        return newActivityReader.readValue(NEW_ACTIVITY_JSON);
+    }
+}
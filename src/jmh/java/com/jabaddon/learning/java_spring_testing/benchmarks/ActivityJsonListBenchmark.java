@@ -0,0 +1,164 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Whole lists of activities per second, written and read with the hand-written serializers through
+ * reusable list writers and readers, against Jackson's bean handling of the same records
+ * (switched back on with mix-ins). {@code writeListPerResponse} builds its writer for every list,
+ * as Spring's Jackson converters do for each response. Output goes to one buffer that is reset
+ * between writes, as the servlet output buffer would be.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityJsonListBenchmark {
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    @JsonPropertyOrder({"id", "name", "minutes", "time", "date"})
+    public interface ReflectiveActivityDTO {
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long id();
+
+        @JsonProperty(value = "time", access = JsonProperty.Access.READ_ONLY)
+        String time();
+    }
+
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    public interface ReflectiveNewActivityDTO {
+    }
+
+    private static final TypeReference<List<ActivityDTO>> ACTIVITIES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<NewActivityDTO>> NEW_ACTIVITIES = new TypeReference<>() {
+    };
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private List<ActivityDTO> activities;
+    private byte[] activitiesJson;
+    private byte[] newActivitiesJson;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+    private ObjectReader newListReader;
+    private ObjectWriter reflectiveListWriter;
+    private ObjectReader reflectiveListReader;
+    private ObjectReader reflectiveNewListReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        // A year of activities a few times a day, with the durations people actually log
+        long[] minutes = {15, 30, 45, 60, 90, 120, 1440};
+        activities = IntStream.range(0, size)
+                .mapToObj(i -> new ActivityDTO((long) i + 1, "Activity " + i, minutes[i % minutes.length],
+                        LocalDate.of(2024, 1, 1).plusDays(i / 3 % 366)))
+                .toList();
+        List<NewActivityDTO> newActivities = activities.stream()
+                .map(activity -> new NewActivityDTO(activity.name(), activity.time(), activity.date()))
+                .toList();
+
+        // Dates as ISO strings, as Spring Boot configures Jackson
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        listType = objectMapper.constructType(ACTIVITIES);
+        listWriter = objectMapper.writerFor(ACTIVITIES);
+        listReader = objectMapper.readerFor(ACTIVITIES);
+        newListReader = objectMapper.readerFor(NEW_ACTIVITIES);
+
+        ObjectMapper reflective = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .mixIn(ActivityDTO.class, ReflectiveActivityDTO.class)
+                .mixIn(NewActivityDTO.class, ReflectiveNewActivityDTO.class)
+                .build();
+        reflectiveListWriter = reflective.writerFor(ACTIVITIES);
+        reflectiveListReader = reflective.readerFor(ACTIVITIES);
+        reflectiveNewListReader = reflective.readerFor(NEW_ACTIVITIES);
+
+        activitiesJson = listWriter.writeValueAsBytes(activities);
+        newActivitiesJson = objectMapper.writeValueAsBytes(newActivities);
+    }
+
+    @Benchmark
+    public int writeList() throws IOException {
+        out.reset();
+        listWriter.writeValue(out, activities);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeListPerResponse() throws IOException {
+        out.reset();
+        objectMapper.writer().forType(listType).writeValue(out, activities);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeListReflective() throws IOException {
+        out.reset();
+        reflectiveListWriter.writeValue(out, activities);
+        return out.size();
+    }
+
+    @Benchmark
+    public List<ActivityDTO> readList() throws IOException {
+        return listReader.readValue(activitiesJson);
+    }
+
+    @Benchmark
+    public List<ActivityDTO> readListReflective() throws IOException {
+        return reflectiveListReader.readValue(activitiesJson);
+    }
+
+    @Benchmark
+    public List<NewActivityDTO> readNewList() throws IOException {
+        return newListReader.readValue(newActivitiesJson);
+    }
+
+    @Benchmark
+    public List<NewActivityDTO> readNewListReflective() throws IOException {
+        return reflectiveNewListReader.readValue(newActivitiesJson);
+    }
+}
@@ -0,0 +1,105 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityService;
+import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The mapping work ActivityService does around the repository (DTO to model, time parsing,
+ * model to DTO), with a repository that does nothing so only the mapping is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityServiceMappingBenchmark {
+
+    private final NewActivityDTO newActivity = new NewActivityDTO("Morning Run", "45m", LocalDate.of(2024, 1, 15));
+    private ActivityService activityService;
+
+    @Setup
+    public void setUp() {
+        activityService = new ActivityService(new NoOpActivityDomainRepository(), null, null);
+    }
+
+    @Benchmark
+    public ActivityDTO createActivity() {
+        return activityService.createActivity(newActivity);
+    }
+
+    @Benchmark
+    public ActivityDTO updateActivity() {
+        return activityService.updateActivity(1L, newActivity);
+    }
+
+    private static final class NoOpActivityDomainRepository implements ActivityDomainRepository {
+
+        @Override
+        public Optional<Activity> findById(Long id) {
+            Activity activity = new Activity("Evening Walk", 30, LocalDate.of(2024, 1, 14));
+            activity.setId(id);
+            return Optional.of(activity);
+        }
+
+        @Override
+        public Activity save(Activity activity) {
+            activity.setId(1L);
+            return activity;
+        }
+
+        @Override
+        public void update(Activity activity) {
+        }
+
+        @Override
+        public Optional<ActivityVersion> findVersionById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Activity> findAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Activity> findByNameContainingIgnoreCase(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<Activity> streamAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Activity> saveAll(List<Activity> activities) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times per second for a batch of import times: {@link TimeTranslator#parseAll} against a loop over
+ * {@link TimeTranslator#toMinutes} that catches failures, and a loop over {@code parseMinutes}.
+ * {@code short} batches hold only one and two digit times, {@code mixed} ones add longer numbers,
+ * compound and ISO times, whitespace and about one invalid time in fifty.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeTranslatorBatchBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String[] SHORT = {"5m", "15m", "30m", "45m", "1h", "2h", "12h", "1d", "3d", "1w"};
+    private static final String[] MIXED = {"45m", "2h", "90m", " 10d ", "120m", "1h30m", "PT1H30M", "1w2d3h15m", "3w", "30x"};
+
+    @Param({"short", "mixed"})
+    private String shape;
+
+    private String[] times;
+    private final BitSet failures = new BitSet(BATCH_SIZE);
+
+    @Setup
+    public void setUp() {
+        String[] pool = shape.equals("short") ? SHORT : MIXED;
+        SplittableRandom random = new SplittableRandom(42);
+        times = new String[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            // Keeps invalid times rare in the mixed batch, as in a real import
+            String time = pool[random.nextInt(pool.length)];
+            times[i] = time.equals("30x") && random.nextInt(5) != 0 ? "30m" : time;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] perCallToMinutes() {
+        long[] minutes = new long[times.length];
+        for (int i = 0; i < times.length; i++) {
+            try {
+                minutes[i] = TimeTranslator.toMinutes(times[i]);
+            } catch (IllegalArgumentException e) {
+                minutes[i] = -1;
+            }
+        }
+        return minutes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] perCallParseMinutes() {
+        long[] minutes = new long[times.length];
+        for (int i = 0; i < times.length; i++) {
+            minutes[i] = TimeTranslator.parseMinutes(times[i]);
+        }
+        return minutes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] parseAll() {
+        return TimeTranslator.parseAll(times, failures);
+    }
+}
@@ -0,0 +1,63 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TimeTranslator#toMinutes} for the shapes clients send, runs on every create and update,
+ * against the non-throwing {@code parseMinutes} over a String and over UTF-8 bytes, plus
+ * {@link TimeTranslator#format} of the same value, which runs for every activity written as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeTranslatorBenchmark {
+
+    @Param({"45m", "2h", " 10d ", "3w", "1w2d3h15m", "PT1H30M"})
+    private String time;
+
+    private byte[] utf8;
+    private long minutes;
+
+    @Setup
+    public void setUp() {
+        utf8 = time.getBytes(StandardCharsets.UTF_8);
+        minutes = TimeTranslator.toMinutes(time);
+    }
+
+    @Benchmark
+    public long toMinutes() {
+        return TimeTranslator.toMinutes(time);
+    }
+
+    @Benchmark
+    public long parseMinutes() {
+        return TimeTranslator.parseMinutes(time);
+    }
+
+    @Benchmark
+    public long parseMinutesUtf8() {
+        return TimeTranslator.parseMinutes(utf8, 0, utf8.length);
+    }
+
+    @Benchmark
+    public String format() {
+        return TimeTranslator.format(minutes);
+    }
+}
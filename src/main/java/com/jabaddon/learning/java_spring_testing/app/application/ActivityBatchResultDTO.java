@@ -0,0 +1,18 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ActivityBatchResultDTO(
+        int index,
+        ActivityDTO activity,
+        String error
+) {
+    public static ActivityBatchResultDTO created(int index, ActivityDTO activity) {
+        return new ActivityBatchResultDTO(index, activity, null);
+    }
+
+    public static ActivityBatchResultDTO failed(int index, String error) {
+        return new ActivityBatchResultDTO(index, null, error);
+    }
+}
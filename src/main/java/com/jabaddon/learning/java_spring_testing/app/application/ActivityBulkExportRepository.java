@@ -0,0 +1,15 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Copies activities out of the database as encoded rows, without reading them into objects first.
+ */
+public interface ActivityBulkExportRepository {
+    /**
+     * Writes the {@code id, name, minutes, date} of every activity within {@code range} to {@code out}
+     * in {@code format}, in no particular order. Must run inside a transaction; {@code out} is not closed.
+     */
+    void export(ActivityDateRange range, ActivityExportFormat format, OutputStream out) throws IOException;
+}
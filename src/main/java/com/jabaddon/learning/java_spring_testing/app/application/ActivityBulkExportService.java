@@ -0,0 +1,30 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Whole-table exports for analytics, in the CSV and binary formats of Postgres {@code COPY}. Rows go from
+ * the database connection to the output as they are read; unlike the JSON export they are never mapped to
+ * activities on the way.
+ */
+@Timed(value = "activity.export", histogram = true)
+@Service
+public class ActivityBulkExportService {
+
+    private final ActivityBulkExportRepository activityBulkExportRepository;
+
+    public ActivityBulkExportService(ActivityBulkExportRepository activityBulkExportRepository) {
+        this.activityBulkExportRepository = activityBulkExportRepository;
+    }
+
+    // Read-only, so with replicas configured the export does not load the primary
+    @Transactional(readOnly = true)
+    public void exportActivities(ActivityDateRange range, ActivityExportFormat format, OutputStream out) throws IOException {
+        activityBulkExportRepository.export(range, format, out);
+    }
+}
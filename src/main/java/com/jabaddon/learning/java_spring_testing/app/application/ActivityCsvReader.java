@@ -0,0 +1,205 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads CSV one record at a time, as RFC 4180 has it: fields may be quoted, and quoted fields may hold
+ * commas, line breaks and doubled quotes. Blank lines are skipped. Only the first {@value #COLUMNS} fields
+ * of a record are kept, and a record longer than {@value #MAX_RECORD_LENGTH} characters is skipped over
+ * rather than read, so one broken line cannot take the memory of a whole file.
+ * <p>
+ * It also counts how many bytes the input takes in UTF-8 up to the end of the current record, so a reader
+ * over a UTF-8 file can be started again right after any record. A byte order mark at the start of the
+ * file, which spreadsheet programs like to write, is skipped but still counted.
+ */
+class ActivityCsvReader {
+
+    static final int COLUMNS = 3;
+    static final int MAX_RECORD_LENGTH = 4096;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private final StringBuilder field = new StringBuilder();
+    private final String[] fields = new String[COLUMNS];
+    private int fieldCount;
+    private int recordLength;
+    private long line = 1;
+    private long recordLine;
+    private String error;
+    private long offset;
+    private boolean fileStart;
+
+    ActivityCsvReader(Reader reader) {
+        this(reader, 1, 0);
+    }
+
+    /**
+     * A reader for input that starts on line {@code firstLine} and at byte {@code firstOffset} of a larger one.
+     */
+    ActivityCsvReader(Reader reader, long firstLine, long firstOffset) {
+        this.reader = reader;
+        this.line = firstLine;
+        this.offset = firstOffset;
+        this.fileStart = firstOffset == 0;
+    }
+
+    /**
+     * Moves to the next record; false at the end of the input.
+     */
+    boolean next() throws IOException {
+        int c = read();
+        if (fileStart) {
+            fileStart = false;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        while (c == '\n' || c == '\r') {
+            endOfLine(c);
+            c = read();
+        }
+        if (c < 0) {
+            return false;
+        }
+        recordLine = line;
+        fieldCount = 0;
+        recordLength = 0;
+        error = null;
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    error = "Quoted field is not closed";
+                    endField();
+                    return true;
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append((char) c);
+                }
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                endField();
+                if (c >= 0) {
+                    endOfLine(c);
+                }
+                return true;
+            } else if (c == ',') {
+                endField();
+                fieldStart = true;
+                c = read();
+                continue;
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else {
+                append((char) c);
+            }
+            fieldStart = false;
+            c = read();
+        }
+    }
+
+    /**
+     * The line the current record starts on, counting from 1.
+     */
+    long line() {
+        return recordLine;
+    }
+
+    /**
+     * The line the input goes on with after the current record.
+     */
+    long nextLine() {
+        return line;
+    }
+
+    /**
+     * How many fields the current record has, including those past {@value #COLUMNS} that were not kept.
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    String field(int index) {
+        return index < Math.min(fieldCount, COLUMNS) ? fields[index] : null;
+    }
+
+    /**
+     * The UTF-8 length of the input up to and including the line break that ends the current record.
+     */
+    long offset() {
+        return offset;
+    }
+
+    /**
+     * Why the current record could not be read as it is, or null when it could.
+     */
+    String error() {
+        return error;
+    }
+
+    private void append(char c) {
+        if (++recordLength > MAX_RECORD_LENGTH) {
+            error = "Row is longer than " + MAX_RECORD_LENGTH + " characters";
+            return;
+        }
+        field.append(c);
+    }
+
+    private void endField() {
+        if (fieldCount < COLUMNS) {
+            fields[fieldCount] = error == null ? field.toString() : null;
+        }
+        fieldCount++;
+        field.setLength(0);
+    }
+
+    // A line ends with \n, \r\n or a lone \r
+    private void endOfLine(int c) throws IOException {
+        if (c == '\r' && peek() == '\n') {
+            read();
+        }
+        line++;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        // Surrogates come in pairs, 4 bytes for the two
+        offset += c < 0x80 ? 1 : (c < 0x800 || Character.isSurrogate(c) ? 2 : 3);
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -2,11 +2,27 @@ package com.jabaddon.learning.java_spring_testing.app.application;
 
 import java.time.LocalDate;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
 
+/**
+ * Written to JSON as {@code id} (left out when null), {@code name}, {@code minutes}, {@code time} (null for
+ * negative minutes) and {@code date}, by {@link ActivityDTOSerializer}.
+ */
+@JsonSerialize(using = ActivityDTOSerializer.class)
+@JsonDeserialize(using = ActivityDTODeserializer.class)
 public record ActivityDTO(
-    @JsonInclude(JsonInclude.Include.NON_NULL) Long id,
+    Long id,
     String name,
     long minutes,
     LocalDate date
-) {}
\ No newline at end of file
+) {
+    /**
+     * The minutes in compact form, such as {@code 1h30m}, for display; ignored when reading JSON.
+     * Null for negative minutes, which the domain rejects but older rows may still hold.
+     */
+    public String time() {
+        return minutes < 0 ? null : TimeTranslator.format(minutes);
+    }
+}
@@ -0,0 +1,43 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Reads what {@link ActivityDTOSerializer} writes. {@code time} is derived from {@code minutes},
+ * so it is skipped rather than read.
+ */
+class ActivityDTODeserializer extends ActivityJsonDeserializer<ActivityDTO> {
+
+    ActivityDTODeserializer() {
+        super(ActivityDTO.class);
+    }
+
+    @Override
+    public ActivityDTO deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!enterObject(parser)) {
+            return (ActivityDTO) context.handleUnexpectedToken(ActivityDTO.class, parser);
+        }
+        Long id = null;
+        String name = null;
+        long minutes = 0;
+        LocalDate date = null;
+        for (JsonToken token = parser.currentToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = readLong(parser, context);
+                case "name" -> name = readString(parser, context);
+                case "minutes" -> minutes = readPrimitiveLong(parser, context);
+                case "date" -> date = readDate(parser, context);
+                case "time" -> parser.skipChildren();
+                default -> context.handleUnknownProperty(parser, this, ActivityDTO.class, field);
+            }
+        }
+        return new ActivityDTO(id, name, minutes, date);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Writes {@link ActivityDTO} without bean introspection: {@code id} (left out when null), {@code name},
+ * {@code minutes}, {@code time} (null for negative minutes) and {@code date} as an ISO string, in that order.
+ * Field names are encoded once, and so are dates and times, which repeat a lot across a page of
+ * activities: they are kept in direct-mapped tables and copied into the output as ready-made bytes.
+ */
+class ActivityDTOSerializer extends StdSerializer<ActivityDTO> {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString MINUTES = new SerializedString("minutes");
+    static final SerializedString TIME = new SerializedString("time");
+    static final SerializedString DATE = new SerializedString("date");
+
+    // Enough for every day of about eleven years, and for every time below a day and a half
+    private static final int DATE_SLOTS = 4096;
+    private static final int TIME_SLOTS = 2048;
+
+    private record FormattedDate(long epochDay, SerializedString text) {
+    }
+
+    // Racy like TimeStringDeserializer's table: slots only ever hold complete immutable values
+    private final FormattedDate[] dates = new FormattedDate[DATE_SLOTS];
+    private final SerializedString[] times = new SerializedString[TIME_SLOTS];
+
+    ActivityDTOSerializer() {
+        super(ActivityDTO.class);
+    }
+
+    @Override
+    public void serialize(ActivityDTO activity, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(activity);
+        if (activity.id() != null) {
+            generator.writeFieldName(ID);
+            generator.writeNumber(activity.id());
+        }
+        generator.writeFieldName(NAME);
+        generator.writeString(activity.name());
+        generator.writeFieldName(MINUTES);
+        generator.writeNumber(activity.minutes());
+        generator.writeFieldName(TIME);
+        // Negative minutes have no compact form; the column allows them, and one bad row must not break a page
+        if (activity.minutes() < 0) {
+            generator.writeNull();
+        } else {
+            generator.writeString(time(activity.minutes()));
+        }
+        generator.writeFieldName(DATE);
+        if (activity.date() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(date(activity.date()));
+        }
+        generator.writeEndObject();
+    }
+
+    private SerializableString time(long minutes) {
+        if (minutes >= TIME_SLOTS) {
+            return new SerializedString(TimeTranslator.format(minutes));
+        }
+        int slot = (int) minutes;
+        SerializedString time = times[slot];
+        if (time == null) {
+            time = new SerializedString(TimeTranslator.format(minutes));
+            times[slot] = time;
+        }
+        return time;
+    }
+
+    private SerializableString date(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        int slot = (int) Math.floorMod(epochDay, DATE_SLOTS);
+        FormattedDate formatted = dates[slot];
+        if (formatted == null || formatted.epochDay() != epochDay) {
+            formatted = new FormattedDate(epochDay, new SerializedString(date.toString()));
+            dates[slot] = formatted;
+        }
+        return formatted.text();
+    }
+}
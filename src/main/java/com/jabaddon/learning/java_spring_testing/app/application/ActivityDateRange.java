@@ -0,0 +1,34 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.time.LocalDate;
+
+/**
+ * Inclusive date range filter. Either end may be open ({@code null}).
+ */
+public record ActivityDateRange(LocalDate from, LocalDate to) {
+
+    public static final ActivityDateRange UNBOUNDED = new ActivityDateRange(null, null);
+
+    // Stand-ins for an open end that every supported database accepts as a DATE,
+    // so bounded queries can always use a plain BETWEEN on the (date, id) index
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    public ActivityDateRange {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+
+    public boolean isBounded() {
+        return from != null || to != null;
+    }
+
+    public LocalDate fromOrEarliest() {
+        return from == null ? EARLIEST : from;
+    }
+
+    public LocalDate toOrLatest() {
+        return to == null ? LATEST : to;
+    }
+}
@@ -0,0 +1,11 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+/**
+ * Row formats of the bulk export, the two of Postgres {@code COPY}.
+ */
+public enum ActivityExportFormat {
+    /** {@code id,name,minutes,date} rows under a header line. */
+    CSV,
+    /** The {@code PGCOPY} binary format, readable with {@code COPY ... FROM ... WITH (FORMAT binary)}. */
+    BINARY
+}
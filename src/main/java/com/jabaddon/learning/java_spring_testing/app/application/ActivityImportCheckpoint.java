@@ -0,0 +1,13 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+/**
+ * How far an import job got: the byte offset and line its file goes on from, and the rows counted up to there.
+ */
+public record ActivityImportCheckpoint(
+        long byteOffset,
+        long line,
+        long imported,
+        long rejected
+) {
+    public static final ActivityImportCheckpoint START = new ActivityImportCheckpoint(0, 1, 0, 0);
+}
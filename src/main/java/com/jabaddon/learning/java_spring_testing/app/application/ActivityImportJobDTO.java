@@ -0,0 +1,20 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ActivityImportJobDTO(
+        UUID id,
+        ActivityImportJobStatus status,
+        long byteOffset,
+        long line,
+        long imported,
+        long rejected,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+    public ActivityImportCheckpoint checkpoint() {
+        return new ActivityImportCheckpoint(byteOffset, line, imported, rejected);
+    }
+}
@@ -0,0 +1,45 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Import jobs and their checkpoints. Every change but {@link #create} is conditional, so a node that lost
+ * a job to another one cannot move it any more.
+ */
+public interface ActivityImportJobRepository {
+    /**
+     * Creates a queued job.
+     */
+    ActivityImportJobDTO create(UUID id);
+    Optional<ActivityImportJobDTO> findById(UUID id);
+    /**
+     * Up to {@code limit} jobs nobody seems to be working on, oldest first: queued or running, and not
+     * changed for long enough to be taken for dead with the node that had them.
+     */
+    List<UUID> findAbandoned(int limit);
+    /**
+     * Queues a failed job again, or an abandoned one (see {@link #findAbandoned}). False when the job is in
+     * neither state.
+     */
+    boolean requeue(UUID id);
+    /**
+     * Sets a queued job running; false when it is not queued, because another run started it first.
+     */
+    boolean start(UUID id);
+    /**
+     * Moves a running job from {@code from} to {@code to}; false when the job is no longer where
+     * {@code from} says. Joins the transaction of the chunk it is a checkpoint for.
+     */
+    boolean checkpoint(UUID id, ActivityImportCheckpoint from, ActivityImportCheckpoint to);
+    /**
+     * Ends a running job that is still at {@code at} with {@code status}.
+     */
+    boolean finish(UUID id, ActivityImportCheckpoint at, ActivityImportJobStatus status, String error);
+    /**
+     * Queues a running job that is still at {@code at} again, abandoned right away, for a run that was
+     * stopped through no fault of the job.
+     */
+    boolean release(UUID id, ActivityImportCheckpoint at);
+}
@@ -0,0 +1,151 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * CSV imports that survive a deploy or a lost node. A job imports a UTF-8 file stored beforehand, in the chunks
+ * of {@link ActivityImportService}, and commits each chunk together with the job's checkpoint: the byte offset
+ * and line the file goes on from. A job that stopped halfway is resumed from its checkpoint. Every activity
+ * carries the job id and its line as import key, which the database keeps unique, so a row is stored exactly
+ * once even if two nodes were to run the same job.
+ */
+@Timed(value = "activity.import", histogram = true)
+@Service
+public class ActivityImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportJobService.class);
+    // The error column of activity_import_jobs
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ActivityImportService activityImportService;
+    private final ActivityDomainRepository activityRepository;
+    private final ActivityImportJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityImportJobService(ActivityImportService activityImportService, ActivityDomainRepository activityRepository,
+                                    ActivityImportJobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        this.activityImportService = activityImportService;
+        this.activityRepository = activityRepository;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ActivityImportJobDTO createJob(UUID id) {
+        return jobRepository.create(id);
+    }
+
+    public ActivityImportJobDTO getJob(UUID id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Import job not found"));
+    }
+
+    /**
+     * Queues a job that stopped again, so it can be run from its checkpoint. A job that is queued, running or
+     * completed cannot be, which is a {@link ConflictException}.
+     */
+    public ActivityImportJobDTO resumeJob(UUID id) {
+        ActivityImportJobDTO job = getJob(id);
+        if (!jobRepository.requeue(id)) {
+            throw new ConflictException(switch (job.status()) {
+                case COMPLETED -> "Import job " + id + " is already completed";
+                case QUEUED -> "Import job " + id + " is already queued";
+                default -> "Import job " + id + " is still running";
+            });
+        }
+        return getJob(id);
+    }
+
+    /**
+     * Queues again up to {@code limit} jobs that were dropped from the queue of their node or lost with it,
+     * and returns the ones this call got; another node sweeping at the same time gets the others.
+     */
+    public List<UUID> requeueAbandonedJobs(int limit) {
+        return jobRepository.findAbandoned(limit).stream()
+                .filter(jobRepository::requeue)
+                .toList();
+    }
+
+    /**
+     * Starts a queued job and runs it from its checkpoint to the end of {@code file} or the first failure, and
+     * returns it as it ended; a job another run started first is left to that run. Failures do not throw:
+     * they leave the job failed, with the reason. A run interrupted by a shutdown queues the job again instead.
+     */
+    public ActivityImportJobDTO runJob(UUID id, Path file) {
+        if (!jobRepository.start(id)) {
+            logger.debug("Import job {} is not queued any more, not running it", id);
+            return getJob(id);
+        }
+        JobChunkWriter writer = new JobChunkWriter(id, getJob(id).checkpoint());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ActivityImportCheckpoint start = writer.checkpoint;
+            channel.position(start.byteOffset());
+            writer.records = new ActivityCsvReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8), start.line(), start.byteOffset());
+            activityImportService.importCsv(writer.records, start.byteOffset() == 0, id + ":", Writer.nullWriter(), writer);
+            jobRepository.finish(id, writer.checkpoint, ActivityImportJobStatus.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            // The interrupt is cleared while the job is queued again, so the database calls are not cut short
+            if (Thread.interrupted() || e instanceof ClosedByInterruptException) {
+                logger.info("Import job {} interrupted at line {}, queuing it again", id, writer.checkpoint.line());
+                try {
+                    jobRepository.release(id, writer.checkpoint);
+                    return getJob(id);
+                } finally {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            logger.warn("Import job {} stopped at line {}", id, writer.checkpoint.line(), e);
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            jobRepository.finish(id, writer.checkpoint, ActivityImportJobStatus.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+        return getJob(id);
+    }
+
+    // Commits every chunk with the checkpoint right after it, or neither
+    private final class JobChunkWriter implements ActivityImportService.ChunkWriter {
+        private final UUID id;
+        private ActivityImportCheckpoint checkpoint;
+        private ActivityCsvReader records;
+
+        JobChunkWriter(UUID id, ActivityImportCheckpoint checkpoint) {
+            this.id = id;
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        public int write(List<Activity> activities, int rejected) {
+            ActivityImportCheckpoint next = new ActivityImportCheckpoint(records.offset(), records.nextLine(),
+                    checkpoint.imported() + activities.size(), checkpoint.rejected() + rejected);
+            transactionTemplate.executeWithoutResult(status -> {
+                activityRepository.insertAll(activities);
+                if (!jobRepository.checkpoint(id, checkpoint, next)) {
+                    throw new IllegalStateException("Import job " + id + " was taken over by another run");
+                }
+            });
+            checkpoint = next;
+            logger.info("Import job {}: {} activities imported, {} rows rejected", id, next.imported(), next.rejected());
+            return activities.size();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+public enum ActivityImportJobStatus {
+    /** Waiting for a runner, on any node, to start it from its checkpoint. */
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    /** Stopped before the end of its file; can be resumed from its last checkpoint. */
+    FAILED
+}
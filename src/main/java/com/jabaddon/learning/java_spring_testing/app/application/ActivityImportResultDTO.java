@@ -0,0 +1,10 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+public record ActivityImportResultDTO(
+        long imported,
+        long rejected
+) {
+    public boolean hasRejections() {
+        return rejected > 0;
+    }
+}
@@ -0,0 +1,353 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.TreeNode;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk loads of activities from CSV: {@code name,time,date} rows, optionally under a header line with
+ * those names. The input is read as a stream and written in chunks of {@value #IMPORT_CHUNK_SIZE}
+ * activities, each committed on its own, so memory use does not grow with the file.
+ * Rows that cannot be imported do not stop the import: they go to the rejection report with their line
+ * number and the reason, as CSV with a {@value #REPORT_HEADER} header.
+ * <p>
+ * JSON arrays of {@link NewActivityDTO} are read element by element in the same chunks, and each chunk is
+ * written while the next one is being parsed; rejected elements come back in the result with their index.
+ */
+@Timed(value = "activity.import", histogram = true)
+@Service
+public class ActivityImportService {
+
+    static final int IMPORT_CHUNK_SIZE = 5_000;
+    // The width of activities.name; longer names would fail the whole chunk in the database
+    static final int MAX_NAME_LENGTH = 255;
+    static final String REPORT_HEADER = "line,name,time,date,error";
+    // Past this, rejected elements of a JSON import are counted but not listed
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportService.class);
+
+    private final ActivityDomainRepository activityRepository;
+
+    public ActivityImportService(ActivityDomainRepository activityRepository) {
+        this.activityRepository = activityRepository;
+    }
+
+    // Not transactional on purpose: every chunk commits on its own through insertAll
+    public ActivityImportResultDTO importCsv(Reader csv, Writer rejections) throws IOException {
+        rejections.write(REPORT_HEADER);
+        rejections.write('\n');
+        ActivityImportResultDTO result = importCsv(new ActivityCsvReader(csv), true, null, rejections,
+                (activities, rejected) -> activityRepository.insertAll(activities).size());
+        rejections.flush();
+        return result;
+    }
+
+    /**
+     * Reads {@code records} in chunks and hands the activities of each to {@code writer}, while the reader
+     * is still at the last row of the chunk. With {@code importKeyPrefix}, every activity gets that prefix
+     * and its line as import key.
+     */
+    ActivityImportResultDTO importCsv(ActivityCsvReader records, boolean mayHaveHeader, String importKeyPrefix,
+                                      Writer rejections, ChunkWriter writer) throws IOException {
+        Chunk chunk = new Chunk(IMPORT_CHUNK_SIZE);
+        long imported = 0;
+        long rejected = 0;
+        boolean first = mayHaveHeader;
+        while (records.next()) {
+            if (first && isHeader(records)) {
+                first = false;
+                continue;
+            }
+            first = false;
+            // Rows that cannot be read go through the chunk as well, so the report stays in line order
+            String error = records.error() != null ? records.error() : columnCountError(records);
+            chunk.add(records.line(), records.field(0), records.field(1), records.field(2), error);
+            if (chunk.isFull()) {
+                imported += write(chunk, importKeyPrefix, rejections, writer);
+                rejected += chunk.rejected;
+                chunk.clear();
+            }
+        }
+        imported += write(chunk, importKeyPrefix, rejections, writer);
+        rejected += chunk.rejected;
+        return new ActivityImportResultDTO(imported, rejected);
+    }
+
+    /**
+     * Imports the JSON array {@code json} is positioned before. The parser needs a codec, as parsers created
+     * by an {@code ObjectMapper} have. An element that is not an activity is rejected on its own; a body that
+     * is not a JSON array stops the import with an {@link IllegalArgumentException}, leaving the chunks
+     * written until then in place.
+     */
+    // Not transactional on purpose: every chunk commits on its own through insertAll
+    public ActivityJsonImportResultDTO importJson(JsonParser json) throws IOException {
+        ObjectCodec codec = json.getCodec();
+        List<ActivityBatchResultDTO> errors = new ArrayList<>();
+        long rejected = 0;
+        int index = 0;
+        try (PipelinedWriter writer = new PipelinedWriter()) {
+            try {
+                if (json.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Expected a JSON array of activities");
+                }
+                List<Activity> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+                for (JsonToken token = json.nextToken(); token != JsonToken.END_ARRAY; token = json.nextToken(), index++) {
+                    if (token == null) {
+                        throw new IllegalArgumentException("JSON array of activities is not closed");
+                    }
+                    String error;
+                    if (token == JsonToken.VALUE_NULL) {
+                        error = "Activity cannot be null";
+                    } else {
+                        // A whole element is read before it is bound, so one that does not bind leaves the parser
+                        // at the next element rather than somewhere inside this one
+                        TreeNode element = json.readValueAsTree();
+                        try {
+                            chunk.add(toActivity(codec.treeToValue(element, NewActivityDTO.class)));
+                            error = null;
+                        } catch (JsonProcessingException e) {
+                            error = e.getOriginalMessage();
+                        } catch (IllegalArgumentException e) {
+                            error = e.getMessage();
+                        }
+                    }
+                    if (error != null) {
+                        rejected++;
+                        if (errors.size() < MAX_REPORTED_ERRORS) {
+                            errors.add(ActivityBatchResultDTO.failed(index, error));
+                        }
+                    }
+                    if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                        writer.submit(chunk);
+                        chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    writer.submit(chunk);
+                }
+                writer.await();
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                writer.await();
+                String message = e instanceof JsonProcessingException processing ? processing.getOriginalMessage() : e.getMessage();
+                throw new IllegalArgumentException(message + " (at element " + index + ", "
+                        + writer.imported + " activities were imported before it)", e);
+            }
+            return new ActivityJsonImportResultDTO(writer.imported, rejected, writer.chunks, errors);
+        }
+    }
+
+    private static Activity toActivity(NewActivityDTO newActivity) {
+        long minutes = TimeTranslator.toMinutes(newActivity.time());
+        return toActivity(newActivity.name(), minutes, newActivity.date());
+    }
+
+    private int write(Chunk chunk, String importKeyPrefix, Writer rejections, ChunkWriter writer) throws IOException {
+        if (chunk.size == 0) {
+            return 0;
+        }
+        BitSet invalidTimes = new BitSet(chunk.size);
+        long[] minutes = TimeTranslator.parseAll(Arrays.asList(chunk.times).subList(0, chunk.size), invalidTimes);
+        List<Activity> activities = new ArrayList<>(chunk.size);
+        for (int i = 0; i < chunk.size; i++) {
+            String error = chunk.errors[i];
+            if (error == null && invalidTimes.get(i)) {
+                error = TimeTranslator.failureMessage(minutes[i], chunk.times[i]);
+            }
+            if (error == null) {
+                try {
+                    Activity activity = toActivity(chunk.names[i], minutes[i], chunk.dates[i]);
+                    if (importKeyPrefix != null) {
+                        activity.setImportKey(importKeyPrefix + chunk.lines[i]);
+                    }
+                    activities.add(activity);
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                reject(rejections, chunk.lines[i], chunk.names[i], chunk.times[i], chunk.dates[i], error);
+                chunk.rejected++;
+            }
+        }
+        return writer.write(activities, chunk.rejected);
+    }
+
+    /**
+     * Stores the valid activities of a chunk, of which {@code rejected} other rows were left out, and
+     * returns how many it stored.
+     */
+    @FunctionalInterface
+    interface ChunkWriter {
+        int write(List<Activity> activities, int rejected) throws IOException;
+    }
+
+    private static boolean isHeader(ActivityCsvReader records) {
+        return records.error() == null && records.fieldCount() == ActivityCsvReader.COLUMNS
+                && "name".equalsIgnoreCase(records.field(0).trim())
+                && "time".equalsIgnoreCase(records.field(1).trim())
+                && "date".equalsIgnoreCase(records.field(2).trim());
+    }
+
+    private static String columnCountError(ActivityCsvReader records) {
+        if (records.fieldCount() == ActivityCsvReader.COLUMNS) {
+            return null;
+        }
+        return "Expected " + ActivityCsvReader.COLUMNS + " columns (name,time,date) but found " + records.fieldCount();
+    }
+
+    private static Activity toActivity(String name, long minutes, String date) {
+        String trimmedDate = date.trim();
+        LocalDate parsedDate = null;
+        if (!trimmedDate.isEmpty()) {
+            try {
+                parsedDate = LocalDate.parse(trimmedDate);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date '" + trimmedDate + "', expected yyyy-MM-dd");
+            }
+        }
+        return toActivity(name, minutes, parsedDate);
+    }
+
+    // The Activity rules, plus what they do not cover but the activities table does not take
+    private static Activity toActivity(String name, long minutes, LocalDate date) {
+        if (name != null && name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Activity name cannot be longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        if (name != null && name.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("Activity name cannot contain NUL characters");
+        }
+        if (date != null && date.getYear() < 1) {
+            throw new IllegalArgumentException("Date is out of range: " + date);
+        }
+        return new Activity(name, minutes, date);
+    }
+
+    private static void reject(Writer rejections, long line, String name, String time, String date, String error) throws IOException {
+        rejections.write(Long.toString(line));
+        for (String value : new String[]{name, time, date, error}) {
+            rejections.write(',');
+            writeField(rejections, value);
+        }
+        rejections.write('\n');
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    // Writes chunks on its own thread, one at a time: submitting a chunk first waits for the previous one,
+    // so parsing runs at most one chunk ahead of the database
+    private final class PipelinedWriter implements AutoCloseable {
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "activity-import-writer"));
+        private Future<Integer> pending;
+        long imported;
+        int chunks;
+
+        void submit(List<Activity> chunk) {
+            await();
+            pending = executor.submit(() -> activityRepository.insertAll(chunk).size());
+        }
+
+        void await() {
+            if (pending == null) {
+                return;
+            }
+            try {
+                imported += pending.get();
+                chunks++;
+                logger.info("Imported {} activities in {} chunks so far", imported, chunks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while importing activities", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Could not import activities", e.getCause());
+            } finally {
+                pending = null;
+            }
+        }
+
+        // Lets a chunk that is being written finish rather than interrupting it halfway
+        @Override
+        public void close() {
+            executor.close();
+        }
+    }
+
+    // Rows waiting to be written, in arrays reused from one chunk to the next
+    private static final class Chunk {
+        final long[] lines;
+        final String[] names;
+        final String[] times;
+        final String[] dates;
+        final String[] errors;
+        int size;
+        int rejected;
+
+        Chunk(int capacity) {
+            lines = new long[capacity];
+            names = new String[capacity];
+            times = new String[capacity];
+            dates = new String[capacity];
+            errors = new String[capacity];
+        }
+
+        void add(long line, String name, String time, String date, String error) {
+            lines[size] = line;
+            names[size] = name;
+            times[size] = time;
+            dates[size] = date;
+            errors[size] = error;
+            size++;
+        }
+
+        boolean isFull() {
+            return size == lines.length;
+        }
+
+        void clear() {
+            Arrays.fill(names, 0, size, null);
+            Arrays.fill(times, 0, size, null);
+            Arrays.fill(dates, 0, size, null);
+            Arrays.fill(errors, 0, size, null);
+            size = 0;
+            rejected = 0;
+        }
+    }
+}
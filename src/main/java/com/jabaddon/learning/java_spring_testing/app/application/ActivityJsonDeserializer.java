@@ -0,0 +1,115 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Helpers for the hand-written activity deserializers. The common shapes (plain strings, integers,
+ * {@code yyyy-MM-dd} dates) are read straight from the parser; anything else goes to the mapper's
+ * standard deserializers, so coercions and error messages stay those of bean deserialization.
+ * Those are looked up once, when the mapper resolves this deserializer.
+ */
+abstract class ActivityJsonDeserializer<T> extends StdDeserializer<T> implements ResolvableDeserializer {
+
+    private JsonDeserializer<Object> longs;
+    private JsonDeserializer<Object> primitiveLongs;
+    private JsonDeserializer<Object> dates;
+
+    ActivityJsonDeserializer(Class<T> type) {
+        super(type);
+    }
+
+    @Override
+    public void resolve(DeserializationContext context) throws JsonMappingException {
+        longs = context.findRootValueDeserializer(context.constructType(Long.class));
+        primitiveLongs = context.findRootValueDeserializer(context.constructType(long.class));
+        dates = context.findRootValueDeserializer(context.constructType(LocalDate.class));
+    }
+
+    // Moves to the first field name (or the end) of the object; false when the value is not an object
+    protected static boolean enterObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            parser.nextToken();
+            return true;
+        }
+        return token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT;
+    }
+
+    protected String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return parser.getText();
+        }
+        if (parser.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        return StringDeserializer.instance.deserialize(parser, context);
+    }
+
+    protected Long readLong(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            return parser.getLongValue();
+        }
+        if (parser.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        return (Long) longs.deserialize(parser, context);
+    }
+
+    protected long readPrimitiveLong(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            return parser.getLongValue();
+        }
+        return (Long) primitiveLongs.deserialize(parser, context);
+    }
+
+    protected LocalDate readDate(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        if (parser.hasToken(JsonToken.VALUE_STRING) && parser.getTextLength() == 10) {
+            LocalDate date = isoDate(parser.getTextCharacters(), parser.getTextOffset());
+            if (date != null) {
+                return date;
+            }
+        }
+        return (LocalDate) dates.deserialize(parser, context);
+    }
+
+    // yyyy-MM-dd without a formatter; null for anything else, including impossible days like 02-30
+    private static LocalDate isoDate(char[] text, int from) {
+        if (text[from + 4] != '-' || text[from + 7] != '-') {
+            return null;
+        }
+        int year = digits(text, from, 4);
+        int month = digits(text, from + 5, 2);
+        int day = digits(text, from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(char[] text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,14 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.util.List;
+
+/**
+ * Outcome of a JSON import: how many activities were written and in how many chunks, how many elements were
+ * rejected, and the first {@value ActivityImportService#MAX_REPORTED_ERRORS} of those with their index in the array.
+ */
+public record ActivityJsonImportResultDTO(
+        long imported,
+        long rejected,
+        int chunks,
+        List<ActivityBatchResultDTO> errors
+) {}
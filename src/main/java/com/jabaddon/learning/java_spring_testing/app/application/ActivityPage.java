@@ -0,0 +1,12 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.util.List;
+
+public record ActivityPage(
+        List<ActivityDTO> activities,
+        String nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read side of activities: queries project straight into {@link ActivityDTO}
+ * without building managed entities or domain models.
+ */
+public interface ActivityReadRepository {
+    Optional<ActivityDTO> findById(Long id);
+    /**
+     * Returns the activity together with the version and update time of the same row.
+     */
+    Optional<VersionedActivityDTO> findVersionedById(Long id);
+    List<ActivityDTO> findAll();
+    /**
+     * Returns at most {@code limit} activities within {@code range} whose name contains {@code name},
+     * ignoring case, ranked by similarity when the search strategy supports it and by name otherwise. A range
+     * only narrows the search: it never changes how the matches are ordered.
+     */
+    List<ActivityDTO> findByNameContainingIgnoreCase(String name, ActivityDateRange range, int limit);
+    /**
+     * Returns the activities within {@code range} that come after ({@code afterDate}, {@code afterId}),
+     * in (date, id) order.
+     */
+    List<ActivityDTO> findPage(ActivityDateRange range, LocalDate afterDate, Long afterId, int limit);
+}
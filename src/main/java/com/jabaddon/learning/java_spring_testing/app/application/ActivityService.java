@@ -4,52 +4,171 @@ import com.jabaddon.learning.java_spring_testing.app.domain.services.Notificatio
 import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
 import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
 import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Each operation runs in a single transaction (read-only for queries), so lookups and writes
+ * share one connection and one persistence context, and repeated reads of the same activity
+ * are served from it instead of the database.
+ * Every operation is timed as {@code activity.service}, tagged by method, with a percentile histogram
+ * so latency SLOs can be alerted on.
+ */
+@Timed(value = "activity.service", histogram = true)
 @Service
 public class ActivityService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 10_000;
+    // Items are written in chunks so each transaction only holds a bounded number of entities
+    static final int BATCH_CHUNK_SIZE = 500;
     
     private final ActivityDomainRepository activityRepository;
+    private final ActivityReadRepository activityReadRepository;
     private final NotificationDomainService notificationService;
     
     @Autowired
-    public ActivityService(ActivityDomainRepository activityRepository, 
+    public ActivityService(ActivityDomainRepository activityRepository,
+                          ActivityReadRepository activityReadRepository,
                           NotificationDomainService emailNotificationService) {
         this.activityRepository = activityRepository;
+        this.activityReadRepository = activityReadRepository;
         this.notificationService = emailNotificationService;
     }
     
+    @Transactional(readOnly = true)
     public List<ActivityDTO> getAllActivities() {
-        return activityRepository.findAll().stream()
-                .map(this::toDTO)
-                .toList();
+        return activityReadRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityPage getActivityPage(String after, Integer limit) {
+        return getActivityPage(null, null, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityPage getActivityPage(LocalDate from, LocalDate to, String after, Integer limit) {
+        ActivityDateRange range = new ActivityDateRange(from, to);
+        int pageSize = resolvePageSize(limit);
+        ActivityCursor cursor = after == null || after.isEmpty() ? null : ActivityCursor.decode(after);
+        // Fetch one extra row to know whether there is a next page without a count query
+        List<ActivityDTO> activities = cursor == null
+                ? activityReadRepository.findPage(range, null, null, pageSize + 1)
+                : activityReadRepository.findPage(range, cursor.date(), cursor.id(), pageSize + 1);
+
+        String nextCursor = null;
+        if (activities.size() > pageSize) {
+            activities = activities.subList(0, pageSize);
+            ActivityDTO last = activities.getLast();
+            nextCursor = new ActivityCursor(last.date(), last.id()).encode();
+        }
+        return new ActivityPage(activities, nextCursor);
     }
 
+    // The stream is backed by an open database cursor, so it has to be consumed inside the transaction
+    @Transactional(readOnly = true)
+    public void exportActivities(Consumer<ActivityDTO> consumer) {
+        try (Stream<Activity> activities = activityRepository.streamAll()) {
+            activities.map(this::toDTO).forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<ActivityDTO> searchActivitiesByName(String name) {
-        return activityRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(this::toDTO)
-                .toList();
+        return searchActivitiesByName(name, null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ActivityDTO> searchActivitiesByName(String name, Integer limit) {
+        return searchActivitiesByName(name, null, null, limit);
     }
 
+    @Transactional(readOnly = true)
+    public List<ActivityDTO> searchActivitiesByName(String name, LocalDate from, LocalDate to, Integer limit) {
+        return activityReadRepository.findByNameContainingIgnoreCase(name, new ActivityDateRange(from, to), resolvePageSize(limit));
+    }
+
+    @Transactional(readOnly = true)
     public ActivityDTO getActivityById(Long id) {
-        return activityRepository.findById(id).map(this::toDTO).orElseThrow(() -> new NoSuchElementException("Activity not found"));
+        return activityReadRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Activity not found"));
     }
     
+    // The activity and its version in one read, so they cannot come from different replicas or cache entries
+    @Transactional(readOnly = true)
+    public VersionedActivityDTO getVersionedActivity(Long id) {
+        return activityReadRepository.findVersionedById(id).orElseThrow(() -> new NoSuchElementException("Activity not found"));
+    }
+    
+    @Transactional(readOnly = true)
+    public ActivityVersionDTO getActivityVersion(Long id) {
+        return activityRepository.findVersionById(id)
+                .map(version -> ActivityVersionDTO.of(id, version.version(), version.updatedAt()))
+                .orElseThrow(() -> new NoSuchElementException("Activity not found"));
+    }
+    
+    @Transactional
     public ActivityDTO createActivity(NewActivityDTO activity) {
-        Long id = activityRepository.save(toModel(activity));
-        Optional<Activity> newActivity = activityRepository.findById(id);
-        // Activity should be there, if not something went wrong
-        if (newActivity.isEmpty()) {
-            throw new IllegalStateException("Activity could not be created");
+        return toDTO(activityRepository.save(toModel(activity)));
+    }
+    
+    // Not transactional on purpose: every chunk commits on its own through saveAll
+    public List<ActivityBatchResultDTO> createActivities(List<NewActivityDTO> newActivities) {
+        if (newActivities.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " activities");
+        }
+        ActivityBatchResultDTO[] results = new ActivityBatchResultDTO[newActivities.size()];
+        String[] times = new String[newActivities.size()];
+        for (int i = 0; i < times.length; i++) {
+            NewActivityDTO newActivity = newActivities.get(i);
+            times[i] = newActivity == null ? null : newActivity.time();
+        }
+        BitSet invalidTimes = new BitSet(times.length);
+        long[] minutes = TimeTranslator.parseAll(times, invalidTimes);
+
+        List<Activity> validActivities = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < newActivities.size(); i++) {
+            NewActivityDTO newActivity = newActivities.get(i);
+            if (newActivity == null) {
+                results[i] = ActivityBatchResultDTO.failed(i, "Activity cannot be null");
+                continue;
+            }
+            if (invalidTimes.get(i)) {
+                results[i] = ActivityBatchResultDTO.failed(i, TimeTranslator.failureMessage(minutes[i], times[i]));
+                continue;
+            }
+            try {
+                validActivities.add(new Activity(newActivity.name(), minutes[i], newActivity.date()));
+                validIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = ActivityBatchResultDTO.failed(i, e.getMessage());
+            }
+        }
+
+        for (int from = 0; from < validActivities.size(); from += BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + BATCH_CHUNK_SIZE, validActivities.size());
+            List<Activity> saved = activityRepository.saveAll(validActivities.subList(from, to));
+            for (int i = 0; i < saved.size(); i++) {
+                int index = validIndexes.get(from + i);
+                results[index] = ActivityBatchResultDTO.created(index, toDTO(saved.get(i)));
+            }
         }
-        return toDTO(newActivity.get());
+        return List.of(results);
     }
     
+    @Transactional
     public ActivityDTO updateActivity(Long id, NewActivityDTO activityDetails) {
         Optional<Activity> optionalActivity = activityRepository.findById(id);
         if (optionalActivity.isEmpty()) {
@@ -62,6 +181,7 @@ public class ActivityService {
         return toDTO(activity);
     }
 
+    @Transactional
     public void deleteActivity(Long id) {
         // Fetch activity before deletion to send notification
         Optional<Activity> optionalActivity = activityRepository.findById(id);
@@ -76,6 +196,16 @@ public class ActivityService {
         notificationService.sendActivityDeletedNotification(activity);
     }
 
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     private ActivityDTO toDTO(Activity activity) {
         return new ActivityDTO(
                 activity.getId(),
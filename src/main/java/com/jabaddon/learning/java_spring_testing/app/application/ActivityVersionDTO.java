@@ -0,0 +1,18 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public record ActivityVersionDTO(
+        Long id,
+        long version,
+        Instant lastModified
+) {
+    public static ActivityVersionDTO of(Long id, Long version, LocalDateTime updatedAt) {
+        return new ActivityVersionDTO(
+                id,
+                version == null ? 0L : version,
+                updatedAt == null ? null : updatedAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
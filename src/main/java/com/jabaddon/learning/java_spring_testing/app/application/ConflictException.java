@@ -0,0 +1,12 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+/**
+ * A request that is valid but clashes with the current state of what it targets, such as resuming an import
+ * job that is still running.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
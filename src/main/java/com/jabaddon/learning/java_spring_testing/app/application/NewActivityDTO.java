@@ -2,6 +2,9 @@ package com.jabaddon.learning.java_spring_testing.app.application;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+@JsonDeserialize(using = NewActivityDTODeserializer.class)
 public record NewActivityDTO(
         String name,
         String time,
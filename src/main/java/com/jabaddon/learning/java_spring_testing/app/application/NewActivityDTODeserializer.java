@@ -0,0 +1,41 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Reads create and update requests, and every item of a batch, without bean introspection.
+ */
+class NewActivityDTODeserializer extends ActivityJsonDeserializer<NewActivityDTO> {
+
+    private final TimeStringDeserializer times = new TimeStringDeserializer();
+
+    NewActivityDTODeserializer() {
+        super(NewActivityDTO.class);
+    }
+
+    @Override
+    public NewActivityDTO deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!enterObject(parser)) {
+            return (NewActivityDTO) context.handleUnexpectedToken(NewActivityDTO.class, parser);
+        }
+        String name = null;
+        String time = null;
+        LocalDate date = null;
+        for (JsonToken token = parser.currentToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name" -> name = readString(parser, context);
+                case "time" -> time = value == JsonToken.VALUE_NULL ? null : times.deserialize(parser, context);
+                case "date" -> date = readDate(parser, context);
+                default -> context.handleUnknownProperty(parser, this, NewActivityDTO.class, field);
+            }
+        }
+        return new NewActivityDTO(name, time, date);
+    }
+}
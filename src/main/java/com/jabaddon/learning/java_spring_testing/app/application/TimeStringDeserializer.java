@@ -0,0 +1,69 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link NewActivityDTO#time()} straight from the parser's character buffer. Valid times are
+ * few and repeat constantly ({@code 30m}, {@code 1h}...), so they are canonicalized: a time seen
+ * before is returned as the same {@code String} instead of allocating a new one per request.
+ * Invalid times are kept as sent, so the service reports them with the usual message.
+ */
+class TimeStringDeserializer extends StdScalarDeserializer<String> {
+
+    private static final int CANONICAL_SLOTS = 256;
+    private static final int MAX_CANONICAL_LENGTH = 16;
+
+    // Racy on purpose: a slot only ever holds a complete immutable String, at worst one is created twice
+    private final String[] canonical = new String[CANONICAL_SLOTS];
+
+    TimeStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+            return StringDeserializer.instance.deserialize(parser, context);
+        }
+        char[] buffer = parser.getTextCharacters();
+        int from = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length > MAX_CANONICAL_LENGTH || TimeTranslator.isFailure(TimeTranslator.parseMinutes(buffer, from, from + length))) {
+            return parser.getText();
+        }
+        int slot = hash(buffer, from, length) & (CANONICAL_SLOTS - 1);
+        String time = canonical[slot];
+        if (time == null || !matches(time, buffer, from, length)) {
+            time = new String(buffer, from, length);
+            canonical[slot] = time;
+        }
+        return time;
+    }
+
+    private static int hash(char[] buffer, int from, int length) {
+        int hash = 0;
+        for (int i = from; i < from + length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String time, char[] buffer, int from, int length) {
+        if (time.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (time.charAt(i) != buffer[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An activity and its version, read from the same row, so the validators sent with a response always
+ * describe its body.
+ */
+public record VersionedActivityDTO(
+        ActivityDTO activity,
+        ActivityVersionDTO version
+) {
+    // JPQL constructor expressions cannot nest, so queries select the columns of both
+    public VersionedActivityDTO(Long id, String name, long minutes, LocalDate date, Long version, LocalDateTime updatedAt) {
+        this(new ActivityDTO(id, name, minutes, date), ActivityVersionDTO.of(id, version, updatedAt));
+    }
+}
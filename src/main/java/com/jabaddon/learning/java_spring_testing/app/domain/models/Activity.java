@@ -1,12 +1,16 @@
 package com.jabaddon.learning.java_spring_testing.app.domain.models;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public class Activity {
     private Long id;
     private String name;
     private long minutes;
     private LocalDate date;
+    private String importKey;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 
     public Activity(String name, long minutes, LocalDate date) {
         validateActivity(name, minutes, date);
@@ -35,6 +39,40 @@ public class Activity {
         this.id = id;
     }
 
+    /**
+     * Where a bulk-imported activity came from, unique among imported activities so the same row cannot be
+     * imported twice; null for activities that were not imported.
+     */
+    public String getImportKey() {
+        return importKey;
+    }
+
+    public void setImportKey(String importKey) {
+        this.importKey = importKey;
+    }
+
+    /**
+     * When the activity was first stored, null until it is.
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * When the activity was last stored, null until it is.
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public void update(String newName, long newMinutes, LocalDate newDate) {
         validateActivity(newName, newMinutes, newDate);
         this.name = newName;
@@ -0,0 +1,8 @@
+package com.jabaddon.learning.java_spring_testing.app.domain.models;
+
+import java.time.LocalDateTime;
+
+public record ActivityVersion(
+        Long version,
+        LocalDateTime updatedAt
+) {}
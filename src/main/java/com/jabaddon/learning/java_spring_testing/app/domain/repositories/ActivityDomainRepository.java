@@ -1,17 +1,33 @@
 package com.jabaddon.learning.java_spring_testing.app.domain.repositories;
 
 import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityDomainRepository {
     Optional<Activity> findById(Long id);
+    Optional<ActivityVersion> findVersionById(Long id);
     List<Activity> findAll();
     List<Activity> findByNameContainingIgnoreCase(String name);
-    Long save(Activity activity);
+    Stream<Activity> streamAll();
+    /**
+     * Persists a new activity and returns it as stored, including its generated id and timestamps.
+     */
+    Activity save(Activity activity);
+    List<Activity> saveAll(List<Activity> activities);
+    /**
+     * Persists many new activities at once for bulk loads, in its own transaction unless one is running
+     * already, without keeping them in any persistence context. Returns them with their generated ids.
+     * Fails as a whole when any of them has the import key of an activity that is already stored.
+     */
+    default List<Activity> insertAll(List<Activity> activities) {
+        return saveAll(activities);
+    }
     void update(Activity activity);
     void deleteById(Long id);
 }
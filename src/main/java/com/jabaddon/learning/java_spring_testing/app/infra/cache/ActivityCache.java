@@ -0,0 +1,138 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReadYourWrites;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Near cache for activity reads. Single activities and their versions are evicted one by one,
+ * while search results are keyed by a generation that every write bumps, so a single increment
+ * makes all cached searches unreachable and they age out on their own.
+ * <p>
+ * Misses may be loaded from a read replica that has not caught up with a write yet, so for {@code lagWindow}
+ * after an eviction the results are passed through without being cached, and threads pinned to the primary
+ * by {@link ReadYourWrites} bypass the cache altogether.
+ */
+public class ActivityCache {
+
+    private record SearchKey(long generation, String query, ActivityDateRange range, int limit) {
+    }
+
+    private final Cache<Long, VersionedActivityDTO> activities;
+    private final Cache<Long, ActivityVersion> versions;
+    private final Cache<SearchKey, List<ActivityDTO>> searches;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Long, Instant> evictedAt;
+    private final Duration lagWindow;
+    private final Clock clock;
+    private volatile Instant searchesEvictedAt = Instant.MIN;
+    private volatile Instant allEvictedAt = Instant.MIN;
+
+    public ActivityCache(long maximumSize, long searchMaximumSize, Duration expireAfterWrite) {
+        this(maximumSize, searchMaximumSize, expireAfterWrite, Duration.ZERO, Clock.systemUTC());
+    }
+
+    public ActivityCache(long maximumSize, long searchMaximumSize, Duration expireAfterWrite,
+                         Duration lagWindow, Clock clock) {
+        this.lagWindow = lagWindow;
+        this.clock = clock;
+        // Only has to remember evictions for the lag window, the clock check below is what decides
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(lagWindow.plusSeconds(1))
+                .build();
+        this.activities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.searches = Caffeine.newBuilder()
+                .maximumSize(searchMaximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    // Absent activities are not cached, Caffeine drops null results
+    public Optional<VersionedActivityDTO> getActivity(Long id, Function<Long, Optional<VersionedActivityDTO>> loader) {
+        return get(activities, id, loader);
+    }
+
+    public Optional<ActivityVersion> getVersion(Long id, Function<Long, Optional<ActivityVersion>> loader) {
+        return get(versions, id, loader);
+    }
+
+    public List<ActivityDTO> getSearch(String query, ActivityDateRange range, int limit, Supplier<List<ActivityDTO>> loader) {
+        if (ReadYourWrites.isPinnedToPrimary() || isSettling(searchesEvictedAt)) {
+            return loader.get();
+        }
+        // Searches are case-insensitive, so "Run" and "run" share an entry
+        SearchKey key = new SearchKey(generation.get(), query.toLowerCase(Locale.ROOT), range, limit);
+        return searches.get(key, ignored -> List.copyOf(loader.get()));
+    }
+
+    private <T> Optional<T> get(Cache<Long, T> cache, Long id, Function<Long, Optional<T>> loader) {
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            return loader.apply(id);
+        }
+        if (isSettling(evictedAt.getIfPresent(id)) || isSettling(allEvictedAt)) {
+            T cached = cache.getIfPresent(id);
+            return cached != null ? Optional.of(cached) : loader.apply(id);
+        }
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    private boolean isSettling(Instant evicted) {
+        return evicted != null && clock.instant().isBefore(evicted.plus(lagWindow));
+    }
+
+    /**
+     * Evicts one activity. Caffeine waits for an in-flight load of the same key before removing it,
+     * so a read that raced with the write cannot leave the old state behind.
+     */
+    public void evict(Long id) {
+        evictedAt.put(id, clock.instant());
+        activities.invalidate(id);
+        versions.invalidate(id);
+        evictSearches();
+    }
+
+    public void evictSearches() {
+        searchesEvictedAt = clock.instant();
+        generation.incrementAndGet();
+    }
+
+    public void evictAll() {
+        allEvictedAt = clock.instant();
+        activities.invalidateAll();
+        versions.invalidateAll();
+        evictSearches();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, activities, "activities");
+        CaffeineCacheMetrics.monitor(registry, versions, "activityVersions");
+        CaffeineCacheMetrics.monitor(registry, searches, "activitySearches");
+    }
+}
@@ -0,0 +1,123 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Listens on the {@code activity_changes} channel (filled by the V6 trigger) and evicts the local
+ * {@link ActivityCache}, so writes made by any node reach every node's cache.
+ * Uses its own connection outside the pool, since a pooled connection would be reset on return
+ * and lose its LISTEN registration.
+ */
+public class ActivityChangeListener implements SmartLifecycle {
+
+    static final String CHANNEL = "activity_changes";
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityChangeListener.class);
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final ActivityCache cache;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ActivityChangeListener(String url, String username, String password, ActivityCache cache,
+                                  Duration pollTimeout, Duration reconnectDelay) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.cache = cache;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void start() {
+        if (url == null || !url.startsWith("jdbc:postgresql:")) {
+            logger.info("Activity change notifications need Postgres, cache invalidation stays local to this node");
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("activity-change-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(pollTimeout.toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything could have changed while this node was not listening
+                cache.evictAll();
+                logger.info("Listening for activity changes on channel {}", CHANNEL);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Lost activity change notifications, reconnecting in {}", reconnectDelay, e);
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+    }
+
+    void apply(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            cache.evictSearches();
+            return;
+        }
+        try {
+            cache.evict(Long.valueOf(payload.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed activity change notification '{}'", payload);
+            cache.evictAll();
+        }
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.cache;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Caches activity versions and evicts the {@link ActivityCache} on every write made through the delegate.
+ * Activities themselves are mutable, so {@code findById} is not cached here: the read side caches
+ * immutable DTOs instead.
+ */
+public class CachingActivityDomainRepository implements ActivityDomainRepository {
+    private final ActivityDomainRepository delegate;
+    private final ActivityCache cache;
+
+    public CachingActivityDomainRepository(ActivityDomainRepository delegate, ActivityCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Optional<Activity> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<ActivityVersion> findVersionById(Long id) {
+        return cache.getVersion(id, delegate::findVersionById);
+    }
+
+    @Override
+    public List<Activity> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Activity> findByNameContainingIgnoreCase(String name) {
+        return delegate.findByNameContainingIgnoreCase(name);
+    }
+
+    @Override
+    public Stream<Activity> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Activity save(Activity activity) {
+        Activity saved = delegate.save(activity);
+        afterCommit(cache::evictSearches);
+        return saved;
+    }
+
+    @Override
+    public List<Activity> saveAll(List<Activity> activities) {
+        List<Activity> saved = delegate.saveAll(activities);
+        afterCommit(cache::evictSearches);
+        return saved;
+    }
+
+    @Override
+    public List<Activity> insertAll(List<Activity> activities) {
+        List<Activity> inserted = delegate.insertAll(activities);
+        afterCommit(cache::evictSearches);
+        return inserted;
+    }
+
+    @Override
+    public void update(Activity activity) {
+        delegate.update(activity);
+        evict(activity.getId());
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        delegate.deleteById(id);
+        evict(id);
+    }
+
+    // Evicting right away keeps this transaction from reading its own stale entry, evicting again
+    // after commit drops anything other threads cached from the old state in between
+    private void evict(Long id) {
+        cache.evict(id);
+        afterCommit(() -> cache.evict(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.cache;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves single activity lookups and name searches from the {@link ActivityCache}.
+ * Listings and pages always go to the delegate.
+ */
+public class CachingActivityReadRepository implements ActivityReadRepository {
+    private final ActivityReadRepository delegate;
+    private final ActivityCache cache;
+
+    public CachingActivityReadRepository(ActivityReadRepository delegate, ActivityCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    // Answered from the versioned entry, so the activity and its version are cached and evicted as one
+    @Override
+    public Optional<ActivityDTO> findById(Long id) {
+        return findVersionedById(id).map(VersionedActivityDTO::activity);
+    }
+
+    @Override
+    public Optional<VersionedActivityDTO> findVersionedById(Long id) {
+        return cache.getActivity(id, delegate::findVersionedById);
+    }
+
+    @Override
+    public List<ActivityDTO> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<ActivityDTO> findByNameContainingIgnoreCase(String name, ActivityDateRange range, int limit) {
+        return cache.getSearch(name, range, limit, () -> delegate.findByNameContainingIgnoreCase(name, range, limit));
+    }
+
+    @Override
+    public List<ActivityDTO> findPage(ActivityDateRange range, LocalDate afterDate, Long afterId, int limit) {
+        return delegate.findPage(range, afterDate, afterId, limit);
+    }
+}
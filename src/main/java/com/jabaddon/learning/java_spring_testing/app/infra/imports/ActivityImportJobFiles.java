@@ -0,0 +1,85 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.imports;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The CSV files import jobs run from. Bodies are stored in UTF-8 whatever charset they came in, which is what
+ * job checkpoints count their byte offsets in, and only show up under their job id once they are complete.
+ * A file is kept until its job completes, so it has to be on storage that outlives a deploy for jobs to be
+ * resumed across one, or until the retention period is over: files of jobs that failed and were never
+ * resumed, or of uploads that never finished, are deleted whenever a new one is stored.
+ */
+public class ActivityImportJobFiles {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportJobFiles.class);
+    private static final String SUFFIX = ".csv";
+
+    private final Path directory;
+    private final Duration retention;
+    private final Clock clock;
+
+    public ActivityImportJobFiles(Path directory, Duration retention, Clock clock) {
+        this.directory = directory;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    public Path store(UUID id, InputStream body, Charset charset) throws IOException {
+        Files.createDirectories(directory);
+        deleteExpired();
+        Path partial = directory.resolve(id + SUFFIX + ".part");
+        try (Reader in = new InputStreamReader(body, charset);
+             Writer out = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+            in.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        return Files.move(partial, path(id), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path path(UUID id) {
+        return directory.resolve(id + SUFFIX);
+    }
+
+    // Stored files and the partial ones of uploads that were cut off
+    private void deleteExpired() throws IOException {
+        Instant expiry = clock.instant().minus(retention);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*{" + SUFFIX + "," + SUFFIX + ".part}")) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(expiry)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not delete expired import job file {}", file, e);
+                }
+            }
+        }
+    }
+
+    public void delete(UUID id) {
+        try {
+            Files.deleteIfExists(path(id));
+        } catch (IOException e) {
+            logger.warn("Could not delete the file of import job {}", id, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.imports;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobService;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs import jobs in the background, {@code concurrency} at a time with at most {@code queueCapacity}
+ * waiting, and deletes the file of every job that completes. Jobs stay queued in the database while they
+ * wait, so one that does not fit, or that is dropped or interrupted at shutdown, is left queued for a
+ * later sweep of abandoned jobs, here or on another node, to run.
+ */
+public class ActivityImportJobRunner implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportJobRunner.class);
+
+    private final ActivityImportJobService activityImportJobService;
+    private final ActivityImportJobFiles activityImportJobFiles;
+    private final ThreadPoolExecutor executor;
+
+    public ActivityImportJobRunner(ActivityImportJobService activityImportJobService,
+                                   ActivityImportJobFiles activityImportJobFiles, int concurrency, int queueCapacity) {
+        this.activityImportJobService = activityImportJobService;
+        this.activityImportJobFiles = activityImportJobFiles;
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("activity-import-job-", 1).factory());
+    }
+
+    public void submit(UUID id) {
+        try {
+            executor.execute(() -> {
+                ActivityImportJobDTO job = activityImportJobService.runJob(id, activityImportJobFiles.path(id));
+                if (job.status() == ActivityImportJobStatus.COMPLETED) {
+                    activityImportJobFiles.delete(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Import job {} left queued, {} jobs are waiting here already", id, executor.getQueue().size());
+        }
+    }
+
+    /**
+     * Takes as many abandoned jobs as the queue has room for.
+     */
+    @Scheduled(fixedDelayString = "${app.activities.import.jobs.sweep-interval:1m}",
+               initialDelayString = "${app.activities.import.jobs.sweep-interval:1m}")
+    public void resumeAbandonedJobs() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0 || executor.isShutdown()) {
+            return;
+        }
+        for (UUID id : activityImportJobService.requeueAbandonedJobs(room)) {
+            logger.info("Resuming abandoned import job {}", id);
+            submit(id);
+        }
+    }
+
+    /**
+     * Interrupts the running jobs, which queue themselves again, and waits a little for them to have done so.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Import jobs still running at shutdown are resumed once they are found abandoned");
+        }
+    }
+}
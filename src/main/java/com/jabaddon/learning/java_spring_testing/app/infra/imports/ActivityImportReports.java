@@ -0,0 +1,83 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.imports;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rejection reports of bulk imports, kept as files so an import of any size only holds one line of its
+ * report in memory at a time. Each report is named by a random id and kept for the retention period;
+ * expired reports are deleted whenever a new one is created.
+ */
+public class ActivityImportReports {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportReports.class);
+    private static final String SUFFIX = ".csv";
+
+    private final Path directory;
+    private final Duration retention;
+    private final Clock clock;
+
+    public ActivityImportReports(Path directory, Duration retention, Clock clock) {
+        this.directory = directory;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    public Report create() throws IOException {
+        Files.createDirectories(directory);
+        deleteExpired();
+        String id = UUID.randomUUID().toString();
+        return new Report(id, directory.resolve(id + SUFFIX));
+    }
+
+    /**
+     * The report file for an id; the id has to be a UUID, so it can never point outside the directory.
+     */
+    public Optional<Path> find(String id) {
+        Path report = directory.resolve(UUID.fromString(id) + SUFFIX);
+        return Files.isRegularFile(report) ? Optional.of(report) : Optional.empty();
+    }
+
+    private void deleteExpired() throws IOException {
+        Instant expiry = clock.instant().minus(retention);
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path report : reports) {
+                try {
+                    if (Files.getLastModifiedTime(report).toInstant().isBefore(expiry)) {
+                        Files.deleteIfExists(report);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not delete expired import report {}", report, e);
+                }
+            }
+        }
+    }
+
+    public record Report(String id, Path path) {
+
+        public Writer writer() throws IOException {
+            return Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        }
+
+        public void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
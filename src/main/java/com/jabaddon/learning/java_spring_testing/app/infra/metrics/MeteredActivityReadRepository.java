@@ -0,0 +1,69 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.metrics;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Records how many activities each list query returns, as the {@code activity.results} distribution
+ * tagged by query, so oversized result sets show up next to the latency they cause.
+ */
+public class MeteredActivityReadRepository implements ActivityReadRepository {
+    private final ActivityReadRepository delegate;
+    private final DistributionSummary allResults;
+    private final DistributionSummary searchResults;
+    private final DistributionSummary pageResults;
+
+    public MeteredActivityReadRepository(ActivityReadRepository delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.allResults = results("all", meterRegistry);
+        this.searchResults = results("search", meterRegistry);
+        this.pageResults = results("page", meterRegistry);
+    }
+
+    @Override
+    public Optional<ActivityDTO> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<VersionedActivityDTO> findVersionedById(Long id) {
+        return delegate.findVersionedById(id);
+    }
+
+    @Override
+    public List<ActivityDTO> findAll() {
+        return record(allResults, delegate.findAll());
+    }
+
+    @Override
+    public List<ActivityDTO> findByNameContainingIgnoreCase(String name, ActivityDateRange range, int limit) {
+        return record(searchResults, delegate.findByNameContainingIgnoreCase(name, range, limit));
+    }
+
+    @Override
+    public List<ActivityDTO> findPage(ActivityDateRange range, LocalDate afterDate, Long afterId, int limit) {
+        return record(pageResults, delegate.findPage(range, afterDate, afterId, limit));
+    }
+
+    private static List<ActivityDTO> record(DistributionSummary summary, List<ActivityDTO> activities) {
+        summary.record(activities.size());
+        return activities;
+    }
+
+    private static DistributionSummary results(String query, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("activity.results")
+                .description("Activities returned per query")
+                .baseUnit("activities")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
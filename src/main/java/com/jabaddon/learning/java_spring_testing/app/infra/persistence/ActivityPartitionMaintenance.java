@@ -0,0 +1,58 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.YearMonth;
+
+/**
+ * Creates the monthly partitions of {@code activities} (see V7) ahead of time, on startup and then
+ * once a day, so inserts for the coming months never have to fall back to the default partition.
+ * Failures are logged rather than thrown: rows still have the default partition to go to, and a failed
+ * run must not stop the application from starting.
+ */
+public class ActivityPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityPartitionMaintenance.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final int monthsAhead;
+    private final Clock clock;
+
+    public ActivityPartitionMaintenance(JdbcTemplate jdbcTemplate, String jdbcUrl, int monthsAhead, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = jdbcUrl != null && jdbcUrl.startsWith("jdbc:postgresql:");
+        this.monthsAhead = monthsAhead;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.activities.partitions.cron:0 0 3 * * *}")
+    public void createUpcomingPartitions() {
+        if (!postgres) {
+            logger.debug("Activity partitions only exist on Postgres, nothing to maintain");
+            return;
+        }
+        YearMonth month = YearMonth.now(clock);
+        int failed = 0;
+        // Idempotent: months that already have a partition are skipped by the function
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                jdbcTemplate.query("select create_activities_partition(?)", resultSet -> { }, month.plusMonths(i).atDay(1));
+            } catch (DataAccessException e) {
+                failed++;
+                logger.error("Could not create the activity partition for {}, the next run retries it", month.plusMonths(i), e);
+            }
+        }
+        if (failed == 0) {
+            logger.info("Activity partitions ensured up to {}", month.plusMonths(monthsAhead));
+        }
+    }
+}
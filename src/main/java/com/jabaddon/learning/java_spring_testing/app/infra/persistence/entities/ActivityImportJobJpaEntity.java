@@ -0,0 +1,87 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "activity_import_jobs")
+public class ActivityImportJobJpaEntity {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ActivityImportJobStatus status;
+
+    @Column(name = "byte_offset")
+    private long byteOffset;
+
+    private long line;
+
+    private long imported;
+
+    private long rejected;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    protected ActivityImportJobJpaEntity() {}
+
+    public ActivityImportJobJpaEntity(UUID id) {
+        this.id = id;
+        this.status = ActivityImportJobStatus.QUEUED;
+        this.line = 1;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ActivityImportJobStatus getStatus() {
+        return status;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -1,16 +1,50 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities;
 
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
 import jakarta.persistence.*;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "activities")
+// Native queries select these columns in this order to read activities without managing them
+@SqlResultSetMapping(name = ActivityJpaEntity.ACTIVITY_DTO_MAPPING, classes = @ConstructorResult(
+        targetClass = ActivityDTO.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "name", type = String.class),
+                @ColumnResult(name = "minutes", type = Long.class),
+                @ColumnResult(name = "date", type = LocalDate.class)}))
+@SqlResultSetMapping(name = ActivityJpaEntity.VERSIONED_ACTIVITY_DTO_MAPPING, classes = @ConstructorResult(
+        targetClass = VersionedActivityDTO.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "name", type = String.class),
+                @ColumnResult(name = "minutes", type = Long.class),
+                @ColumnResult(name = "date", type = LocalDate.class),
+                @ColumnResult(name = "version", type = Long.class),
+                @ColumnResult(name = "updated_at", type = LocalDateTime.class)}))
+@SqlResultSetMapping(name = ActivityJpaEntity.ACTIVITY_VERSION_MAPPING, classes = @ConstructorResult(
+        targetClass = ActivityVersion.class,
+        columns = {
+                @ColumnResult(name = "version", type = Long.class),
+                @ColumnResult(name = "updated_at", type = LocalDateTime.class)}))
+// Declared for schemas Hibernate creates (tests on H2); on Postgres it is idx_activities_import_key (V8)
+@Table(name = "activities", uniqueConstraints = @UniqueConstraint(columnNames = {"import_key", "date"}))
 public class ActivityJpaEntity {
+    public static final String ACTIVITY_DTO_MAPPING = "ActivityDTO";
+    public static final String VERSIONED_ACTIVITY_DTO_MAPPING = "VersionedActivityDTO";
+    public static final String ACTIVITY_VERSION_MAPPING = "ActivityVersion";
     
+    // The key is (id, date) since V7, but ids are unique on their own and the domain looks activities up by id.
+    // On Postgres those lookups find the date in activity_dates (V10) to reach a single partition
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "name")
@@ -18,6 +52,8 @@ public class ActivityJpaEntity {
     
     private Long minutes;
 
+    // Updates and deletes match on the date the row was loaded with, so they only touch its partition
+    @PartitionKey
     private LocalDate date;
     
     @Column(name = "created_at")
@@ -25,16 +61,27 @@ public class ActivityJpaEntity {
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    @Column(name = "import_key", length = 64, updatable = false)
+    private String importKey;
     
+    // Truncated to what a TIMESTAMP column keeps, so the entity holds exactly what was written
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
     
     public ActivityJpaEntity() {}
@@ -78,6 +125,10 @@ public class ActivityJpaEntity {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     public Long getMinutes() {
         return minutes;
     }
@@ -94,4 +145,12 @@ public class ActivityJpaEntity {
         this.date = date;
     }
 
+    public String getImportKey() {
+        return importKey;
+    }
+
+    public void setImportKey(String importKey) {
+        this.importKey = importKey;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBulkExportRepository;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityExportFormat;
+import io.micrometer.core.annotation.Timed;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * On Postgres the rows come from {@code COPY ... TO STDOUT} and pgjdbc hands each one over as the bytes the
+ * server sent, which go to the output as they are. Other databases (H2 in tests) have no {@code COPY}, so
+ * there the rows are read through a cursor and encoded here in the same two formats.
+ */
+@Timed("activity.repository")
+@Repository
+public class ActivityBulkExportRepositoryImpl implements ActivityBulkExportRepository {
+
+    // activities is partitioned, and COPY reads partitioned tables only through a query
+    private static final String COPY_QUERY = "SELECT id, name, minutes, date FROM activities";
+    private static final String SELECT = "SELECT id, name, minutes, date FROM activities";
+    private static final String SELECT_BETWEEN = SELECT + " WHERE date BETWEEN ? AND ?";
+    static final String CSV_HEADER = "id,name,minutes,date";
+
+    // PGCOPY\n\377\r\n\0, see "Binary Format" in the Postgres COPY documentation
+    private static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final short BINARY_FIELD_COUNT = 4;
+    private static final LocalDate BINARY_DATE_EPOCH = LocalDate.of(2000, 1, 1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ActivityBulkExportRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                            @Value("${app.activities.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void export(ActivityDateRange range, ActivityExportFormat format, OutputStream out) throws IOException {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try {
+                    if (connection.isWrapperFor(PGConnection.class)) {
+                        connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copySql(range, format), out);
+                    } else {
+                        select(connection, range, format, out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // COPY takes no bind parameters; the bounds are LocalDates, so inlining them cannot inject anything
+    static String copySql(ActivityDateRange range, ActivityExportFormat format) {
+        String query = range.isBounded()
+                ? COPY_QUERY + " WHERE date BETWEEN DATE '" + range.fromOrEarliest() + "' AND DATE '" + range.toOrLatest() + "'"
+                : COPY_QUERY;
+        String options = format == ActivityExportFormat.CSV ? "FORMAT csv, HEADER" : "FORMAT binary";
+        return "COPY (" + query + ") TO STDOUT WITH (" + options + ")";
+    }
+
+    private void select(Connection connection, ActivityDateRange range, ActivityExportFormat format, OutputStream out)
+            throws SQLException, IOException {
+        // Without a range every row goes out, undated ones included, as COPY_QUERY does
+        try (PreparedStatement statement = connection.prepareStatement(range.isBounded() ? SELECT_BETWEEN : SELECT,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            if (range.isBounded()) {
+                statement.setObject(1, range.fromOrEarliest());
+                statement.setObject(2, range.toOrLatest());
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                if (format == ActivityExportFormat.CSV) {
+                    writeCsv(rows, out);
+                } else {
+                    writeBinary(rows, out);
+                }
+            }
+        }
+    }
+
+    // What COPY writes with FORMAT csv: NULL as nothing, and quotes only where they are needed,
+    // which includes the empty string so it stays apart from NULL
+    private static void writeCsv(ResultSet rows, OutputStream out) throws SQLException, IOException {
+        Writer csv = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        while (rows.next()) {
+            csv.write(Long.toString(rows.getLong(1)));
+            csv.write(',');
+            String name = rows.getString(2);
+            if (name != null) {
+                csv.write(needsQuotes(name) ? "\"" + name.replace("\"", "\"\"") + "\"" : name);
+            }
+            csv.write(',');
+            long minutes = rows.getLong(3);
+            if (!rows.wasNull()) {
+                csv.write(Long.toString(minutes));
+            }
+            csv.write(',');
+            LocalDate date = rows.getObject(4, LocalDate.class);
+            if (date != null) {
+                csv.write(date.toString());
+            }
+            csv.write('\n');
+        }
+        csv.flush();
+    }
+
+    private static boolean needsQuotes(String value) {
+        if (value.isEmpty() || value.equals("\\.")) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Header, then per row the field count and each field as its length and bytes (-1 for NULL): bigint as
+    // 8 bytes, text as UTF-8, date as days since 2000-01-01; all big-endian, as DataOutputStream writes them
+    private static void writeBinary(ResultSet rows, OutputStream out) throws SQLException, IOException {
+        DataOutputStream binary = new DataOutputStream(out);
+        binary.write(BINARY_SIGNATURE);
+        binary.writeInt(0);
+        binary.writeInt(0);
+        while (rows.next()) {
+            binary.writeShort(BINARY_FIELD_COUNT);
+            binary.writeInt(Long.BYTES);
+            binary.writeLong(rows.getLong(1));
+            String name = rows.getString(2);
+            if (name == null) {
+                binary.writeInt(-1);
+            } else {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                binary.writeInt(bytes.length);
+                binary.write(bytes);
+            }
+            long minutes = rows.getLong(3);
+            if (rows.wasNull()) {
+                binary.writeInt(-1);
+            } else {
+                binary.writeInt(Long.BYTES);
+                binary.writeLong(minutes);
+            }
+            LocalDate date = rows.getObject(4, LocalDate.class);
+            if (date == null) {
+                binary.writeInt(-1);
+            } else {
+                binary.writeInt(Integer.BYTES);
+                binary.writeInt((int) (date.toEpochDay() - BINARY_DATE_EPOCH.toEpochDay()));
+            }
+        }
+        binary.writeShort(-1);
+        binary.flush();
+    }
+}
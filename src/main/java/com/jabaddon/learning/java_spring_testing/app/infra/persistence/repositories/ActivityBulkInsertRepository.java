@@ -0,0 +1,15 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ActivityBulkInsertRepository {
+    /**
+     * Inserts new activities in one go: with {@code COPY} on Postgres, as a JDBC batch elsewhere.
+     * Ids and timestamps are set on the given entities, which are left detached.
+     */
+    @Transactional
+    List<ActivityJpaEntity> insertAll(List<ActivityJpaEntity> entities);
+}
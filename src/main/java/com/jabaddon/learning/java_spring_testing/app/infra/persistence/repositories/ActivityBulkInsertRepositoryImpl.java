@@ -0,0 +1,121 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+class ActivityBulkInsertRepositoryImpl implements ActivityBulkInsertRepository {
+
+    // Each nextval hands out the block of ids ending at the returned value, which is how the pooled
+    // optimizer of ActivityJpaEntity reads the sequence, so copied rows never take an id Hibernate will use
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final String NEXT_ID_BLOCKS = "select nextval('activities_seq') from generate_series(1, ?)";
+    private static final String COPY_ACTIVITIES =
+            "COPY activities (id, name, minutes, date, created_at, updated_at, import_key) FROM STDIN WITH (FORMAT csv)";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ActivityBulkInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ActivityJpaEntity> insertAll(List<ActivityJpaEntity> entities) {
+        if (entities.isEmpty()) {
+            return entities;
+        }
+        // The transaction's own connection, so the rows commit or roll back with it
+        Boolean copied = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            copy(connection, connection.unwrap(PGConnection.class), entities);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(copied)) {
+            persistAll(entities);
+        }
+        return entities;
+    }
+
+    private void copy(Connection connection, PGConnection pgConnection, List<ActivityJpaEntity> entities) throws SQLException {
+        assignIds(connection, entities);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        try (PGCopyOutputStream copy = new PGCopyOutputStream(pgConnection, COPY_ACTIVITIES, COPY_BUFFER_SIZE)) {
+            Writer rows = new OutputStreamWriter(copy, StandardCharsets.UTF_8);
+            for (ActivityJpaEntity entity : entities) {
+                entity.setCreatedAt(now);
+                entity.setUpdatedAt(now);
+                writeRow(rows, entity);
+            }
+            rows.flush();
+            copy.endCopy();
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not copy activities", e);
+        }
+    }
+
+    private void assignIds(Connection connection, List<ActivityJpaEntity> entities) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(NEXT_ID_BLOCKS)) {
+            statement.setInt(1, (entities.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE);
+            try (ResultSet blocks = statement.executeQuery()) {
+                int next = 0;
+                while (blocks.next()) {
+                    long last = blocks.getLong(1);
+                    for (long id = last - ID_BLOCK_SIZE + 1; id <= last && next < entities.size(); id++) {
+                        entities.get(next++).setId(id);
+                    }
+                }
+            }
+        }
+    }
+
+    // CSV with the name always quoted, so commas, quotes and line breaks in it need no other care;
+    // import keys are written as they are, since the import builds them from a UUID and a line number
+    private static void writeRow(Writer rows, ActivityJpaEntity entity) throws IOException {
+        rows.write(Long.toString(entity.getId()));
+        rows.write(",\"");
+        rows.write(entity.getName().replace("\"", "\"\""));
+        rows.write("\",");
+        rows.write(Long.toString(entity.getMinutes()));
+        rows.write(',');
+        rows.write(entity.getDate().toString());
+        rows.write(',');
+        rows.write(entity.getCreatedAt().toString());
+        rows.write(',');
+        rows.write(entity.getUpdatedAt().toString());
+        rows.write(',');
+        if (entity.getImportKey() != null) {
+            rows.write(entity.getImportKey());
+        }
+        rows.write('\n');
+    }
+
+    // Batched by hibernate.jdbc.batch_size; detached right after so the persistence context stays empty
+    private void persistAll(List<ActivityJpaEntity> entities) {
+        entities.forEach(entityManager::persist);
+        entityManager.flush();
+        entities.forEach(entityManager::detach);
+    }
+}
@@ -1,29 +1,43 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
 
 import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
 import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
 import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Counts and times the calls that actually reach the database, tagged by method
+@Timed("activity.repository")
 @Repository
 public class ActivityDomainRepositoryImpl implements ActivityDomainRepository {
     private final ActivityRepository activityRepository;
+    private final boolean routeById;
 
-    public ActivityDomainRepositoryImpl(ActivityRepository activityRepository) {
+    public ActivityDomainRepositoryImpl(ActivityRepository activityRepository,
+                                        @Value("${app.activities.partitions.route-by-id:false}") boolean routeById) {
         this.activityRepository = activityRepository;
+        this.routeById = routeById;
     }
 
     @Override
     public Optional<Activity> findById(Long id) {
-        Optional<ActivityJpaEntity> entityOptional = activityRepository.findById(id);
+        Optional<ActivityJpaEntity> entityOptional = findEntityById(id);
         return entityOptional.map(this::toModel);
     }
 
+    @Override
+    public Optional<ActivityVersion> findVersionById(Long id) {
+        return routeById ? activityRepository.findRoutedVersionById(id) : activityRepository.findVersionById(id);
+    }
+
     @Override
     public List<Activity> findAll() {
         List<ActivityJpaEntity> entities = activityRepository.findAll();
@@ -41,15 +55,41 @@ public class ActivityDomainRepositoryImpl implements ActivityDomainRepository {
     }
 
     @Override
-    public Long save(Activity model) {
-        ActivityJpaEntity newEntity = toEntity(model);
-        ActivityJpaEntity savedEntity = activityRepository.save(newEntity);
-        return savedEntity.getId();
+    public Stream<Activity> streamAll() {
+        return activityRepository.streamAll().map(this::toModel);
+    }
+
+    @Override
+    public Activity save(Activity model) {
+        // The id comes from the pooled sequence and the timestamps from @PrePersist, so the
+        // state built here is exactly what the INSERT writes and nothing has to be read back
+        ActivityJpaEntity savedEntity = activityRepository.save(toEntity(model));
+        return toModel(savedEntity);
+    }
+
+    @Override
+    public List<Activity> saveAll(List<Activity> models) {
+        List<ActivityJpaEntity> newEntities = models.stream()
+                .map(this::toEntity)
+                .collect(Collectors.toList());
+        return activityRepository.saveAll(newEntities).stream()
+                .map(this::toModel)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Activity> insertAll(List<Activity> models) {
+        List<ActivityJpaEntity> newEntities = models.stream()
+                .map(this::toEntity)
+                .collect(Collectors.toList());
+        return activityRepository.insertAll(newEntities).stream()
+                .map(this::toModel)
+                .collect(Collectors.toList());
     }
 
     @Override
     public void update(Activity model) {
-        Optional<ActivityJpaEntity> existingEntityOptional = activityRepository.findById(model.getId());
+        Optional<ActivityJpaEntity> existingEntityOptional = findEntityById(model.getId());
         if (existingEntityOptional.isPresent()) {
             ActivityJpaEntity existingEntity = existingEntityOptional.get();
             existingEntity.setName(model.getName());
@@ -63,19 +103,25 @@ public class ActivityDomainRepositoryImpl implements ActivityDomainRepository {
 
     @Override
     public void deleteById(Long id) {
-        if (activityRepository.existsById(id)) {
-            activityRepository.deleteById(id);
-        } else {
-            throw new NoSuchElementException("Activity with ID " + id + " not found");
-        }
+        ActivityJpaEntity existingEntity = findEntityById(id)
+                .orElseThrow(() -> new NoSuchElementException("Activity with ID " + id + " not found"));
+        activityRepository.delete(existingEntity);
+    }
+
+    // A routed lookup is a query even when the caller already loaded the activity, unlike findById, which is
+    // then answered by the persistence context; it still beats probing every partition for the row
+    private Optional<ActivityJpaEntity> findEntityById(Long id) {
+        return routeById ? activityRepository.findRoutedById(id) : activityRepository.findById(id);
     }
 
     private ActivityJpaEntity toEntity(Activity model) {
-        return new ActivityJpaEntity(
+        ActivityJpaEntity entity = new ActivityJpaEntity(
             model.getName(),
             model.getMinutes(),
             model.getDate()
         );
+        entity.setImportKey(model.getImportKey());
+        return entity;
     }
 
     private Activity toModel(ActivityJpaEntity entity) {
@@ -85,6 +131,9 @@ public class ActivityDomainRepositoryImpl implements ActivityDomainRepository {
             entity.getDate()
         );
         activity.setId(entity.getId());
+        activity.setImportKey(entity.getImportKey());
+        activity.setCreatedAt(entity.getCreatedAt());
+        activity.setUpdatedAt(entity.getUpdatedAt());
         return activity;
     }
 }
@@ -0,0 +1,73 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobStatus;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityImportJobJpaEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ActivityImportJobJpaRepository extends JpaRepository<ActivityImportJobJpaEntity, UUID> {
+
+    @Query("select j.id from ActivityImportJobJpaEntity j " +
+           "where j.status in (:queued, :running) and j.updatedAt < :staleBefore order by j.updatedAt")
+    List<UUID> findAbandoned(@Param("queued") ActivityImportJobStatus queued,
+                             @Param("running") ActivityImportJobStatus running,
+                             @Param("staleBefore") LocalDateTime staleBefore,
+                             Limit limit);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ActivityImportJobJpaEntity j set j.status = :queued, j.error = null, j.updatedAt = :now " +
+           "where j.id = :id and (j.status = :failed " +
+           "or (j.status in (:queued, :running) and j.updatedAt < :staleBefore))")
+    int requeue(@Param("id") UUID id,
+                @Param("queued") ActivityImportJobStatus queued,
+                @Param("running") ActivityImportJobStatus running,
+                @Param("failed") ActivityImportJobStatus failed,
+                @Param("staleBefore") LocalDateTime staleBefore,
+                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ActivityImportJobJpaEntity j set j.status = :running, j.updatedAt = :now " +
+           "where j.id = :id and j.status = :queued")
+    int start(@Param("id") UUID id,
+              @Param("queued") ActivityImportJobStatus queued,
+              @Param("running") ActivityImportJobStatus running,
+              @Param("now") LocalDateTime now);
+
+    // Compare-and-set on the offset: only the run that read the job at fromOffset can move it
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ActivityImportJobJpaEntity j set j.byteOffset = :toOffset, j.line = :line, " +
+           "j.imported = :imported, j.rejected = :rejected, j.updatedAt = :now " +
+           "where j.id = :id and j.status = :running and j.byteOffset = :fromOffset")
+    int checkpoint(@Param("id") UUID id,
+                   @Param("running") ActivityImportJobStatus running,
+                   @Param("fromOffset") long fromOffset,
+                   @Param("toOffset") long toOffset,
+                   @Param("line") long line,
+                   @Param("imported") long imported,
+                   @Param("rejected") long rejected,
+                   @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ActivityImportJobJpaEntity j set j.status = :status, j.error = :error, j.updatedAt = :now " +
+           "where j.id = :id and j.status = :running and j.byteOffset = :offset")
+    int finish(@Param("id") UUID id,
+               @Param("running") ActivityImportJobStatus running,
+               @Param("offset") long offset,
+               @Param("status") ActivityImportJobStatus status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,86 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportCheckpoint;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobRepository;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobStatus;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityImportJobJpaEntity;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Timed("activity.repository")
+@Repository
+public class ActivityImportJobRepositoryImpl implements ActivityImportJobRepository {
+
+    private final ActivityImportJobJpaRepository jobRepository;
+    private final Duration staleAfter;
+
+    public ActivityImportJobRepositoryImpl(ActivityImportJobJpaRepository jobRepository,
+                                           @Value("${app.activities.import.jobs.stale-after:5m}") Duration staleAfter) {
+        this.jobRepository = jobRepository;
+        this.staleAfter = staleAfter;
+    }
+
+    @Override
+    public ActivityImportJobDTO create(UUID id) {
+        return toDTO(jobRepository.save(new ActivityImportJobJpaEntity(id)));
+    }
+
+    @Override
+    public Optional<ActivityImportJobDTO> findById(UUID id) {
+        return jobRepository.findById(id).map(ActivityImportJobRepositoryImpl::toDTO);
+    }
+
+    // A running job checkpoints after every chunk, so one that has not for staleAfter lost its node; a queued
+    // one that long was dropped from the queue of its node
+    @Override
+    public List<UUID> findAbandoned(int limit) {
+        return jobRepository.findAbandoned(ActivityImportJobStatus.QUEUED, ActivityImportJobStatus.RUNNING,
+                LocalDateTime.now().minus(staleAfter), Limit.of(limit));
+    }
+
+    @Override
+    public boolean requeue(UUID id) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRepository.requeue(id, ActivityImportJobStatus.QUEUED, ActivityImportJobStatus.RUNNING,
+                ActivityImportJobStatus.FAILED, now.minus(staleAfter), now) == 1;
+    }
+
+    @Override
+    public boolean start(UUID id) {
+        return jobRepository.start(id, ActivityImportJobStatus.QUEUED, ActivityImportJobStatus.RUNNING,
+                LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean checkpoint(UUID id, ActivityImportCheckpoint from, ActivityImportCheckpoint to) {
+        return jobRepository.checkpoint(id, ActivityImportJobStatus.RUNNING, from.byteOffset(), to.byteOffset(),
+                to.line(), to.imported(), to.rejected(), LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean finish(UUID id, ActivityImportCheckpoint at, ActivityImportJobStatus status, String error) {
+        return jobRepository.finish(id, ActivityImportJobStatus.RUNNING, at.byteOffset(), status, error,
+                LocalDateTime.now()) == 1;
+    }
+
+    // Dated back by staleAfter, so the next sweep on any node picks it up
+    @Override
+    public boolean release(UUID id, ActivityImportCheckpoint at) {
+        return jobRepository.finish(id, ActivityImportJobStatus.RUNNING, at.byteOffset(), ActivityImportJobStatus.QUEUED,
+                null, LocalDateTime.now().minus(staleAfter)) == 1;
+    }
+
+    private static ActivityImportJobDTO toDTO(ActivityImportJobJpaEntity entity) {
+        return new ActivityImportJobDTO(entity.getId(), entity.getStatus(), entity.getByteOffset(), entity.getLine(),
+                entity.getImported(), entity.getRejected(), entity.getError(), entity.getCreatedAt(), entity.getUpdatedAt());
+    }
+}
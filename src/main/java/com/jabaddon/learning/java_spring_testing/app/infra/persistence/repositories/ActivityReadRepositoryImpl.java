@@ -0,0 +1,82 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Timed("activity.repository")
+@Repository
+public class ActivityReadRepositoryImpl implements ActivityReadRepository {
+    static final String TRIGRAM_STRATEGY = "trigram";
+
+    private final ActivityRepository activityRepository;
+    private final boolean trigramSearch;
+    private final boolean routeById;
+
+    public ActivityReadRepositoryImpl(ActivityRepository activityRepository,
+                                      @Value("${app.activities.search.strategy:like}") String searchStrategy,
+                                      @Value("${app.activities.partitions.route-by-id:false}") boolean routeById) {
+        this.activityRepository = activityRepository;
+        this.trigramSearch = TRIGRAM_STRATEGY.equals(searchStrategy);
+        this.routeById = routeById;
+    }
+
+    @Override
+    public Optional<ActivityDTO> findById(Long id) {
+        return routeById ? activityRepository.findRoutedProjectedById(id) : activityRepository.findProjectedById(id);
+    }
+
+    @Override
+    public Optional<VersionedActivityDTO> findVersionedById(Long id) {
+        return routeById ? activityRepository.findRoutedVersionedById(id) : activityRepository.findVersionedById(id);
+    }
+
+    @Override
+    public List<ActivityDTO> findAll() {
+        return activityRepository.findAllProjectedBy();
+    }
+
+    @Override
+    public List<ActivityDTO> findByNameContainingIgnoreCase(String name, ActivityDateRange range, int limit) {
+        String pattern = containsPattern(name);
+        if (!trigramSearch) {
+            return range.isBounded()
+                    ? activityRepository.findProjectedByNameLikeAndDateBetween(pattern, range.fromOrEarliest(), range.toOrLatest(), Limit.of(limit))
+                    : activityRepository.findProjectedByNameLike(pattern, Limit.of(limit));
+        }
+        return range.isBounded()
+                ? activityRepository.findByNameTrigramAndDateBetween(name, pattern, range.fromOrEarliest(), range.toOrLatest(), limit)
+                : activityRepository.findByNameTrigram(name, pattern, limit);
+    }
+
+    @Override
+    public List<ActivityDTO> findPage(ActivityDateRange range, LocalDate afterDate, Long afterId, int limit) {
+        boolean first = afterDate == null || afterId == null;
+        // Unbounded listings keep their own queries so activities without a date are still listed
+        if (!range.isBounded()) {
+            return first
+                    ? activityRepository.findFirstPage(Limit.of(limit))
+                    : activityRepository.findPageAfter(afterDate, afterId, Limit.of(limit));
+        }
+        return first
+                ? activityRepository.findFirstPageBetween(range.fromOrEarliest(), range.toOrLatest(), Limit.of(limit))
+                : activityRepository.findPageBetweenAfter(range.fromOrEarliest(), range.toOrLatest(), afterDate, afterId, Limit.of(limit));
+    }
+
+    // Same semantics as the derived Containing query: wildcards in the input match literally
+    static String containsPattern(String name) {
+        String escaped = name.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -1,12 +1,147 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
 
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
 import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<ActivityJpaEntity, Long> {
+public interface ActivityRepository extends JpaRepository<ActivityJpaEntity, Long>, ActivityStreamRepository,
+        ActivityBulkInsertRepository {
+    String ACTIVITY_DTO = "com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO";
+    String VERSIONED_ACTIVITY_DTO = "com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO";
+    // Postgres only: the date comes from activity_dates (V10), and the executor prunes every other partition
+    String ROUTED_BY_ID = "where a.id = :id and a.date = (select d.date from activity_dates d where d.id = :id)";
+
     List<ActivityJpaEntity> findByNameContainingIgnoreCase(String name);
-}
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a where a.id = :id")
+    Optional<ActivityDTO> findProjectedById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + VERSIONED_ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date, a.version, a.updatedAt) " +
+           "from ActivityJpaEntity a where a.id = :id")
+    Optional<VersionedActivityDTO> findVersionedById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a")
+    List<ActivityDTO> findAllProjectedBy();
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a " +
+           "where lower(a.name) like lower(:pattern) escape '\\' order by a.name, a.id")
+    List<ActivityDTO> findProjectedByNameLike(@Param("pattern") String pattern, Limit limit);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a " +
+           "where lower(a.name) like lower(:pattern) escape '\\' and a.date between :from and :to " +
+           "order by a.name, a.id")
+    List<ActivityDTO> findProjectedByNameLikeAndDateBetween(@Param("pattern") String pattern,
+                                                           @Param("from") LocalDate from,
+                                                           @Param("to") LocalDate to,
+                                                           Limit limit);
+
+    // Postgres only: the LIKE is served by the idx_activities_name_trgm GIN index (V5)
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @NativeQuery(value = "select a.id, a.name, a.minutes, a.date from activities a " +
+                         "where lower(a.name) like lower(:pattern) escape '\\' " +
+                         "order by similarity(lower(a.name), lower(:term)) desc, a.id " +
+                         "limit :limit",
+                 sqlResultSetMapping = ActivityJpaEntity.ACTIVITY_DTO_MAPPING)
+    List<ActivityDTO> findByNameTrigram(@Param("term") String term,
+                                        @Param("pattern") String pattern,
+                                        @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @NativeQuery(value = "select a.id, a.name, a.minutes, a.date from activities a " +
+                         "where lower(a.name) like lower(:pattern) escape '\\' and a.date between :from and :to " +
+                         "order by similarity(lower(a.name), lower(:term)) desc, a.id " +
+                         "limit :limit",
+                 sqlResultSetMapping = ActivityJpaEntity.ACTIVITY_DTO_MAPPING)
+    List<ActivityDTO> findByNameTrigramAndDateBetween(@Param("term") String term,
+                                                      @Param("pattern") String pattern,
+                                                      @Param("from") LocalDate from,
+                                                      @Param("to") LocalDate to,
+                                                      @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a " +
+           "order by a.date, a.id")
+    List<ActivityDTO> findFirstPage(Limit limit);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a " +
+           "where (a.date, a.id) > (:afterDate, :afterId) order by a.date, a.id")
+    List<ActivityDTO> findPageAfter(@Param("afterDate") LocalDate afterDate,
+                                    @Param("afterId") Long afterId,
+                                    Limit limit);
+
+    // Served by idx_activities_date_id (V2) as a single range scan already in (date, id) order
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a " +
+           "where a.date between :from and :to order by a.date, a.id")
+    List<ActivityDTO> findFirstPageBetween(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           Limit limit);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new " + ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) from ActivityJpaEntity a " +
+           "where a.date between :from and :to and (a.date, a.id) > (:afterDate, :afterId) " +
+           "order by a.date, a.id")
+    List<ActivityDTO> findPageBetweenAfter(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           @Param("afterDate") LocalDate afterDate,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    @Query("select new com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion(a.version, a.updatedAt) " +
+           "from ActivityJpaEntity a where a.id = :id")
+    Optional<ActivityVersion> findVersionById(@Param("id") Long id);
+
+    // The findRouted* methods answer the same as their counterparts, reading only the activity's partition
+
+    @NativeQuery("select a.* from activities a " + ROUTED_BY_ID)
+    Optional<ActivityJpaEntity> findRoutedById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @NativeQuery(value = "select a.id, a.name, a.minutes, a.date from activities a " + ROUTED_BY_ID,
+                 sqlResultSetMapping = ActivityJpaEntity.ACTIVITY_DTO_MAPPING)
+    Optional<ActivityDTO> findRoutedProjectedById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @NativeQuery(value = "select a.id, a.name, a.minutes, a.date, a.version, a.updated_at from activities a " + ROUTED_BY_ID,
+                 sqlResultSetMapping = ActivityJpaEntity.VERSIONED_ACTIVITY_DTO_MAPPING)
+    Optional<VersionedActivityDTO> findRoutedVersionedById(@Param("id") Long id);
+
+    @NativeQuery(value = "select a.version, a.updated_at from activities a " + ROUTED_BY_ID,
+                 sqlResultSetMapping = ActivityJpaEntity.ACTIVITY_VERSION_MAPPING)
+    Optional<ActivityVersion> findRoutedVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,21 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+
+import java.util.stream.Stream;
+
+public interface ActivityStreamRepository {
+    /**
+     * Streams every activity through a database cursor. Must be consumed (and closed)
+     * inside a transaction; entities are detached as they are read so the persistence
+     * context does not grow with the table.
+     */
+    Stream<ActivityJpaEntity> streamAll();
+
+    /**
+     * Streams every activity as a DTO through a database cursor, with the same rules as {@link #streamAll()}
+     * but without building entities; rows are returned as stored, whether or not they pass the domain's checks.
+     */
+    Stream<ActivityDTO> streamAllProjected();
+}
@@ -0,0 +1,42 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.stream.Stream;
+
+class ActivityStreamRepositoryImpl implements ActivityStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int fetchSize;
+
+    ActivityStreamRepositoryImpl(@Value("${app.activities.export.fetch-size:1000}") int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<ActivityJpaEntity> streamAll() {
+        return entityManager.createQuery("select a from ActivityJpaEntity a order by a.id", ActivityJpaEntity.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(entity -> {
+                    entityManager.detach(entity);
+                    return entity;
+                });
+    }
+
+    @Override
+    public Stream<ActivityDTO> streamAllProjected() {
+        return entityManager.createQuery("select new " + ActivityRepository.ACTIVITY_DTO + "(a.id, a.name, a.minutes, a.date) " +
+                                         "from ActivityJpaEntity a order by a.id", ActivityDTO.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
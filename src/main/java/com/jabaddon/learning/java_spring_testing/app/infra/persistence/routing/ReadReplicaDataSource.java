@@ -0,0 +1,162 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Hands out connections to the read replicas, balanced by {@link ReplicaSelection}.
+ * A replica that cannot be reached is skipped for {@code retryAfter}, while one whose pool is merely busy is
+ * only passed over for this connection; when no replica is available, or the thread is pinned by
+ * {@link ReadYourWrites}, the connection comes from the primary instead.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final Duration retryAfter;
+    private final Clock clock;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaDataSource(DataSource primary, List<DataSource> replicas, ReplicaSelection selection,
+                                 Duration retryAfter, Clock clock) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica("replica-" + (i + 1), replicas.get(i)))
+                .toList();
+        this.selection = selection;
+        this.retryAfter = retryAfter;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    int activeConnections(int replica) {
+        return replicas.get(replica).active.get();
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (!ReadYourWrites.isPinnedToPrimary()) {
+            for (Replica replica : candidates()) {
+                try {
+                    return replica.track(connector.connect(replica.dataSource));
+                } catch (SQLException e) {
+                    if (isUnreachable(replica.dataSource, e)) {
+                        replica.downUntil = clock.instant().plus(retryAfter);
+                        logger.warn("Read replica {} is unavailable, reading from the next one or the primary for {}",
+                                replica.name, retryAfter, e);
+                    } else {
+                        logger.debug("No connection from read replica {}, reading from the next one or the primary",
+                                replica.name, e);
+                    }
+                }
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    // SQLState class 08 is a connection exception. Hikari reports a pool timeout as a transient connection
+    // exception whether the host is down or every connection is in use; a pool without a single connection
+    // left could not reach its host, often because it hangs rather than refuses
+    static boolean isUnreachable(DataSource dataSource, SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        if (e instanceof SQLTransientConnectionException && dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null || pool.getTotalConnections() == 0;
+        }
+        return false;
+    }
+
+    // Available replicas, in the order they should be tried
+    private List<Replica> candidates() {
+        Instant now = clock.instant();
+        List<Replica> available = new ArrayList<>(replicas.stream().filter(replica -> !now.isBefore(replica.downUntil)).toList());
+        if (available.size() > 1) {
+            switch (selection) {
+                case ROUND_ROBIN -> Collections.rotate(available, -Math.floorMod(next.getAndIncrement(), available.size()));
+                case LEAST_CONNECTIONS -> available.sort(Comparator.comparingInt(replica -> replica.active.get()));
+            }
+        }
+        return available;
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile Instant downUntil = Instant.MIN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        // Counts the connection as active until it is closed, for LEAST_CONNECTIONS
+        private Connection track(Connection connection) {
+            active.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                            active.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
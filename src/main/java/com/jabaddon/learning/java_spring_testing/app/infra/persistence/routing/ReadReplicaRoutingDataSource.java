@@ -0,0 +1,31 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}) to the replicas and
+ * everything else to the primary. The physical connection is only fetched on the first statement,
+ * once the transaction has marked it read-only, which is what makes the routing decision possible.
+ */
+public class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final DataSource primary;
+    private final ReadReplicaDataSource replicas;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, ReadReplicaDataSource replicas) {
+        super(primary);
+        setReadOnlyDataSource(replicas);
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public void close() throws Exception {
+        replicas.close();
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing;
+
+/**
+ * Pins the current thread's reads to the primary, for callers that must see their own writes
+ * before the replicas have caught up.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = ThreadLocal.withInitial(() -> false);
+
+    private ReadYourWrites() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(true);
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get();
+    }
+}
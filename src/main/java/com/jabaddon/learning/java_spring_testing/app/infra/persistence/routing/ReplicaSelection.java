@@ -0,0 +1,11 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing;
+
+/**
+ * How {@link ReadReplicaDataSource} picks the replica for the next read-only connection.
+ */
+public enum ReplicaSelection {
+    /** Each replica in turn. */
+    ROUND_ROBIN,
+    /** The replica with the fewest connections currently handed out by this node. */
+    LEAST_CONNECTIONS
+}
@@ -0,0 +1,97 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.search;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link LuceneActivityIndex} in step with every write made through the delegate.
+ * Index changes are applied once the surrounding transaction commits, so a rolled back write
+ * never shows up in search results.
+ */
+public class IndexingActivityDomainRepository implements ActivityDomainRepository {
+    private final ActivityDomainRepository delegate;
+    private final LuceneActivityIndex index;
+
+    public IndexingActivityDomainRepository(ActivityDomainRepository delegate, LuceneActivityIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public Optional<Activity> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<ActivityVersion> findVersionById(Long id) {
+        return delegate.findVersionById(id);
+    }
+
+    @Override
+    public List<Activity> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Activity> findByNameContainingIgnoreCase(String name) {
+        return delegate.findByNameContainingIgnoreCase(name);
+    }
+
+    @Override
+    public Stream<Activity> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Activity save(Activity activity) {
+        Activity saved = delegate.save(activity);
+        afterCommit(() -> index.index(saved));
+        return saved;
+    }
+
+    @Override
+    public List<Activity> saveAll(List<Activity> activities) {
+        List<Activity> saved = delegate.saveAll(activities);
+        afterCommit(() -> index.indexAll(saved));
+        return saved;
+    }
+
+    @Override
+    public List<Activity> insertAll(List<Activity> activities) {
+        List<Activity> inserted = delegate.insertAll(activities);
+        afterCommit(() -> index.indexAll(inserted));
+        return inserted;
+    }
+
+    @Override
+    public void update(Activity activity) {
+        delegate.update(activity);
+        afterCommit(() -> index.index(activity));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        delegate.deleteById(id);
+        afterCommit(() -> index.delete(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,224 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.search;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index of activity names. Each document stores the whole {@link ActivityDTO},
+ * so searches are answered from the index without touching the database.
+ */
+public class LuceneActivityIndex implements AutoCloseable {
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String MINUTES = "minutes";
+    static final String DATE = "date";
+    static final String EPOCH_DAY = "epochDay";
+
+    private final Directory directory;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public LuceneActivityIndex(Directory directory) {
+        this.directory = directory;
+        try {
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open activity search index", e);
+        }
+    }
+
+    public void index(Activity activity) {
+        try {
+            writer.updateDocument(new Term(ID, activity.getId().toString()), toDocument(activity));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index activity " + activity.getId(), e);
+        }
+    }
+
+    public void indexAll(List<Activity> activities) {
+        try {
+            for (Activity activity : activities) {
+                writer.updateDocument(new Term(ID, activity.getId().toString()), toDocument(activity));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index activities", e);
+        }
+    }
+
+    public void delete(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not remove activity " + id + " from the index", e);
+        }
+    }
+
+    /**
+     * Replaces the whole index with the given activities, which are read as stored: rows older than the
+     * domain's rules, such as undated ones, are indexed too.
+     */
+    public void rebuild(Stream<ActivityDTO> activities) {
+        try {
+            writer.deleteAll();
+            Iterator<ActivityDTO> iterator = activities.iterator();
+            while (iterator.hasNext()) {
+                ActivityDTO activity = iterator.next();
+                writer.addDocument(toDocument(activity.id(), activity.name(), activity.minutes(), activity.date()));
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rebuild activity search index", e);
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} activities whose name matches {@code text}, most relevant first.
+     * Every word of the text has to match a word of the name exactly, as a prefix, or within a few typos.
+     */
+    public List<ActivityDTO> search(String text, int limit) {
+        return search(text, ActivityDateRange.UNBOUNDED, limit);
+    }
+
+    public List<ActivityDTO> search(String text, ActivityDateRange range, int limit) {
+        Query query = buildQuery(text, range);
+        if (query == null) {
+            return List.of();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] hits = searcher.search(query, limit).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                List<ActivityDTO> activities = new ArrayList<>(hits.length);
+                for (ScoreDoc hit : hits) {
+                    activities.add(toDTO(storedFields.document(hit.doc)));
+                }
+                return activities;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not search activities", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+        directory.close();
+    }
+
+    private Query buildQuery(String text, ActivityDateRange range) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (range.isBounded()) {
+            // A filter narrows the matches without affecting their relevance
+            query.add(LongPoint.newRangeQuery(EPOCH_DAY, range.fromOrEarliest().toEpochDay(), range.toOrLatest().toEpochDay()),
+                    BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    // Exact matches score highest, then prefixes (search as you type), then typos
+    private Query termQuery(String term) {
+        Term nameTerm = new Term(NAME, term);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(nameTerm), 4f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(nameTerm), 2f), BooleanClause.Occur.SHOULD);
+        int maxEdits = term.length() < 3 ? 0 : term.length() < 6 ? 1 : 2;
+        if (maxEdits > 0) {
+            query.add(new FuzzyQuery(nameTerm, maxEdits, 1), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not analyze search text", e);
+        }
+        return terms;
+    }
+
+    private static Document toDocument(Activity activity) {
+        return toDocument(activity.getId(), activity.getName(), activity.getMinutes(), activity.getDate());
+    }
+
+    // An undated activity has no date fields, so a bounded range never matches it, as in the database
+    private static Document toDocument(Long id, String name, long minutes, LocalDate date) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.YES));
+        document.add(new TextField(NAME, name, Field.Store.YES));
+        document.add(new StoredField(MINUTES, minutes));
+        if (date != null) {
+            document.add(new StoredField(DATE, date.toString()));
+            document.add(new LongPoint(EPOCH_DAY, date.toEpochDay()));
+        }
+        return document;
+    }
+
+    private static ActivityDTO toDTO(Document document) {
+        String date = document.get(DATE);
+        return new ActivityDTO(
+                Long.valueOf(document.get(ID)),
+                document.get(NAME),
+                document.getField(MINUTES).numericValue().longValue(),
+                date == null ? null : LocalDate.parse(date));
+    }
+}
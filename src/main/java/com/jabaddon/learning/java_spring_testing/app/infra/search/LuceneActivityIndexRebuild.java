@@ -0,0 +1,67 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.search;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the {@link LuceneActivityIndex} from the database while the application starts. Writes are only
+ * indexed as they commit, so one made during the rebuild could be overwritten by the snapshot being read;
+ * the rebuild therefore runs in a phase before the web server starts, and scheduled jobs only start once
+ * every phase has.
+ */
+public class LuceneActivityIndexRebuild implements SmartLifecycle {
+
+    // The embedded web server starts in phase DEFAULT_PHASE - 2048
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneActivityIndexRebuild.class);
+
+    private final LuceneActivityIndex index;
+    private final Supplier<Stream<ActivityDTO>> activities;
+    private final TransactionTemplate readOnly;
+
+    private volatile boolean running;
+
+    /**
+     * @param activities streams every stored activity; it is consumed inside a read-only transaction
+     */
+    public LuceneActivityIndexRebuild(LuceneActivityIndex index, Supplier<Stream<ActivityDTO>> activities,
+                                      TransactionTemplate readOnly) {
+        this.index = index;
+        this.activities = activities;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public void start() {
+        readOnly.executeWithoutResult(status -> {
+            long start = System.currentTimeMillis();
+            try (Stream<ActivityDTO> stored = activities.get()) {
+                index.rebuild(stored);
+            }
+            logger.info("Rebuilt activity search index in {} ms", System.currentTimeMillis() - start);
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,49 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.search;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Answers name searches from the {@link LuceneActivityIndex}, with typo tolerance and relevance
+ * ranking, and leaves every other read to the delegate.
+ */
+public class LuceneActivityReadRepository implements ActivityReadRepository {
+    private final ActivityReadRepository delegate;
+    private final LuceneActivityIndex index;
+
+    public LuceneActivityReadRepository(ActivityReadRepository delegate, LuceneActivityIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public Optional<ActivityDTO> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<VersionedActivityDTO> findVersionedById(Long id) {
+        return delegate.findVersionedById(id);
+    }
+
+    @Override
+    public List<ActivityDTO> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<ActivityDTO> findByNameContainingIgnoreCase(String name, ActivityDateRange range, int limit) {
+        return index.search(name, range, limit);
+    }
+
+    @Override
+    public List<ActivityDTO> findPage(ActivityDateRange range, LocalDate afterDate, Long afterId, int limit) {
+        return delegate.findPage(range, afterDate, afterId, limit);
+    }
+}
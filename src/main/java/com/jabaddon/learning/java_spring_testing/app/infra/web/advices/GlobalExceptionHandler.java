@@ -1,9 +1,11 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.web.advices;
 
+import com.jabaddon.learning.java_spring_testing.app.application.ConflictException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.NoSuchElementException;
 
@@ -28,6 +30,18 @@ public class GlobalExceptionHandler {
                 .body("Invalid request: " + e.getMessage());
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<String> handleConflictException(ConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Conflict: " + e.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<String> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid request: invalid value '" + e.getValue() + "' for parameter '" + e.getName() + "'");
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleIllegalArgumentException(RuntimeException e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -1,40 +1,230 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.web.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBatchResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBulkExportService;
 import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityExportFormat;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityPage;
 import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
 import com.jabaddon.learning.java_spring_testing.app.application.ActivityService;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityVersionDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.infra.web.converters.BinaryFormats;
+import com.jabaddon.learning.java_spring_testing.app.infra.web.converters.MessagePackHttpMessageConverter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/activities")
 public class ActivityController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String APPLICATION_PGCOPY_VALUE = "application/x-pgcopy";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(ActivityImportController.TEXT_CSV_VALUE);
+    private static final MediaType APPLICATION_PGCOPY = MediaType.parseMediaType(APPLICATION_PGCOPY_VALUE);
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
     
     private final ActivityService activityService;
+    private final ObjectWriter exportWriter;
+    private final BinaryFormats binaryFormats;
+    private final ActivityBulkExportService activityBulkExportService;
     
-    public ActivityController(ActivityService activityService) {
+    public ActivityController(ActivityService activityService, ObjectMapper objectMapper, BinaryFormats binaryFormats,
+                              ActivityBulkExportService activityBulkExportService) {
         this.activityService = activityService;
+        this.exportWriter = exportWriter(objectMapper);
+        this.binaryFormats = binaryFormats;
+        this.activityBulkExportService = activityBulkExportService;
     }
     
     @GetMapping
-    public ResponseEntity<List<ActivityDTO>> getActivities(@RequestParam(required = false) String name) {
-        List<ActivityDTO> activities;
+    public ResponseEntity<List<ActivityDTO>> getActivities(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                           @RequestParam(required = false) String name,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) Integer limit) {
+        String representation = representation(accept);
         if (name != null && !name.isEmpty()) {
-            activities = activityService.searchActivitiesByName(name);
-        } else {
-            activities = activityService.getAllActivities();
+            List<ActivityDTO> activities = activityService.searchActivitiesByName(name, from, to, limit);
+            return ResponseEntity.ok()
+                    .eTag(listETag(activities, null, representation))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(activities);
+        }
+        ActivityPage page = activityService.getActivityPage(from, to, after, limit);
+        // Spring answers If-None-Match with 304 before serializing the body
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(listETag(page.activities(), page.nextCursor(), representation))
+                .varyBy(HttpHeaders.ACCEPT);
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
         }
-        return ResponseEntity.ok(activities);
+        return response.body(page.activities());
     }
     
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportActivitiesAsNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(out -> export(exportWriter.withRootValueSeparator("\n").writeValues(out)));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportActivitiesAsJsonArray() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(out -> export(exportWriter.writeValuesAsArray(out)));
+    }
+
+    /**
+     * CBOR and Smile exports are one array, written as it goes. MessagePack arrays need their length up front,
+     * so that export is a sequence of activities instead, like NDJSON; its generator cannot write several
+     * root values, so each activity gets its own, writing into one shared buffer.
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_CBOR_VALUE, BinaryFormats.APPLICATION_SMILE_VALUE,
+            BinaryFormats.APPLICATION_MSGPACK_VALUE, BinaryFormats.APPLICATION_X_MSGPACK_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportActivitiesAsBinary(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Wildcards, or no Accept header at all, can also land here: those clients get JSON, as before
+        Optional<MediaType> selected = binaryFormats.select(MediaType.parseMediaTypes(accept));
+        if (selected.isEmpty()) {
+            return exportActivitiesAsJsonArray();
+        }
+        MediaType mediaType = selected.get();
+        AbstractJackson2HttpMessageConverter converter = binaryFormats.converterFor(mediaType);
+        ObjectWriter writer = exportWriter(converter.getObjectMapper());
+        if (!(converter instanceof MessagePackHttpMessageConverter)) {
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(out -> export(writer.writeValuesAsArray(out)));
+        }
+        ObjectWriter valueWriter = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(out -> {
+                    BufferedOutputStream buffered = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+                    activityService.exportActivities(activity -> {
+                        try {
+                            valueWriter.writeValue(buffered, activity);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    buffered.flush();
+                });
+    }
+
+    /**
+     * Bulk exports in the CSV and binary formats of Postgres {@code COPY}, for loading into other databases and
+     * analytics tools, optionally within {@code from}/{@code to} and gzip-compressed for clients that accept it.
+     * As with the binary formats, clients that name neither get JSON, which has no range: asking it for one is a
+     * 400 rather than every activity.
+     */
+    @GetMapping(value = "/export", produces = {ActivityImportController.TEXT_CSV_VALUE, APPLICATION_PGCOPY_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportActivitiesWithCopy(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Optional<ActivityExportFormat> selected = copyFormat(MediaType.parseMediaTypes(accept));
+        if (selected.isEmpty()) {
+            if (from != null || to != null) {
+                throw new IllegalArgumentException("from and to only apply to the CSV and pgcopy exports");
+            }
+            return exportActivitiesAsJsonArray();
+        }
+        ActivityExportFormat format = selected.get();
+        // Checked before the response starts, so a bad range is still a 400
+        ActivityDateRange range = new ActivityDateRange(from, to);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == ActivityExportFormat.CSV ? new MediaType(TEXT_CSV, StandardCharsets.UTF_8) : APPLICATION_PGCOPY)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(format == ActivityExportFormat.CSV ? "activities.csv" : "activities.pgcopy")
+                        .build().toString())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> {
+            ExportGzipOutputStream compressed = gzip ? new ExportGzipOutputStream(out) : null;
+            try {
+                BufferedOutputStream buffered = new BufferedOutputStream(gzip ? compressed : out, EXPORT_BUFFER_SIZE);
+                activityBulkExportService.exportActivities(range, format, buffered);
+                buffered.flush();
+                if (gzip) {
+                    compressed.finish();
+                }
+            } finally {
+                if (gzip) {
+                    compressed.release();
+                }
+            }
+        });
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ActivityDTO> getActivityById(@PathVariable Long id) {
-        ActivityDTO activity = activityService.getActivityById(id);
-        return ResponseEntity.ok(activity);
+    public ResponseEntity<ActivityDTO> getActivityById(@PathVariable Long id,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                       HttpServletRequest request, WebRequest webRequest,
+                                                       HttpServletResponse response) {
+        String representation = representation(accept);
+        // Set on the response itself, so the 304 carries it too
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // Conditional requests are validated against the version only, so a 304 never loads the activity nor
+        // serializes it. Checked on the request alone: validators written to the response would stick to it
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            ActivityVersionDTO version = activityService.getActivityVersion(id);
+            String eTag = eTag(version, representation);
+            if (new ServletWebRequest(request).checkNotModified(eTag, lastModified(version))) {
+                webRequest.checkNotModified(eTag, lastModified(version));
+                return null;
+            }
+        }
+        // That version may be older or newer than this row, read from another replica or cache entry, so the
+        // response is tagged with the row it carries and checked against it again
+        VersionedActivityDTO activity = activityService.getVersionedActivity(id);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(eTag(activity.version(), representation));
+        if (activity.version().lastModified() != null) {
+            ok.lastModified(activity.version().lastModified());
+        }
+        return ok.body(activity.activity());
     }
     
     @PostMapping("")
@@ -43,6 +233,11 @@ public class ActivityController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdActivity);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<List<ActivityBatchResultDTO>> createActivities(@RequestBody List<NewActivityDTO> activityDTOs) {
+        return ResponseEntity.ok(activityService.createActivities(activityDTOs));
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ActivityDTO> updateActivity(@PathVariable Long id, @RequestBody NewActivityDTO activityDTO) {
         ActivityDTO updatedActivity = activityService.updateActivity(id, activityDTO);
@@ -57,4 +252,100 @@ public class ActivityController {
         activityService.deleteActivity(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Closing would close the response too and, after a failed export, finish the truncated stream as if it
+    // were whole; only the native deflater needs freeing
+    private static final class ExportGzipOutputStream extends GZIPOutputStream {
+
+        ExportGzipOutputStream(OutputStream out) throws IOException {
+            super(out, EXPORT_BUFFER_SIZE);
+        }
+
+        void release() {
+            def.end();
+        }
+    }
+
+    private void export(SequenceWriter sequenceWriter) throws IOException {
+        try (sequenceWriter) {
+            activityService.exportActivities(activity -> {
+                try {
+                    sequenceWriter.write(activity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    // Rows are buffered by the generator and flushed in chunks rather than once per activity
+    private static ObjectWriter exportWriter(ObjectMapper objectMapper) {
+        return objectMapper.writerFor(ActivityDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Like BinaryFormats.select, only a type naming one of the formats counts; wildcards are left to JSON
+    static Optional<ActivityExportFormat> copyFormat(List<MediaType> accepted) {
+        for (MediaType mediaType : BinaryFormats.byPreference(accepted)) {
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(TEXT_CSV)) {
+                return Optional.of(ActivityExportFormat.CSV);
+            }
+            if (mediaType.isCompatibleWith(APPLICATION_PGCOPY)) {
+                return Optional.of(ActivityExportFormat.BINARY);
+            }
+        }
+        return Optional.empty();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // Every representation has its own bytes, so its own strong ETag: JSON keeps the plain one, the binary
+    // formats add their subtype
+    private String representation(String accept) {
+        return binaryFormats.negotiate(MediaType.parseMediaTypes(accept))
+                .map(mediaType -> "-" + mediaType.getSubtype())
+                .orElse("");
+    }
+
+    private static String eTag(ActivityVersionDTO version, String representation) {
+        return "\"" + version.id() + "-" + version.version() + representation + "\"";
+    }
+
+    private static long lastModified(ActivityVersionDTO version) {
+        return version.lastModified() == null ? -1 : version.lastModified().toEpochMilli();
+    }
+
+    // A strong ETag has to change with any byte of the body, so it is a digest of everything that is written;
+    // the list carries no versions to go by. Fields are NUL-separated so neighbouring ones cannot run together
+    private static String listETag(List<ActivityDTO> activities, String nextCursor, String representation) {
+        MessageDigest digest = sha256();
+        for (ActivityDTO activity : activities) {
+            digest.update((activity.id() + "\0" + activity.name() + "\0" + activity.minutes() + "\0" + activity.date() + "\0")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(String.valueOf(nextCursor).getBytes(StandardCharsets.UTF_8));
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + representation + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.controllers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportService;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityJsonImportResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportReports;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Bulk CSV and JSON imports. The request body is handed to the import as a stream, never read into memory as
+ * a whole; when CSV rows are rejected the response points to their report in the {@value #REJECTIONS_HEADER}
+ * header, while JSON imports list rejected elements in the response itself.
+ */
+@RestController
+@RequestMapping("/api/activities/import")
+public class ActivityImportController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+    static final String REJECTIONS_HEADER = "X-Import-Rejections";
+
+    private final ActivityImportService activityImportService;
+    private final ActivityImportReports activityImportReports;
+    private final ObjectMapper objectMapper;
+
+    public ActivityImportController(ActivityImportService activityImportService, ActivityImportReports activityImportReports,
+                                    ObjectMapper objectMapper) {
+        this.activityImportService = activityImportService;
+        this.activityImportReports = activityImportReports;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ActivityImportResultDTO> importActivities(InputStream body,
+                                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        ActivityImportReports.Report report = activityImportReports.create();
+        ActivityImportResultDTO result;
+        try (Reader csv = new InputStreamReader(body, charset); Writer rejections = report.writer()) {
+            result = activityImportService.importCsv(csv, rejections);
+        } catch (IOException | RuntimeException e) {
+            report.delete();
+            throw e;
+        }
+        if (!result.hasRejections()) {
+            report.delete();
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.ok()
+                .header(REJECTIONS_HEADER, "/api/activities/import/" + report.id() + "/rejections")
+                .body(result);
+    }
+
+    // Read with a parser rather than bound with @RequestBody, which would hold the whole array in memory
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ActivityJsonImportResultDTO> importActivitiesFromJson(InputStream body) throws IOException {
+        try (JsonParser json = objectMapper.createParser(body)) {
+            return ResponseEntity.ok(activityImportService.importJson(json));
+        }
+    }
+
+    @GetMapping(value = "/{reportId}/rejections", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<Resource> getRejections(@PathVariable String reportId) {
+        Resource report = activityImportReports.find(reportId)
+                .map(FileSystemResource::new)
+                .orElseThrow(() -> new NoSuchElementException("Import report not found"));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("activity-import-" + reportId + "-rejections.csv")
+                        .build().toString())
+                .body(report);
+    }
+}
@@ -0,0 +1,70 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.controllers;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobService;
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportJobFiles;
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportJobRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Resumable CSV imports. The body is stored first and imported in the background; the job it starts is
+ * polled for progress, and resumed from its last checkpoint if it stops before the end.
+ */
+@RestController
+@RequestMapping("/api/activities/import/jobs")
+public class ActivityImportJobController {
+
+    private final ActivityImportJobService activityImportJobService;
+    private final ActivityImportJobFiles activityImportJobFiles;
+    private final ActivityImportJobRunner activityImportJobRunner;
+
+    public ActivityImportJobController(ActivityImportJobService activityImportJobService,
+                                       ActivityImportJobFiles activityImportJobFiles,
+                                       ActivityImportJobRunner activityImportJobRunner) {
+        this.activityImportJobService = activityImportJobService;
+        this.activityImportJobFiles = activityImportJobFiles;
+        this.activityImportJobRunner = activityImportJobRunner;
+    }
+
+    @PostMapping(consumes = ActivityImportController.TEXT_CSV_VALUE)
+    public ResponseEntity<ActivityImportJobDTO> startJob(InputStream body,
+                                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        UUID id = UUID.randomUUID();
+        activityImportJobFiles.store(id, body, charset);
+        ActivityImportJobDTO job = activityImportJobService.createJob(id);
+        activityImportJobRunner.submit(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/activities/import/jobs/" + id))
+                .body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ActivityImportJobDTO> getJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(activityImportJobService.getJob(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ActivityImportJobDTO> resumeJob(@PathVariable UUID id) {
+        ActivityImportJobDTO job = activityImportJobService.resumeJob(id);
+        activityImportJobRunner.submit(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/activities/import/jobs/" + id))
+                .body(job);
+    }
+}
@@ -0,0 +1,119 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.converters;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@code List<ActivityDTO>}, the body of the list and search endpoints, in the place of the Jackson
+ * converters it is made from. Each of those puts an {@link ObjectWriter} together for every response; this
+ * one builds a writer for the list type once per media type, from the same {@code ObjectMapper}, and reuses
+ * it. Anything else, including reading, is left to the Jackson converters.
+ */
+public class ActivityListHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<ActivityDTO>> {
+
+    private static final TypeReference<List<ActivityDTO>> ACTIVITIES = new TypeReference<>() {
+    };
+
+    private final Map<MediaType, ObjectWriter> writers = new LinkedHashMap<>();
+
+    /**
+     * @param converters the Jackson converters to stand in for, in the order they are negotiated in
+     */
+    public ActivityListHttpMessageConverter(List<? extends AbstractJackson2HttpMessageConverter> converters) {
+        for (AbstractJackson2HttpMessageConverter converter : converters) {
+            ObjectWriter writer = converter.getObjectMapper().writerFor(ACTIVITIES);
+            for (MediaType mediaType : converter.getSupportedMediaTypes()) {
+                writers.putIfAbsent(mediaType, writer);
+            }
+        }
+        setSupportedMediaTypes(List.copyOf(writers.keySet()));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    // Only callers that pass the generic type can tell a list of activities from any other list
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return type != null && isActivityList(type) && canWrite(mediaType);
+    }
+
+    // Other charsets are the Jackson converters' to encode
+    @Override
+    protected boolean canWrite(@Nullable MediaType mediaType) {
+        return super.canWrite(mediaType) && (mediaType == null || mediaType.getCharset() == null
+                || mediaType.getCharset().equals(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(List<ActivityDTO> activities, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        writerFor(outputMessage.getHeaders().getContentType())
+                .writeValue(StreamUtils.nonClosing(outputMessage.getBody()), activities);
+    }
+
+    @Override
+    public List<ActivityDTO> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Activity lists are only written by this converter", inputMessage);
+    }
+
+    @Override
+    protected List<ActivityDTO> readInternal(Class<? extends List<ActivityDTO>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Activity lists are only written by this converter", inputMessage);
+    }
+
+    private ObjectWriter writerFor(@Nullable MediaType contentType) {
+        if (contentType != null) {
+            for (Map.Entry<MediaType, ObjectWriter> writer : writers.entrySet()) {
+                if (writer.getKey().includes(contentType)) {
+                    return writer.getValue();
+                }
+            }
+        }
+        return writers.values().iterator().next();
+    }
+
+    private static boolean isActivityList(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        return resolved.resolve() == List.class && resolved.getGeneric(0).resolve() == ActivityDTO.class;
+    }
+}
@@ -0,0 +1,105 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.converters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The binary encodings served next to JSON for machine-to-machine clients: CBOR, Smile and MessagePack.
+ * Each has its own {@link ObjectMapper} built from the same builder as the JSON one, so modules,
+ * features and the activity serializers are shared, and its own message converter.
+ */
+public class BinaryFormats {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_MSGPACK_VALUE = "application/msgpack";
+    public static final String APPLICATION_X_MSGPACK_VALUE = "application/x-msgpack";
+
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+
+    public BinaryFormats(Supplier<Jackson2ObjectMapperBuilder> builders) {
+        this.converters = List.of(
+                new MappingJackson2CborHttpMessageConverter(builders.get().factory(new CBORFactory()).build()),
+                new MappingJackson2SmileHttpMessageConverter(builders.get().factory(new SmileFactory()).build()),
+                new MessagePackHttpMessageConverter(builders.get().factory(new MessagePackFactory()).build()));
+    }
+
+    public List<AbstractJackson2HttpMessageConverter> converters() {
+        return converters;
+    }
+
+    /**
+     * The binary media type in {@code accepted} the client prefers most, as one of the converters names it.
+     */
+    public Optional<MediaType> select(List<MediaType> accepted) {
+        for (MediaType mediaType : byPreference(accepted)) {
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+                continue;
+            }
+            Optional<MediaType> supported = supported(mediaType);
+            if (supported.isPresent()) {
+                return supported;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The binary media type a response negotiated for {@code accepted} is written in, or empty when JSON is
+     * preferred to all of them, including through a wildcard.
+     */
+    public Optional<MediaType> negotiate(List<MediaType> accepted) {
+        for (MediaType mediaType : byPreference(accepted)) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return Optional.empty();
+            }
+            Optional<MediaType> supported = supported(mediaType);
+            if (supported.isPresent()) {
+                return supported;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * {@code accepted} in the order Spring MVC negotiates it: by quality, then by specificity, and otherwise
+     * as given; types with {@code q=0} are not acceptable and left out.
+     */
+    public static List<MediaType> byPreference(List<MediaType> accepted) {
+        List<MediaType> sorted = new ArrayList<>(accepted.stream()
+                .filter(mediaType -> mediaType.getQualityValue() > 0)
+                .toList());
+        MimeTypeUtils.sortBySpecificity(sorted);
+        return sorted;
+    }
+
+    private Optional<MediaType> supported(MediaType mediaType) {
+        for (AbstractJackson2HttpMessageConverter converter : converters) {
+            for (MediaType supported : converter.getSupportedMediaTypes()) {
+                if (supported.isCompatibleWith(mediaType)) {
+                    return Optional.of(supported);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public AbstractJackson2HttpMessageConverter converterFor(MediaType mediaType) {
+        return converters.stream()
+                .filter(converter -> converter.getSupportedMediaTypes().contains(mediaType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Not a binary format: " + mediaType));
+    }
+}
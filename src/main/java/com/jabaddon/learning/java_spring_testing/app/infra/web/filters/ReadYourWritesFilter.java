@@ -0,0 +1,66 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.filters;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Hands out read-your-writes tokens: every write request gets one in the {@value #HEADER} response
+ * header, and requests that send it back within {@code window} read from the primary, so a client
+ * sees its own changes even while the replicas lag behind.
+ * The token is just the time of the write, so it is harmless when forged or replayed.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = clock.millis();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set before the chain runs, the response is usually committed by the time it returns
+            response.setHeader(HEADER, Long.toString(now));
+        }
+        if (write || isFresh(request.getHeader(HEADER), now)) {
+            ReadYourWrites.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private boolean isFresh(String token, long now) {
+        if (token == null) {
+            return false;
+        }
+        try {
+            long writtenAt = Long.parseLong(token.trim());
+            return writtenAt <= now && now - writtenAt <= window.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.cache.ActivityCache;
+import com.jabaddon.learning.java_spring_testing.app.infra.cache.ActivityChangeListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.activities.cache.enabled", havingValue = "true")
+public class ActivityCacheConfiguration {
+
+    @Bean
+    public ActivityCache activityCache(@Value("${app.activities.cache.maximum-size:10000}") long maximumSize,
+                                       @Value("${app.activities.cache.search-maximum-size:1000}") long searchMaximumSize,
+                                       @Value("${app.activities.cache.expire-after-write:5m}") Duration expireAfterWrite,
+                                       @Value("${app.datasource.replicas.enabled:false}") boolean replicas,
+                                       @Value("${app.activities.cache.replica-lag-window:5s}") Duration replicaLagWindow,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        // Without replicas every miss reads the primary, so there is no lag to wait out
+        ActivityCache activityCache = new ActivityCache(maximumSize, searchMaximumSize, expireAfterWrite,
+                replicas ? replicaLagWindow : Duration.ZERO, Clock.systemUTC());
+        meterRegistry.ifAvailable(activityCache::bindTo);
+        return activityCache;
+    }
+
+    // Connection details also cover Testcontainers service connections, not just spring.datasource.*
+    @Bean
+    @ConditionalOnProperty(name = "app.activities.cache.notify.enabled", havingValue = "true")
+    public ActivityChangeListener activityChangeListener(JdbcConnectionDetails connectionDetails,
+                                                         ActivityCache activityCache,
+                                                         @Value("${app.activities.cache.notify.poll-timeout:500ms}") Duration pollTimeout,
+                                                         @Value("${app.activities.cache.notify.reconnect-delay:5s}") Duration reconnectDelay) {
+        return new ActivityChangeListener(connectionDetails.getJdbcUrl(), connectionDetails.getUsername(),
+                connectionDetails.getPassword(), activityCache, pollTimeout, reconnectDelay);
+    }
+}
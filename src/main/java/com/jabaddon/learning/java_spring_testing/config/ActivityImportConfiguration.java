@@ -0,0 +1,24 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportReports;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ActivityImportConfiguration {
+
+    @Bean
+    public ActivityImportReports activityImportReports(@Value("${app.activities.import.report-directory:}") String directory,
+                                                       @Value("${app.activities.import.report-retention:24h}") Duration retention) {
+        // Reports only have to outlive the download, so the temporary directory is a fine default
+        Path reports = directory.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "activity-import-reports")
+                : Path.of(directory);
+        return new ActivityImportReports(reports, retention, Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,44 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobService;
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportJobFiles;
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportJobRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+public class ActivityImportJobConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportJobConfiguration.class);
+
+    @Bean
+    public ActivityImportJobFiles activityImportJobFiles(@Value("${app.activities.import.jobs.directory:}") String directory,
+                                                         @Value("${app.activities.import.jobs.retention:7d}") Duration retention) {
+        Path jobs;
+        if (directory.isBlank()) {
+            jobs = Path.of(System.getProperty("java.io.tmpdir"), "activity-import-jobs");
+            logger.warn("app.activities.import.jobs.directory is not set, import job files go to {}: jobs cannot be "
+                    + "resumed after a deploy or on another node", jobs);
+        } else {
+            jobs = Path.of(directory);
+        }
+        return new ActivityImportJobFiles(jobs, retention, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public ActivityImportJobRunner activityImportJobRunner(ActivityImportJobService activityImportJobService,
+                                                           ActivityImportJobFiles activityImportJobFiles,
+                                                           @Value("${app.activities.import.jobs.concurrency:2}") int concurrency,
+                                                           @Value("${app.activities.import.jobs.queue-capacity:100}") int queueCapacity) {
+        return new ActivityImportJobRunner(activityImportJobService, activityImportJobFiles, concurrency, queueCapacity);
+    }
+}
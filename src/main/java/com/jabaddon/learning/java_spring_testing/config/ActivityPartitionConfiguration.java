@@ -0,0 +1,25 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.ActivityPartitionMaintenance;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.activities.partitions.maintenance.enabled", havingValue = "true")
+public class ActivityPartitionConfiguration {
+
+    @Bean
+    public ActivityPartitionMaintenance activityPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                                                     JdbcConnectionDetails connectionDetails,
+                                                                     @Value("${app.activities.partitions.months-ahead:3}") int monthsAhead) {
+        return new ActivityPartitionMaintenance(jdbcTemplate, connectionDetails.getJdbcUrl(), monthsAhead, Clock.systemDefaultZone());
+    }
+}
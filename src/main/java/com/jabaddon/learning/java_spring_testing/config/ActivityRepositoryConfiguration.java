@@ -0,0 +1,72 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import com.jabaddon.learning.java_spring_testing.app.infra.cache.ActivityCache;
+import com.jabaddon.learning.java_spring_testing.app.infra.cache.CachingActivityDomainRepository;
+import com.jabaddon.learning.java_spring_testing.app.infra.cache.CachingActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.infra.metrics.MeteredActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories.ActivityDomainRepositoryImpl;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories.ActivityReadRepositoryImpl;
+import com.jabaddon.learning.java_spring_testing.app.infra.search.IndexingActivityDomainRepository;
+import com.jabaddon.learning.java_spring_testing.app.infra.search.LuceneActivityIndex;
+import com.jabaddon.learning.java_spring_testing.app.infra.search.LuceneActivityReadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Stacks the optional search index and cache decorators on top of the JPA repositories.
+ * The cache is evicted only after the index has been updated; result sizes are metered on top of
+ * the cache, so they count what callers actually get.
+ */
+@Configuration
+public class ActivityRepositoryConfiguration {
+
+    @Bean
+    @Primary
+    public ActivityDomainRepository activityDomainRepository(ActivityDomainRepositoryImpl activityDomainRepositoryImpl,
+                                                             ObjectProvider<LuceneActivityIndex> luceneActivityIndex,
+                                                             ObjectProvider<ActivityCache> activityCache) {
+        ActivityDomainRepository repository = activityDomainRepositoryImpl;
+        LuceneActivityIndex index = luceneActivityIndex.getIfAvailable();
+        if (index != null) {
+            repository = new IndexingActivityDomainRepository(repository, index);
+        }
+        ActivityCache cache = activityCache.getIfAvailable();
+        if (cache != null) {
+            repository = new CachingActivityDomainRepository(repository, cache);
+        }
+        if (repository == activityDomainRepositoryImpl) {
+            // Returned as is, the @Timed proxy would be proxied again under this bean's name and time every call twice
+            Object target = AopProxyUtils.getSingletonTarget(activityDomainRepositoryImpl);
+            return target != null ? (ActivityDomainRepository) target : repository;
+        }
+        return repository;
+    }
+
+    @Bean
+    @Primary
+    public ActivityReadRepository activityReadRepository(ActivityReadRepositoryImpl activityReadRepositoryImpl,
+                                                         ObjectProvider<LuceneActivityIndex> luceneActivityIndex,
+                                                         ObjectProvider<ActivityCache> activityCache,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        ActivityReadRepository repository = activityReadRepositoryImpl;
+        LuceneActivityIndex index = luceneActivityIndex.getIfAvailable();
+        if (index != null) {
+            repository = new LuceneActivityReadRepository(repository, index);
+        }
+        ActivityCache cache = activityCache.getIfAvailable();
+        if (cache != null) {
+            repository = new CachingActivityReadRepository(repository, cache);
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            repository = new MeteredActivityReadRepository(repository, registry);
+        }
+        return repository;
+    }
+}
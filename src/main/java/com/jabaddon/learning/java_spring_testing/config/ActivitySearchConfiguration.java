@@ -0,0 +1,43 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories.ActivityRepository;
+import com.jabaddon.learning.java_spring_testing.app.infra.search.LuceneActivityIndex;
+import com.jabaddon.learning.java_spring_testing.app.infra.search.LuceneActivityIndexRebuild;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Enabled with {@code app.activities.search.strategy=lucene}: name searches are served by an
+ * embedded Lucene index that is rebuilt from the database on startup, before requests are taken,
+ * and then updated on every write (see {@link ActivityRepositoryConfiguration}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.activities.search.strategy", havingValue = "lucene")
+public class ActivitySearchConfiguration {
+
+    @Bean
+    public LuceneActivityIndex luceneActivityIndex(@Value("${app.activities.search.lucene.directory:}") String directory) throws IOException {
+        // Without a directory the index lives in memory, which is fine since it is rebuilt on startup anyway
+        Directory store = directory.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(directory));
+        return new LuceneActivityIndex(store);
+    }
+
+    @Bean
+    public LuceneActivityIndexRebuild luceneActivityIndexRebuild(ActivityRepository activityRepository,
+                                                                 LuceneActivityIndex luceneActivityIndex,
+                                                                 PlatformTransactionManager transactionManager) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return new LuceneActivityIndexRebuild(luceneActivityIndex, activityRepository::streamAllProjected, readOnly);
+    }
+}
@@ -0,0 +1,58 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.web.converters.ActivityListHttpMessageConverter;
+import com.jabaddon.learning.java_spring_testing.app.infra.web.converters.BinaryFormats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lets clients send and receive CBOR, Smile and MessagePack instead of JSON, picked by
+ * {@code Content-Type} and {@code Accept}. Lists of activities, in any of them, are written by
+ * {@link ActivityListHttpMessageConverter}.
+ */
+@Configuration
+public class BinaryFormatsConfiguration implements WebMvcConfigurer {
+
+    private final BinaryFormats binaryFormats;
+
+    public BinaryFormatsConfiguration(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders) {
+        this.binaryFormats = new BinaryFormats(objectMapperBuilders::getObject);
+    }
+
+    @Bean
+    public BinaryFormats binaryFormats() {
+        return binaryFormats;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring adds its own Smile and CBOR converters with plain ObjectMappers when the dataformats are present.
+        // Ours go last instead, so JSON stays the answer to Accept: */* and to requests without Accept
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.addAll(binaryFormats.converters());
+        // Right ahead of the JSON converter; subclasses such as Spring Data's projecting one only read
+        List<AbstractJackson2HttpMessageConverter> jackson = new ArrayList<>();
+        int json = 0;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                jackson.add((MappingJackson2HttpMessageConverter) converters.get(i));
+                json = i;
+                break;
+            }
+        }
+        jackson.addAll(binaryFormats.converters());
+        converters.add(json, new ActivityListHttpMessageConverter(jackson));
+    }
+}
@@ -0,0 +1,86 @@
+package com.jabaddon.learning.java_spring_testing.config;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReadReplicaDataSource;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReadReplicaRoutingDataSource;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReplicaSelection;
+import com.jabaddon.learning.java_spring_testing.app.infra.web.filters.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enabled with {@code app.datasource.replicas.enabled=true}: the auto-configured data source stays the
+ * primary and is wrapped so that read-only transactions go to the replicas in
+ * {@code app.datasource.replicas.urls}, which use the primary's credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    // Wrapping keeps everything else Boot derives from the primary (connection details, Flyway, metrics) as is
+    @Bean
+    public static BeanPostProcessor readReplicaRoutingPostProcessor(ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry,
+                                                                    @Value("${app.datasource.replicas.urls}") List<String> urls,
+                                                                    @Value("${app.datasource.replicas.selection:round-robin}") ReplicaSelection selection,
+                                                                    @Value("${app.datasource.replicas.retry-after:30s}") Duration retryAfter,
+                                                                    @Value("${app.datasource.replicas.connection-timeout:2s}") Duration connectionTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                    return bean;
+                }
+                JdbcConnectionDetails details = connectionDetails.getObject();
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                List<DataSource> replicas = new ArrayList<>();
+                for (String url : urls) {
+                    HikariDataSource replica = DataSourceBuilder.create()
+                            .type(HikariDataSource.class)
+                            .driverClassName(details.getDriverClassName())
+                            .url(url.trim())
+                            .username(details.getUsername())
+                            .password(details.getPassword())
+                            .build();
+                    // Replica pools are not beans, so Boot does not bind their hikaricp.* metrics itself
+                    replica.setPoolName("replica-" + (replicas.size() + 1));
+                    // Bounds how long a read waits on a hanging replica before falling back; the pool starts
+                    // without a connection so a replica that is down at startup does not stop the application
+                    replica.setConnectionTimeout(connectionTimeout.toMillis());
+                    replica.setInitializationFailTimeout(-1);
+                    if (registry != null) {
+                        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                    }
+                    replicas.add(replica);
+                }
+                return new ReadReplicaRoutingDataSource(primary,
+                        new ReadReplicaDataSource(primary, replicas, selection, retryAfter, Clock.systemUTC()));
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replicas.read-your-writes.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.replicas.read-your-writes.window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window, Clock.systemUTC()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
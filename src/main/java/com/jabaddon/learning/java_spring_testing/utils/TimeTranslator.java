@@ -1,50 +1,289 @@
 package com.jabaddon.learning.java_spring_testing.utils;
 
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Converts time strings into minutes. Accepted forms:
+ * <ul>
+ *   <li>a number and a unit: {@code 45m}, {@code 2h}, {@code 3d}, {@code 1w}</li>
+ *   <li>compound, largest unit first and each unit at most once: {@code 1w2d3h15m}</li>
+ *   <li>ISO-8601 durations in weeks, days, hours and minutes: {@code PT1H30M}, {@code P1DT12H}, {@code P2W}</li>
+ * </ul>
+ * {@link #toMinutes(String)} throws on invalid input. The {@code parseMinutes} variants work on
+ * {@link CharSequence}s, {@code char[]} and UTF-8 {@code byte[]} ranges without allocating, and return
+ * one of the negative failure codes below instead of throwing; {@link #failureMessage} turns a code
+ * into the message {@code toMinutes} would have thrown. {@code parseAll} does the same for a whole batch.
+ * {@link #format(long)} is the inverse.
+ */
 public class TimeTranslator {
 
     private static final int MINUTES_IN_HOUR = 60;
     private static final int HOURS_IN_DAY = 24;
     private static final int DAYS_IN_WEEK = 7;
 
+    /** Nothing but whitespace. */
+    public static final long EMPTY = -1;
+    /** Too short, or units repeated or out of order. */
+    public static final long INVALID_FORMAT = -2;
+    /** A number is missing, is not a decimal integer or does not fit a long. */
+    public static final long INVALID_NUMBER = -3;
+    public static final long NEGATIVE = -4;
+    public static final long INVALID_UNIT = -5;
+    /** The numbers are valid but the minutes do not fit a long. */
+    public static final long OVERFLOW = -6;
+
+    private static final int COMPACT = 0;
+    private static final int ISO_DATE = 1;
+    private static final int ISO_TIME = 2;
+
+    // Units rank from minutes (1) to weeks (4); each segment must rank below the previous one
+    private static final long[] FACTOR_BY_RANK = {
+            0, 1, MINUTES_IN_HOUR, HOURS_IN_DAY * MINUTES_IN_HOUR, DAYS_IN_WEEK * HOURS_IN_DAY * MINUTES_IN_HOUR
+    };
+    private static final char[] UNIT_BY_RANK = {0, 'm', 'h', 'd', 'w'};
+    // Rank of each ASCII unit letter per mode, 0 when the letter is not a unit there
+    private static final byte[][] RANKS = new byte[3][128];
+
+    static {
+        RANKS[COMPACT]['m'] = 1;
+        RANKS[COMPACT]['h'] = 2;
+        RANKS[COMPACT]['d'] = 3;
+        RANKS[COMPACT]['w'] = 4;
+        RANKS[ISO_DATE]['D'] = 3;
+        RANKS[ISO_DATE]['W'] = 4;
+        RANKS[ISO_TIME]['M'] = 1;
+        RANKS[ISO_TIME]['H'] = 2;
+    }
+
     public static long toMinutes(String timeString) {
-        if (timeString == null || timeString.trim().isEmpty()) {
-            throw new IllegalArgumentException("Time string cannot be null or empty");
+        long minutes = timeString == null ? EMPTY : parseMinutes(timeString);
+        if (isFailure(minutes)) {
+            throw new IllegalArgumentException(failureMessage(minutes, timeString));
+        }
+        return minutes;
+    }
+
+    public static boolean isFailure(long result) {
+        return result < 0;
+    }
+
+    public static long parseMinutes(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    public static long parseMinutes(CharSequence text, int from, int to) {
+        return parse(text, from, to);
+    }
+
+    public static long parseMinutes(char[] chars, int from, int to) {
+        return parse(chars, from, to);
+    }
+
+    public static long parseMinutes(byte[] utf8) {
+        return parse(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Parses UTF-8 bytes in place. Every valid time is ASCII, so multi-byte sequences only show up
+     * as invalid numbers or units.
+     */
+    public static long parseMinutes(byte[] utf8, int from, int to) {
+        return parse(utf8, from, to);
+    }
+
+    /**
+     * Parses a batch of times in order. Instead of throwing, an invalid time leaves its failure code in
+     * the returned array and its index set in {@code failures}, which is cleared first, so callers can
+     * skip straight to the failures with {@link BitSet#nextSetBit}. A {@code null} time is {@link #EMPTY}.
+     */
+    public static long[] parseAll(CharSequence[] times, BitSet failures) {
+        failures.clear();
+        long[] minutes = new long[times.length];
+        for (int i = 0; i < times.length; i++) {
+            minutes[i] = parseOne(times[i], i, failures);
+        }
+        return minutes;
+    }
+
+    public static long[] parseAll(List<? extends CharSequence> times, BitSet failures) {
+        failures.clear();
+        long[] minutes = new long[times.size()];
+        int i = 0;
+        for (CharSequence time : times) {
+            minutes[i] = parseOne(time, i, failures);
+            i++;
         }
+        return minutes;
+    }
+
+    /**
+     * Formats minutes in the compact form, largest unit first and skipping zero units:
+     * {@code 90} is {@code 1h30m}, {@code 0} is {@code 0m}. Parsing the result gives the minutes back.
+     */
+    public static String format(long minutes) {
+        if (minutes < 0) {
+            throw new IllegalArgumentException("Time value cannot be negative: " + minutes);
+        }
+        if (minutes == 0) {
+            return "0m";
+        }
+        StringBuilder formatted = new StringBuilder(16);
+        long remaining = minutes;
+        for (int rank = FACTOR_BY_RANK.length - 1; rank > 0; rank--) {
+            long count = remaining / FACTOR_BY_RANK[rank];
+            if (count > 0) {
+                formatted.append(count).append(UNIT_BY_RANK[rank]);
+                remaining -= count * FACTOR_BY_RANK[rank];
+            }
+        }
+        return formatted.toString();
+    }
 
-        timeString = timeString.trim();
+    /**
+     * The message {@link #toMinutes(String)} throws for the given failure code.
+     */
+    public static String failureMessage(long failure, CharSequence timeString) {
+        String trimmed = timeString == null ? "" : timeString.toString().trim();
+        if (failure == EMPTY) {
+            return "Time string cannot be null or empty";
+        }
+        if (failure == INVALID_FORMAT) {
+            return "Invalid time format: " + trimmed;
+        }
+        if (failure == INVALID_NUMBER) {
+            return "Invalid number format in time string: " + trimmed;
+        }
+        if (failure == NEGATIVE) {
+            return "Time value cannot be negative: " + trimmed;
+        }
+        if (failure == INVALID_UNIT) {
+            return "Invalid time unit '" + invalidUnit(trimmed) + "'. Valid units are: w, d, h, m";
+        }
+        if (failure == OVERFLOW) {
+            return "Time value is too large: " + trimmed;
+        }
+        throw new IllegalArgumentException("Not a failure code: " + failure);
+    }
 
-        if (timeString.length() < 2) {
-            throw new IllegalArgumentException("Invalid time format: " + timeString);
+    private static long parseOne(CharSequence time, int index, BitSet failures) {
+        long minutes = time == null ? EMPTY : parseShortFirst(time);
+        if (minutes < 0) {
+            failures.set(index);
         }
+        return minutes;
+    }
 
-        // Extract the unit (last character)
-        char unit = timeString.charAt(timeString.length() - 1);
-        String numberPart = timeString.substring(0, timeString.length() - 1);
+    // Nearly every time in a batch is one or two digits and a compact unit (5m, 45m, 2h); those are
+    // decided with one table lookup and no trimming, sign or segment handling. Anything else, including
+    // every invalid short time, falls through to the full parser so the failure codes stay the same
+    private static long parseShortFirst(CharSequence time) {
+        int length = time.length();
+        if (length == 2 || length == 3) {
+            int unit = time.charAt(length - 1);
+            int tens = length == 3 ? time.charAt(0) - '0' : 0;
+            int ones = time.charAt(length - 2) - '0';
+            int rank = unit < 128 ? RANKS[COMPACT][unit] : 0;
+            if ((tens | ones) >= 0 && tens <= 9 && ones <= 9 && rank != 0) {
+                return (tens * 10 + ones) * FACTOR_BY_RANK[rank];
+            }
+        }
+        return parse(time, 0, length);
+    }
 
-        // Parse the number
-        long number;
-        try {
-            number = Long.parseLong(numberPart);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid number format in time string: " + timeString);
+    // Single pass over [from, to): sign, optional ISO prefix, then number/unit segments
+    private static long parse(Object source, int from, int to) {
+        while (from < to && charAt(source, from) <= ' ') {
+            from++;
+        }
+        while (to > from && charAt(source, to - 1) <= ' ') {
+            to--;
+        }
+        if (to - from < 2) {
+            return to == from ? EMPTY : INVALID_FORMAT;
         }
+        int i = from;
+        int c = charAt(source, i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            c = charAt(source, ++i);
+        }
+        int mode = COMPACT;
+        if (c == 'P') {
+            mode = ISO_DATE;
+            if (++i == to) {
+                return INVALID_FORMAT;
+            }
+        }
+        long total = 0;
+        int lastRank = FACTOR_BY_RANK.length;
+        while (i < to) {
+            c = charAt(source, i);
+            if (c == 'T' && mode == ISO_DATE) {
+                mode = ISO_TIME;
+                if (++i == to) {
+                    return INVALID_FORMAT;
+                }
+                continue;
+            }
+            int start = i;
+            long number = 0;
+            int digit;
+            while (i < to && (digit = charAt(source, i) - '0') >= 0 && digit <= 9) {
+                if (number > (Long.MAX_VALUE - digit) / 10) {
+                    return INVALID_NUMBER;
+                }
+                number = number * 10 + digit;
+                if (negative && number != 0) {
+                    return NEGATIVE;
+                }
+                i++;
+            }
+            if (i == start) {
+                return INVALID_NUMBER;
+            }
+            if (i == to) {
+                return INVALID_UNIT;
+            }
+            int unit = charAt(source, i++);
+            int rank = unit < 128 ? RANKS[mode][unit] : 0;
+            if (rank == 0) {
+                // Like 1.5h: only a letter can be a wrong unit, anything else breaks the number
+                return Character.isLetter(unit) ? INVALID_UNIT : INVALID_NUMBER;
+            }
+            if (rank >= lastRank) {
+                return INVALID_FORMAT;
+            }
+            lastRank = rank;
+            long factor = FACTOR_BY_RANK[rank];
+            if (number > (Long.MAX_VALUE - total) / factor) {
+                return OVERFLOW;
+            }
+            total += number * factor;
+        }
+        return total;
+    }
 
-        if (number < 0) {
-            throw new IllegalArgumentException("Time value cannot be negative: " + timeString);
+    // Each public overload passes a single type, so the JIT sees a monomorphic check per call site
+    private static int charAt(Object source, int index) {
+        if (source instanceof byte[] bytes) {
+            return bytes[index] & 0xFF;
+        }
+        if (source instanceof char[] chars) {
+            return chars[index];
         }
+        return ((CharSequence) source).charAt(index);
+    }
 
-        // Convert to minutes based on unit
-        switch (unit) {
-            case 'm':
-                return number;
-            case 'h':
-                return number * MINUTES_IN_HOUR;
-            case 'd':
-                return number * HOURS_IN_DAY * MINUTES_IN_HOUR;
-            case 'w':
-                return number * DAYS_IN_WEEK * HOURS_IN_DAY * MINUTES_IN_HOUR;
-            default:
-                throw new IllegalArgumentException("Invalid time unit '" + unit + "'. Valid units are: w, d, h, m");
+    // The first letter that is not a unit in any form, otherwise the last character as before
+    private static char invalidUnit(String trimmed) {
+        boolean iso = trimmed.indexOf('P') >= 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (Character.isLetter(c) && (iso ? "PTWDHM" : "wdhm").indexOf(c) < 0) {
+                return c;
+            }
         }
+        return trimmed.charAt(trimmed.length() - 1);
     }
 }
@@ -0,0 +1,5 @@
+-- Optional: a BRIN index on date for very large, append-mostly tables where rows arrive roughly in date order.
+-- It is a tiny fraction of the size of the (date, id) B-tree and is enough for wide date range scans.
+-- Enabled by adding classpath:db/brin to spring.flyway.locations.
+-- Since V7 activities is partitioned: the index is created on the parent and applies to every partition.
+CREATE INDEX IF NOT EXISTS idx_activities_date_brin ON activities USING brin (date);
@@ -0,0 +1,28 @@
+-- Lookups by id alone cannot be pruned since V7, so each one probed the key index of every partition.
+-- activity_dates is an unpartitioned id -> date map kept by a trigger; queries by id read the date from
+-- it first, and the executor then only opens the partition that date belongs to.
+-- Ids are never reused, so rows left behind by a TRUNCATE only ever point at activities that are gone.
+CREATE TABLE activity_dates (
+    id BIGINT PRIMARY KEY,
+    date DATE NOT NULL
+);
+
+INSERT INTO activity_dates (id, date) SELECT id, date FROM activities;
+
+-- Rows moved to another partition, by a date change or create_activities_partition, may arrive
+-- as a DELETE followed by an INSERT rather than as an UPDATE, which the upsert handles either way
+CREATE FUNCTION record_activity_date() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM activity_dates WHERE id = OLD.id;
+    ELSE
+        INSERT INTO activity_dates (id, date) VALUES (NEW.id, NEW.date)
+        ON CONFLICT (id) DO UPDATE SET date = EXCLUDED.date;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER activities_record_date
+    AFTER INSERT OR UPDATE OF date OR DELETE ON activities
+    FOR EACH ROW EXECUTE FUNCTION record_activity_date();
@@ -0,0 +1,2 @@
+-- Supports keyset pagination ordered by (date, id)
+CREATE INDEX idx_activities_date_id ON activities (date, id);
@@ -0,0 +1,9 @@
+-- Sequence-based ids so Hibernate can batch inserts (IDENTITY disables JDBC batching).
+-- The increment must match the allocationSize of the pooled optimizer in ActivityJpaEntity.
+CREATE SEQUENCE activities_seq INCREMENT BY 50;
+SELECT setval('activities_seq', COALESCE((SELECT MAX(id) FROM activities), 0) + 50);
+
+-- Inserts that do not go through Hibernate take a whole block from the same sequence
+ALTER TABLE activities ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE activities ALTER COLUMN id SET DEFAULT nextval('activities_seq');
+ALTER SEQUENCE activities_seq OWNED BY activities.id;
@@ -0,0 +1,2 @@
+-- Optimistic locking version, also used as the strong ETag of an activity
+ALTER TABLE activities ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Supports case-insensitive substring search on name (lower(name) LIKE '%x%') and similarity ranking
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_activities_name_trgm ON activities USING gin (lower(name) gin_trgm_ops);
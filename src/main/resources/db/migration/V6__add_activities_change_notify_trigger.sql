@@ -0,0 +1,19 @@
+-- Publishes activity changes on the activity_changes channel so every node can evict its near cache.
+-- Inserts carry no id: they only invalidate searches, and Postgres folds identical payloads
+-- within a transaction into one notification, so a batch insert sends a single message.
+CREATE FUNCTION notify_activity_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM pg_notify('activity_changes', 'INSERT');
+    ELSIF TG_OP = 'UPDATE' THEN
+        PERFORM pg_notify('activity_changes', 'UPDATE:' || NEW.id);
+    ELSE
+        PERFORM pg_notify('activity_changes', 'DELETE:' || OLD.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER activities_notify_change
+    AFTER INSERT OR UPDATE OR DELETE ON activities
+    FOR EACH ROW EXECUTE FUNCTION notify_activity_change();
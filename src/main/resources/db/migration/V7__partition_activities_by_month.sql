@@ -0,0 +1,82 @@
+-- Converts activities into a table range-partitioned by month of date.
+-- The primary key has to include the partition key, so it becomes (id, date); ids stay unique
+-- because they all come from activities_seq. Rows outside every monthly partition land in
+-- activities_default, and create_activities_partition moves them once their month is created.
+
+-- Keep the sequence alive when the old table is dropped
+ALTER SEQUENCE activities_seq OWNED BY NONE;
+
+ALTER TABLE activities RENAME TO activities_unpartitioned;
+ALTER TABLE activities_unpartitioned RENAME CONSTRAINT activities_pkey TO activities_unpartitioned_pkey;
+DROP INDEX idx_activities_date_id;
+DROP INDEX idx_activities_name_trgm;
+DROP INDEX IF EXISTS idx_activities_date_brin;
+
+-- The partition key cannot be NULL; the domain never writes one, but V1 allowed it
+UPDATE activities_unpartitioned SET date = COALESCE(created_at::date, CURRENT_DATE) WHERE date IS NULL;
+
+CREATE TABLE activities (
+    id BIGINT NOT NULL DEFAULT nextval('activities_seq'),
+    name VARCHAR(255) NOT NULL,
+    minutes BIGINT,
+    date DATE NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+CREATE TABLE activities_default PARTITION OF activities DEFAULT;
+
+CREATE FUNCTION create_activities_partition(month_start DATE) RETURNS void AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::date;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'activities_' || to_char(range_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    -- A range cannot be attached while the default partition holds rows for it
+    CREATE TEMP TABLE activities_moving AS
+        SELECT * FROM activities_default WHERE date >= range_start AND date < range_end;
+    DELETE FROM activities_default WHERE date >= range_start AND date < range_end;
+    EXECUTE format('CREATE TABLE %I PARTITION OF activities FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    INSERT INTO activities SELECT * FROM activities_moving;
+    DROP TABLE activities_moving;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Monthly partitions for existing data (at most ten years back) and three months ahead;
+-- ActivityPartitionMaintenance keeps creating them from then on
+DO $$
+DECLARE
+    partition_month DATE;
+BEGIN
+    FOR partition_month IN
+        SELECT generate_series(
+                   date_trunc('month', GREATEST(
+                       COALESCE((SELECT MIN(date) FROM activities_unpartitioned), CURRENT_DATE),
+                       (CURRENT_DATE - INTERVAL '10 years')::date)),
+                   date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+                   INTERVAL '1 month')::date
+    LOOP
+        PERFORM create_activities_partition(partition_month);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO activities (id, name, minutes, date, created_at, updated_at, version)
+SELECT id, name, minutes, date, created_at, updated_at, version FROM activities_unpartitioned;
+
+DROP TABLE activities_unpartitioned;
+ALTER SEQUENCE activities_seq OWNED BY activities.id;
+
+-- Indexes and the change trigger are defined on the parent and apply to every partition
+CREATE INDEX idx_activities_date_id ON activities (date, id);
+CREATE INDEX idx_activities_name_trgm ON activities USING gin (lower(name) gin_trgm_ops);
+
+CREATE TRIGGER activities_notify_change
+    AFTER INSERT OR UPDATE OR DELETE ON activities
+    FOR EACH ROW EXECUTE FUNCTION notify_activity_change();
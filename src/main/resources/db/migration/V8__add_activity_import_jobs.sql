@@ -0,0 +1,19 @@
+-- Resumable CSV imports: a job records how far into its file it got after every committed chunk,
+-- in the same transaction as the chunk, so a resumed job carries on right after the last chunk stored
+CREATE TABLE activity_import_jobs (
+    id UUID PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    byte_offset BIGINT NOT NULL DEFAULT 0,
+    line BIGINT NOT NULL DEFAULT 1,
+    imported BIGINT NOT NULL DEFAULT 0,
+    rejected BIGINT NOT NULL DEFAULT 0,
+    error VARCHAR(1000),
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- Job id and line of the row an activity was imported from. Unique indexes on a partitioned table have
+-- to include the partition key; rows with the same key always have the same date, so it still holds a
+-- row to one activity. Activities created through the API leave it NULL, and NULLs never collide.
+ALTER TABLE activities ADD COLUMN import_key VARCHAR(64);
+CREATE UNIQUE INDEX idx_activities_import_key ON activities (import_key, date);
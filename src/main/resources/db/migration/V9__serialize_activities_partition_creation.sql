@@ -0,0 +1,24 @@
+-- Nodes that start together, or run the daily maintenance at the same time, could both find a month
+-- without a partition and both create it, and the second one failed with "relation already exists".
+-- The function now takes a transaction-level advisory lock first, so the check and the creation run
+-- one caller at a time and the later caller finds the partition there.
+CREATE OR REPLACE FUNCTION create_activities_partition(month_start DATE) RETURNS void AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::date;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'activities_' || to_char(range_start, 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_activities_partition'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    -- A range cannot be attached while the default partition holds rows for it
+    CREATE TEMP TABLE activities_moving AS
+        SELECT * FROM activities_default WHERE date >= range_start AND date < range_end;
+    DELETE FROM activities_default WHERE date >= range_start AND date < range_end;
+    EXECUTE format('CREATE TABLE %I PARTITION OF activities FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    INSERT INTO activities SELECT * FROM activities_moving;
+    DROP TABLE activities_moving;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,121 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("COPY formats bulk export against H2")
+class ActivityBulkExportH2Test {
+
+    private static final ActivityDateRange JANUARY = new ActivityDateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+
+    @Autowired
+    private ActivityBulkExportService activityBulkExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM activities");
+        jdbcTemplate.batchUpdate("INSERT INTO activities (id, name, minutes, date) VALUES (?, ?, ?, ?)", List.of(
+                new Object[]{1L, "Running", 30L, Date.valueOf("2024-01-01")},
+                new Object[]{2L, "Swim, \"open\" water", 45L, Date.valueOf("2024-01-31")},
+                new Object[]{3L, "Café", null, Date.valueOf("2024-01-15")},
+                new Object[]{4L, "", 10L, Date.valueOf("2024-01-20")},
+                new Object[]{5L, "Cycling", 60L, Date.valueOf("2024-02-01")},
+                new Object[]{6L, "Undated", 5L, null}));
+    }
+
+    @Test
+    @DisplayName("Should write the rows within the range as COPY CSV does")
+    void shouldWriteCsvLikeCopy() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        activityBulkExportService.exportActivities(JANUARY, ActivityExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).isEqualTo("id,name,minutes,date");
+        assertThat(lines.subList(1, lines.size())).containsExactlyInAnyOrder(
+                "1,Running,30,2024-01-01",
+                "2,\"Swim, \"\"open\"\" water\",45,2024-01-31",
+                "3,Café,,2024-01-15",
+                "4,\"\",10,2024-01-20");
+    }
+
+    @Test
+    @DisplayName("Should write every row without a range, undated ones with an empty date")
+    void shouldWriteUndatedRowsWithoutRange() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        activityBulkExportService.exportActivities(ActivityDateRange.UNBOUNDED, ActivityExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines())
+                .hasSize(7)
+                .contains("5,Cycling,60,2024-02-01", "6,Undated,5,");
+    }
+
+    @Test
+    @DisplayName("Should write every row in the COPY binary format")
+    void shouldWriteBinaryLikeCopy() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        activityBulkExportService.exportActivities(ActivityDateRange.UNBOUNDED, ActivityExportFormat.BINARY, out);
+
+        assertThat(readBinary(out.toByteArray())).containsExactlyInAnyOrder(
+                "1|Running|30|2024-01-01",
+                "2|Swim, \"open\" water|45|2024-01-31",
+                "3|Café|null|2024-01-15",
+                "4||10|2024-01-20",
+                "5|Cycling|60|2024-02-01",
+                "6|Undated|5|null");
+    }
+
+    private static List<String> readBinary(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte[] signature = new byte[11];
+        in.readFully(signature);
+        assertThat(signature).isEqualTo(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+        assertThat(in.readInt()).isZero();
+        assertThat(in.readInt()).isZero();
+        List<String> rows = new ArrayList<>();
+        short fields;
+        while ((fields = in.readShort()) != -1) {
+            assertThat(fields).isEqualTo((short) 4);
+            assertThat(in.readInt()).isEqualTo(8);
+            long id = in.readLong();
+            byte[] name = new byte[in.readInt()];
+            in.readFully(name);
+            Long minutes = in.readInt() == -1 ? null : in.readLong();
+            int dateLength = in.readInt();
+            LocalDate date = dateLength == -1 ? null : LocalDate.of(2000, 1, 1).plusDays(in.readInt());
+            assertThat(dateLength).isIn(-1, 4);
+            rows.add(id + "|" + new String(name, StandardCharsets.UTF_8) + "|" + minutes + "|" + date);
+        }
+        assertThat(in.read()).isEqualTo(-1);
+        return rows;
+    }
+}
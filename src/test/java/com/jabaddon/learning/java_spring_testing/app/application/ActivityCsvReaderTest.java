@@ -0,0 +1,123 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityCsvReaderTest {
+
+    @Test
+    @DisplayName("Should read plain and quoted fields")
+    void shouldReadPlainAndQuotedFields() throws IOException {
+        List<String> records = readAll("Running,30m,2024-01-01\n\"Swim, \"\"open\"\" water\",1h,2024-01-02\n");
+
+        assertThat(records).containsExactly(
+                "1|Running|30m|2024-01-01",
+                "2|Swim, \"open\" water|1h|2024-01-02");
+    }
+
+    @Test
+    @DisplayName("Should keep line breaks inside quotes and number records by the line they start on")
+    void shouldKeepLineBreaksInsideQuotes() throws IOException {
+        List<String> records = readAll("\"Long\nrun\",2h,2024-01-01\r\n\r\nWalk,15m,2024-01-02\rYoga,45m,2024-01-03");
+
+        assertThat(records).containsExactly(
+                "1|Long\nrun|2h|2024-01-01",
+                "4|Walk|15m|2024-01-02",
+                "5|Yoga|45m|2024-01-03");
+    }
+
+    @Test
+    @DisplayName("Should count every field but keep only the first three")
+    void shouldCountEveryField() throws IOException {
+        ActivityCsvReader reader = new ActivityCsvReader(new StringReader("a,b,c,d,e\nonly\n,,\n"));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.fieldCount()).isEqualTo(5);
+        assertThat(reader.field(2)).isEqualTo("c");
+        assertThat(reader.field(3)).isNull();
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.fieldCount()).isEqualTo(1);
+        assertThat(reader.field(1)).isNull();
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.fieldCount()).isEqualTo(3);
+        assertThat(reader.field(2)).isEmpty();
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should skip over records that are too long and go on with the next one")
+    void shouldSkipOverRecordsThatAreTooLong() throws IOException {
+        String name = "x".repeat(ActivityCsvReader.MAX_RECORD_LENGTH + 1);
+        ActivityCsvReader reader = new ActivityCsvReader(new StringReader("\"" + name + "\n\",1h,2024-01-01\nRun,1h,2024-01-01\n"));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.error()).contains("longer than");
+        assertThat(reader.field(0)).isNull();
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.error()).isNull();
+        assertThat(reader.line()).isEqualTo(3);
+        assertThat(reader.field(0)).isEqualTo("Run");
+    }
+
+    @Test
+    @DisplayName("Should report a quoted field that is never closed")
+    void shouldReportUnclosedQuotedField() throws IOException {
+        ActivityCsvReader reader = new ActivityCsvReader(new StringReader("Run,1h,\"2024-01-01\nWalk,2h,2024-01-02\n"));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.error()).isEqualTo("Quoted field is not closed");
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should count UTF-8 bytes to the end of each record so reading can start again from there")
+    void shouldCountBytesToTheEndOfEachRecord() throws IOException {
+        String csv = "Café,30m,2024-01-01\r\n\"Run\n🏃\",1h,2024-01-02\nWalk,15m,2024-01-03\n";
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        ActivityCsvReader reader = new ActivityCsvReader(new StringReader(csv));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.offset()).isEqualTo("Café,30m,2024-01-01\r\n".getBytes(StandardCharsets.UTF_8).length);
+        assertThat(reader.next()).isTrue();
+        long offset = reader.offset();
+        long nextLine = reader.nextLine();
+
+        ActivityCsvReader resumed = new ActivityCsvReader(new StringReader(
+                new String(bytes, (int) offset, bytes.length - (int) offset, StandardCharsets.UTF_8)), nextLine, offset);
+        assertThat(resumed.next()).isTrue();
+        assertThat(resumed.line()).isEqualTo(4);
+        assertThat(resumed.field(0)).isEqualTo("Walk");
+        assertThat(resumed.offset()).isEqualTo(bytes.length);
+    }
+
+    @Test
+    @DisplayName("Should skip a byte order mark at the start of the file but count its bytes")
+    void shouldSkipByteOrderMark() throws IOException {
+        ActivityCsvReader reader = new ActivityCsvReader(new StringReader("\uFEFFname,time,date\nWalk,15m,2024-01-03\n"));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.field(0)).isEqualTo("name");
+        assertThat(reader.offset()).isEqualTo(3 + "name,time,date\n".length());
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.line()).isEqualTo(2);
+        assertThat(reader.offset()).isEqualTo(3 + "name,time,date\nWalk,15m,2024-01-03\n".length());
+    }
+
+    private static List<String> readAll(String csv) throws IOException {
+        ActivityCsvReader reader = new ActivityCsvReader(new StringReader(csv));
+        List<String> records = new ArrayList<>();
+        while (reader.next()) {
+            assertThat(reader.error()).isNull();
+            records.add(reader.line() + "|" + reader.field(0) + "|" + reader.field(1) + "|" + reader.field(2));
+        }
+        return records;
+    }
+}
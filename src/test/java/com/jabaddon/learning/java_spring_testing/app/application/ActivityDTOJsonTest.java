@@ -77,6 +77,7 @@ class ActivityDTOJsonTest {
                 {
                     "name": null,
                     "minutes": 30,
+                    "time": "30m",
                     "date": "2024-03-17"
                 }
                 """);
@@ -96,11 +97,33 @@ class ActivityDTOJsonTest {
                     "id": 3,
                     "name": "Rest Day",
                     "minutes": 0,
+                    "time": "0m",
                     "date": "2024-03-18"
                 }
                 """);
     }
 
+    @Test
+    void shouldWriteNullTimeForNegativeMinutes() throws Exception {
+        ActivityDTO dto = new ActivityDTO(
+                6L,
+                "Corrupted",
+                -15L,
+                LocalDate.of(2024, 3, 19)
+        );
+
+        assertThat(dto.time()).isNull();
+        assertThat(json.write(dto)).isStrictlyEqualToJson("""
+                {
+                    "id": 6,
+                    "name": "Corrupted",
+                    "minutes": -15,
+                    "time": null,
+                    "date": "2024-03-19"
+                }
+                """);
+    }
+
     @Test
     void shouldSerializeActivityDTOWithJSONAssert() throws Exception {
         ActivityDTO dto = new ActivityDTO(
@@ -116,6 +139,7 @@ class ActivityDTOJsonTest {
                     "id": 4, 
                     "minutes": 30,
                      "name": "Running",
+                    "time": "30m",
                     "date": "2024-03-20"
                 }
                 """;
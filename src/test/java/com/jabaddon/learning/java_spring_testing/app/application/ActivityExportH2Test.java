@@ -0,0 +1,73 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+    "app.activities.export.fetch-size=200"
+})
+@DisplayName("Activity export against a large H2 dataset")
+class ActivityExportH2Test {
+
+    private static final int ROWS = 50_000;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM activities");
+        Date date = Date.valueOf(LocalDate.of(2024, 1, 1));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO activities (id, name, minutes, date) VALUES (?, ?, ?, ?)",
+                java.util.stream.IntStream.range(0, ROWS)
+                        .mapToObj(i -> new Object[]{(long) i + 1, "Activity " + i, (long) i, date})
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Should export every row while keeping the persistence context empty")
+    void shouldExportEveryRowWhileKeepingPersistenceContextEmpty() {
+        AtomicInteger exported = new AtomicInteger();
+        AtomicInteger maxManagedEntities = new AtomicInteger();
+        AtomicLong lastId = new AtomicLong(Long.MIN_VALUE);
+
+        activityService.exportActivities(activity -> {
+            exported.incrementAndGet();
+            assertThat(activity.id()).isGreaterThan(lastId.getAndSet(activity.id()));
+            int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            maxManagedEntities.accumulateAndGet(managed, Math::max);
+        });
+
+        assertThat(exported).hasValue(ROWS);
+        assertThat(maxManagedEntities).hasValue(0);
+    }
+}
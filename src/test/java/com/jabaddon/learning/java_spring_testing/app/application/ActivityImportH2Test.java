@@ -0,0 +1,222 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Bulk CSV import against H2")
+class ActivityImportH2Test {
+
+    private static final int ROWS = 12_000;
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM activities");
+    }
+
+    @Test
+    @DisplayName("Should import every valid row across chunks and report the others")
+    void shouldImportValidRowsAndReportTheOthers() throws IOException {
+        StringWriter rejections = new StringWriter();
+
+        ActivityImportResultDTO result = activityImportService.importCsv(new GeneratedCsv(ROWS), rejections);
+
+        // Every 1000th row has an invalid time
+        assertThat(result).isEqualTo(new ActivityImportResultDTO(ROWS - ROWS / 1000, ROWS / 1000));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from activities", Long.class)).isEqualTo(ROWS - ROWS / 1000);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct id) from activities", Long.class)).isEqualTo(ROWS - ROWS / 1000);
+        assertThat(jdbcTemplate.queryForObject("select sum(minutes) from activities where name = 'Activity 1'", Long.class))
+                .isEqualTo(90L);
+        List<String> report = rejections.toString().lines().toList();
+        assertThat(report).hasSize(1 + ROWS / 1000);
+        assertThat(report.get(0)).isEqualTo(ActivityImportService.REPORT_HEADER);
+        assertThat(report.get(1)).isEqualTo("1000,Activity 999,30x,2024-04-09,\"Invalid time unit 'x'. Valid units are: w, d, h, m\"");
+    }
+
+    @Test
+    @DisplayName("Should skip the header and reject rows breaking the activity rules")
+    void shouldSkipHeaderAndRejectInvalidRows() throws IOException {
+        String csv = """
+                name,time,date
+                Running,45m,2024-03-15
+                "Swim, open water",1h30m,2024-03-16
+                ,30m,2024-03-17
+                Walking,-5m,2024-03-18
+                Cycling,1h,2024-02-30
+                Future,1h,%s
+                Rowing,1h
+                Yoga,1h,
+                %s,1h,2024-03-19
+                """.formatted(LocalDate.now().plusDays(1), "x".repeat(256));
+        StringWriter rejections = new StringWriter();
+
+        ActivityImportResultDTO result = activityImportService.importCsv(new StringReader(csv), rejections);
+
+        assertThat(result).isEqualTo(new ActivityImportResultDTO(2, 7));
+        assertThat(activityService.getAllActivities())
+                .extracting(ActivityDTO::name, ActivityDTO::minutes)
+                .containsExactlyInAnyOrder(
+                        tuple("Running", 45L),
+                        tuple("Swim, open water", 90L));
+        assertThat(rejections.toString().lines().skip(1).toList()).containsExactly(
+                "4,,30m,2024-03-17,Activity name cannot be null or empty",
+                "5,Walking,-5m,2024-03-18,Time value cannot be negative: -5m",
+                "6,Cycling,1h,2024-02-30,\"Invalid date '2024-02-30', expected yyyy-MM-dd\"",
+                "7,Future,1h," + LocalDate.now().plusDays(1) + ",Date cannot be in the future",
+                "8,Rowing,1h,,\"Expected 3 columns (name,time,date) but found 2\"",
+                "9,Yoga,1h,,Date cannot be null",
+                "10," + "x".repeat(256) + ",1h,2024-03-19,Activity name cannot be longer than 255 characters");
+    }
+
+    @Test
+    @DisplayName("Should recognise the header after a byte order mark")
+    void shouldRecogniseHeaderAfterByteOrderMark() throws IOException {
+        StringWriter rejections = new StringWriter();
+
+        ActivityImportResultDTO result = activityImportService.importCsv(
+                new StringReader("\uFEFFname,time,date\nRunning,45m,2024-03-15\n"), rejections);
+
+        assertThat(result).isEqualTo(new ActivityImportResultDTO(1, 0));
+        assertThat(activityService.getAllActivities()).extracting(ActivityDTO::name).containsExactly("Running");
+    }
+
+    @Test
+    @DisplayName("Should import a JSON array chunk by chunk and list the rejected elements")
+    void shouldImportJsonArrayChunkByChunk() throws IOException {
+        String json = IntStream.range(0, ROWS)
+                .mapToObj(i -> i % 1000 == 999
+                        ? "{\"name\":\"Activity " + i + "\",\"time\":\"30x\",\"date\":\"2024-01-01\"}"
+                        : "{\"name\":\"Activity " + i + "\",\"time\":\"1h30m\",\"date\":\"2024-01-01\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        ActivityJsonImportResultDTO result;
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            result = activityImportService.importJson(parser);
+        }
+
+        assertThat(result.imported()).isEqualTo(ROWS - ROWS / 1000);
+        assertThat(result.rejected()).isEqualTo(ROWS / 1000);
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(result.errors()).hasSize(ROWS / 1000).first()
+                .isEqualTo(ActivityBatchResultDTO.failed(999, "Invalid time unit 'x'. Valid units are: w, d, h, m"));
+        assertThat(jdbcTemplate.queryForObject("select count(distinct id) from activities", Long.class)).isEqualTo(ROWS - ROWS / 1000);
+    }
+
+    @Test
+    @DisplayName("Should reject JSON elements that are not activities and import the rest")
+    void shouldRejectJsonElementsThatAreNotActivities() throws IOException {
+        String json = """
+                [
+                  {"name": "Running", "time": "45m", "date": "2024-03-15"},
+                  null,
+                  "Walking",
+                  {"name": "Cycling", "time": "1h", "date": "2024-02-30"},
+                  {"name": "", "time": "30m", "date": "2024-03-17"},
+                  {"name": "Swim", "time": "1h30m", "date": "2024-03-16", "extra": [1, {"a": 2}]}
+                ]
+                """;
+
+        ActivityJsonImportResultDTO result;
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            result = activityImportService.importJson(parser);
+        }
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ActivityBatchResultDTO::index).containsExactly(1, 2, 3, 4);
+        assertThat(result.errors().get(0).error()).isEqualTo("Activity cannot be null");
+        assertThat(result.errors().get(3).error()).isEqualTo("Activity name cannot be null or empty");
+        assertThat(activityService.getAllActivities())
+                .extracting(ActivityDTO::name, ActivityDTO::minutes)
+                .containsExactlyInAnyOrder(
+                        tuple("Running", 45L),
+                        tuple("Swim", 90L));
+    }
+
+    @Test
+    @DisplayName("Should stop at malformed JSON and keep the chunks written before it")
+    void shouldStopAtMalformedJson() throws IOException {
+        String json = IntStream.range(0, ActivityImportService.IMPORT_CHUNK_SIZE + 10)
+                .mapToObj(i -> "{\"name\":\"Activity " + i + "\",\"time\":\"1h\",\"date\":\"2024-01-01\"}")
+                .collect(Collectors.joining(",", "[", ",{\"name\":"));
+
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            assertThatThrownBy(() -> activityImportService.importJson(parser))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("at element " + (ActivityImportService.IMPORT_CHUNK_SIZE + 10))
+                    .hasMessageContaining(ActivityImportService.IMPORT_CHUNK_SIZE + " activities were imported");
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(*) from activities", Long.class))
+                .isEqualTo(ActivityImportService.IMPORT_CHUNK_SIZE);
+    }
+
+    // Generates rows on demand, so the test itself does not hold the file in memory either
+    private static final class GeneratedCsv extends Reader {
+        private final int rows;
+        private int row;
+        private String current = "";
+        private int position;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == current.length()) {
+                if (row == rows) {
+                    return -1;
+                }
+                String time = row % 1000 == 999 ? "30x" : (row % 2 == 0 ? "45m" : "1h30m");
+                current = "Activity " + row + "," + time + "," + LocalDate.of(2024, 1, 1).plusDays(row % 300) + "\n";
+                position = 0;
+                row++;
+            }
+            int count = Math.min(length, current.length() - position);
+            current.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Resumable import jobs against H2")
+class ActivityImportJobH2Test {
+
+    private static final int ROWS = 12_000;
+
+    @Autowired
+    private ActivityImportJobService activityImportJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jdbcTemplate.update("DELETE FROM activities");
+        // Jobs left queued would be swept up by the runner of the shared context
+        jdbcTemplate.update("DELETE FROM activity_import_jobs");
+        file = directory.resolve("activities.csv");
+        try (Writer csv = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            csv.write("name,time,date\n");
+            for (int i = 0; i < ROWS; i++) {
+                // Multi-byte names, so byte offsets and character counts differ
+                String time = i % 1000 == 999 ? "30x" : "45m";
+                csv.write("Actividad ñ " + i + "," + time + "," + date(i) + "\n");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should import the whole file and checkpoint at its end")
+    void shouldImportWholeFile() {
+        UUID id = UUID.randomUUID();
+        activityImportJobService.createJob(id);
+
+        ActivityImportJobDTO job = activityImportJobService.runJob(id, file);
+
+        assertThat(job.status()).isEqualTo(ActivityImportJobStatus.COMPLETED);
+        assertThat(job.imported()).isEqualTo(ROWS - ROWS / 1000);
+        assertThat(job.rejected()).isEqualTo(ROWS / 1000);
+        assertThat(job.byteOffset()).isEqualTo(file.toFile().length());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from activities where import_key like ?", Long.class, id + ":%"))
+                .isEqualTo(ROWS - ROWS / 1000);
+    }
+
+    @Test
+    @DisplayName("Should resume a failed job right after its last committed chunk and import every row once")
+    void shouldResumeFailedJobFromCheckpoint() {
+        UUID id = UUID.randomUUID();
+        activityImportJobService.createJob(id);
+        // Row 5002, on line 5004 after the header, is in the second chunk; an activity already holding its
+        // import key makes that chunk fail as a whole
+        insertActivityWithImportKey(id + ":5004", date(5002));
+
+        ActivityImportJobDTO failed = activityImportJobService.runJob(id, file);
+
+        assertThat(failed.status()).isEqualTo(ActivityImportJobStatus.FAILED);
+        assertThat(failed.error()).isNotBlank();
+        assertThat(failed.line()).isEqualTo(1 + ActivityImportService.IMPORT_CHUNK_SIZE + 1);
+        assertThat(failed.imported() + failed.rejected()).isEqualTo(ActivityImportService.IMPORT_CHUNK_SIZE);
+        assertThat(countImported(id)).isEqualTo(failed.imported() + 1);
+
+        jdbcTemplate.update("DELETE FROM activities WHERE name = 'Blocker'");
+        ActivityImportJobDTO resumed = activityImportJobService.resumeJob(id);
+        assertThat(resumed.status()).isEqualTo(ActivityImportJobStatus.QUEUED);
+        assertThat(resumed.error()).isNull();
+        ActivityImportJobDTO completed = activityImportJobService.runJob(id, file);
+
+        assertThat(completed.status()).isEqualTo(ActivityImportJobStatus.COMPLETED);
+        assertThat(completed.imported()).isEqualTo(ROWS - ROWS / 1000);
+        assertThat(completed.rejected()).isEqualTo(ROWS / 1000);
+        assertThat(countImported(id)).isEqualTo(ROWS - ROWS / 1000);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct import_key) from activities", Long.class))
+                .isEqualTo(ROWS - ROWS / 1000);
+    }
+
+    @Test
+    @DisplayName("Should not resume a job that is queued or completed")
+    void shouldNotResumeQueuedOrCompletedJob() {
+        UUID id = UUID.randomUUID();
+        activityImportJobService.createJob(id);
+
+        assertThatThrownBy(() -> activityImportJobService.resumeJob(id))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("already queued");
+
+        activityImportJobService.runJob(id, file);
+
+        assertThatThrownBy(() -> activityImportJobService.resumeJob(id))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("already completed");
+    }
+
+    @Test
+    @DisplayName("Should queue a job interrupted by a shutdown again instead of failing it")
+    void shouldQueueInterruptedJobAgain() {
+        UUID id = UUID.randomUUID();
+        activityImportJobService.createJob(id);
+
+        Thread.currentThread().interrupt();
+        ActivityImportJobDTO interrupted = activityImportJobService.runJob(id, file);
+
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(interrupted.status()).isEqualTo(ActivityImportJobStatus.QUEUED);
+        assertThat(interrupted.error()).isNull();
+        assertThat(activityImportJobService.requeueAbandonedJobs(10)).contains(id);
+    }
+
+    @Test
+    @DisplayName("Should requeue a job abandoned by its node once, and run it only once")
+    void shouldRequeueAbandonedJobOnce() {
+        UUID id = UUID.randomUUID();
+        activityImportJobService.createJob(id);
+        jdbcTemplate.update("UPDATE activity_import_jobs SET status = 'RUNNING', updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusHours(1), id);
+
+        assertThat(activityImportJobService.requeueAbandonedJobs(10)).contains(id);
+        assertThat(activityImportJobService.requeueAbandonedJobs(10)).doesNotContain(id);
+
+        assertThat(activityImportJobService.runJob(id, file).status()).isEqualTo(ActivityImportJobStatus.COMPLETED);
+        ActivityImportJobDTO again = activityImportJobService.runJob(id, file);
+        assertThat(again.status()).isEqualTo(ActivityImportJobStatus.COMPLETED);
+        assertThat(countImported(id)).isEqualTo(ROWS - ROWS / 1000);
+    }
+
+    private void insertActivityWithImportKey(String importKey, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO activities (id, name, minutes, date, version, import_key) VALUES (?, ?, ?, ?, 0, ?)",
+                -1L, "Blocker", 1L, Date.valueOf(date), importKey);
+    }
+
+    private long countImported(UUID id) {
+        return jdbcTemplate.queryForObject("select count(*) from activities where import_key like ?", Long.class, id + ":%");
+    }
+
+    private static LocalDate date(int row) {
+        return LocalDate.of(2024, 1, 1).plusDays(row % 300);
+    }
+}
@@ -0,0 +1,146 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hand-written activity serializers against Jackson's bean handling of the same records,
+ * configured by mix-ins the way the records were annotated before.
+ */
+@JsonTest
+class ActivityJsonCompatibilityTest {
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    @JsonPropertyOrder({"id", "name", "minutes", "time", "date"})
+    interface ReflectiveActivityDTO {
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long id();
+
+        @JsonProperty(value = "time", access = JsonProperty.Access.READ_ONLY)
+        String time();
+    }
+
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    interface ReflectiveNewActivityDTO {
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ObjectMapper reflective;
+
+    @BeforeEach
+    void setUp() {
+        reflective = objectMapper.copy()
+                .addMixIn(ActivityDTO.class, ReflectiveActivityDTO.class)
+                .addMixIn(NewActivityDTO.class, ReflectiveNewActivityDTO.class);
+    }
+
+    @Test
+    void shouldWriteTheSameJsonAsBeanSerialization() throws Exception {
+        List<ActivityDTO> activities = List.of(
+                new ActivityDTO(1L, "Swimming", 45, LocalDate.of(2024, 3, 15)),
+                new ActivityDTO(2L, "Swimming again", 45, LocalDate.of(2024, 3, 15)),
+                new ActivityDTO(null, null, 0, null),
+                new ActivityDTO(3L, "\"Quoted\"\n\tcontrol \u0001 and café 🏃", 13155, LocalDate.of(2024, 2, 29)),
+                new ActivityDTO(Long.MAX_VALUE, "", Long.MAX_VALUE, LocalDate.of(1, 1, 1)),
+                new ActivityDTO(4L, "Far", 2047, LocalDate.of(9999, 12, 31)),
+                new ActivityDTO(5L, "Further", 2048, LocalDate.of(10000, 1, 1)),
+                new ActivityDTO(6L, "Before the epoch", 61, LocalDate.of(1969, 12, 31)),
+                // Same slot in the date table as 2024-03-15, so the cached text has to be replaced
+                new ActivityDTO(7L, "Collision", 30, LocalDate.of(2024, 3, 15).plusDays(4096)));
+
+        assertThat(objectMapper.writeValueAsString(activities)).isEqualTo(reflective.writeValueAsString(activities));
+        assertThat(new String(objectMapper.writeValueAsBytes(activities), StandardCharsets.UTF_8))
+                .isEqualTo(new String(reflective.writeValueAsBytes(activities), StandardCharsets.UTF_8));
+        for (ActivityDTO activity : activities) {
+            assertThat(objectMapper.writeValueAsString(activity)).isEqualTo(reflective.writeValueAsString(activity));
+        }
+    }
+
+    @Test
+    void shouldWriteNestedActivitiesTheSameWay() throws Exception {
+        ActivityBatchResultDTO created = ActivityBatchResultDTO.created(0, new ActivityDTO(1L, "Run", 30, LocalDate.of(2024, 1, 1)));
+
+        assertThat(objectMapper.writeValueAsString(created)).isEqualTo(reflective.writeValueAsString(created));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"id\":1,\"name\":\"Swimming\",\"minutes\":45,\"date\":\"2024-03-15\"}",
+            "{\"id\":1,\"name\":\"Swimming\",\"minutes\":45,\"time\":\"45m\",\"date\":\"2024-03-15\"}",
+            "{\"date\":\"2024-02-29\",\"minutes\":90,\"name\":\"Reordered\"}",
+            "{\"id\":null,\"name\":null,\"minutes\":null,\"date\":null}",
+            "{}",
+            "{\"id\":\"7\",\"minutes\":\"60\",\"name\":12,\"date\":\"2024-12-31\"}",
+            "{\"id\":1,\"unknown\":{\"nested\":[1,2,{\"deep\":true}]},\"minutes\":5}",
+            "{\"date\":\"2023-02-29\"}",
+            "{\"date\":\"2024-13-01\"}",
+            "{\"date\":\"2024-1-01\"}",
+            "{\"date\":\"+10000-01-01\"}",
+            "{\"date\":\"\"}",
+            "{\"date\":[2024,3,15]}",
+            "{\"minutes\":1.5}",
+            "{\"minutes\":\"abc\"}",
+            "{\"name\":{\"first\":\"a\"}}",
+            "[]",
+            "\"text\"",
+            "null"
+    })
+    void shouldReadActivityDTOTheSameWayAsBeanDeserialization(String json) {
+        assertThat(outcome(objectMapper, json, ActivityDTO.class)).isEqualTo(outcome(reflective, json, ActivityDTO.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"name\":\"Morning Run\",\"time\":\"45m\",\"date\":\"2024-01-15\"}",
+            "{\"name\":\"Morning Run\",\"time\":\" 1 hour \",\"date\":\"2024-01-15\"}",
+            "{\"time\":90,\"extra\":\"ignored\"}",
+            "{\"time\":null,\"name\":null,\"date\":null}",
+            "{\"time\":true}",
+            "{\"time\":{\"value\":\"45m\"}}",
+            "{\"date\":\"2024-02-30\"}",
+            "{}",
+            "[{}]",
+            "null"
+    })
+    void shouldReadNewActivityDTOTheSameWayAsBeanDeserialization(String json) {
+        assertThat(outcome(objectMapper, json, NewActivityDTO.class)).isEqualTo(outcome(reflective, json, NewActivityDTO.class));
+    }
+
+    @Test
+    void shouldReadBatchesTheSameWay() throws Exception {
+        String json = "[{\"name\":\"Run\",\"time\":\"30m\",\"date\":\"2024-01-01\"},null,{\"time\":\"1h\"}]";
+
+        assertThat(objectMapper.readValue(json, NewActivityDTO[].class))
+                .containsExactly(reflective.readValue(json, NewActivityDTO[].class));
+    }
+
+    // The value read, or the type of exception when reading fails
+    private static Object outcome(ObjectMapper mapper, String json, Class<?> type) {
+        try {
+            return mapper.readValue(json, type);
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import com.jabaddon.learning.java_spring_testing.app.infra.search.LuceneActivityIndexRebuild;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+    "app.activities.search.strategy=lucene"
+})
+@DisplayName("ActivityService name search with the Lucene strategy")
+class ActivityLuceneSearchH2Test {
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private LuceneActivityIndexRebuild indexRebuild;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    @Test
+    @DisplayName("Should rebuild the index on startup, undated activities included")
+    void shouldRebuildIndexIncludingUndatedActivities() {
+        assertThat(indexRebuild.isRunning()).isTrue();
+        jdbcTemplate.update("insert into activities (id, name, minutes, date) values (9001, 'Undated Hike', 90, null)");
+
+        indexRebuild.start();
+
+        assertThat(activityService.searchActivitiesByName("hike"))
+                .singleElement()
+                .satisfies(activity -> assertThat(activity.date()).isNull());
+        jdbcTemplate.update("delete from activities where id = 9001");
+    }
+
+    @Test
+    @DisplayName("Should find created and updated activities and forget deleted ones")
+    void shouldKeepSearchInStepWithWrites() {
+        ActivityDTO created = activityService.createActivity(new NewActivityDTO("Evening Swim", "45m", LocalDate.of(2024, 1, 2)));
+
+        assertThat(activityService.searchActivitiesByName("evenign")).containsExactly(created);
+
+        ActivityDTO updated = activityService.updateActivity(created.id(), new NewActivityDTO("Evening Yoga", "30m", LocalDate.of(2024, 1, 2)));
+
+        assertThat(activityService.searchActivitiesByName("swim")).isEmpty();
+        assertThat(activityService.searchActivitiesByName("yoga")).containsExactly(updated);
+
+        activityService.deleteActivity(created.id());
+
+        assertThat(activityService.searchActivitiesByName("yoga")).isEmpty();
+    }
+}
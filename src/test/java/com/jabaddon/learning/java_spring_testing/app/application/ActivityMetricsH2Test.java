@@ -0,0 +1,48 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("h2")
+@DisplayName("Activity metrics in the Prometheus scrape")
+class ActivityMetricsH2Test {
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    @Test
+    @DisplayName("Should publish service latency histograms, repository calls, result sizes and pool metrics")
+    void shouldPublishActivityMetrics() {
+        ActivityDTO created = activityService.createActivity(new NewActivityDTO("Morning Run", "30m", LocalDate.of(2024, 1, 2)));
+        activityService.searchActivitiesByName("run");
+        activityService.getActivityById(created.id());
+
+        String scrape = prometheusMeterRegistry.scrape();
+
+        assertThat(scrape)
+                .containsPattern("activity_service_seconds_bucket\\{.*method=\"createActivity\".*le=\"")
+                .containsPattern("activity_service_seconds_count\\{.*method=\"searchActivitiesByName\".*} 1")
+                .containsPattern("activity_repository_seconds_count\\{.*method=\"save\".*} 1")
+                .containsPattern("activity_results_activities_count\\{.*query=\"search\".*} 1")
+                .contains("hikaricp_connections_active");
+    }
+}
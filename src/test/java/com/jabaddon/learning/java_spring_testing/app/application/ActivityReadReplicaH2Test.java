@@ -0,0 +1,72 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReadYourWrites;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The replica is a separate H2 database with its own rows, so every read shows where it was routed
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+    "app.datasource.replicas.enabled=true",
+    "app.datasource.replicas.urls=" + ActivityReadReplicaH2Test.REPLICA_URL
+})
+@DisplayName("ActivityService with a read replica")
+class ActivityReadReplicaH2Test {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ActivityService activityService;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"));
+
+    @BeforeEach
+    void setUp() {
+        replica.execute("create table if not exists activities (id bigint primary key, name varchar(255), minutes bigint, "
+                + "date date, created_at timestamp, updated_at timestamp, version bigint)");
+        replica.update("delete from activities");
+        replica.update("insert into activities values (1, 'Replica Run', 30, date '2024-01-01', null, null, 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    @DisplayName("Should read from the replica and write to the primary")
+    void shouldReadFromReplica() {
+        activityService.createActivity(new NewActivityDTO("Primary Swim", "45m", LocalDate.of(2024, 1, 2)));
+
+        assertThat(activityService.getAllActivities()).extracting(ActivityDTO::name).containsExactly("Replica Run");
+    }
+
+    @Test
+    @DisplayName("Should read its own writes from the primary when pinned")
+    void shouldReadOwnWritesFromPrimary() {
+        ActivityDTO created = activityService.createActivity(new NewActivityDTO("Primary Walk", "20m", LocalDate.of(2024, 1, 3)));
+
+        ReadYourWrites.pinToPrimary();
+
+        assertThat(activityService.getAllActivities()).contains(created)
+                .extracting(ActivityDTO::name).doesNotContain("Replica Run");
+    }
+}
@@ -0,0 +1,114 @@
+package com.jabaddon.learning.java_spring_testing.app.application;
+
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories.ActivityRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("ActivityService SQL statements per operation")
+class ActivityServiceStatementCountTest {
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityDomainRepository activityDomainRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    private Statistics statistics;
+    private ActivityDTO existingActivity;
+
+    @BeforeEach
+    void setUp() {
+        activityRepository.deleteAllInBatch();
+        // Also warms up the pooled id sequence, so creates below do not need a nextval call
+        existingActivity = activityService.createActivity(new NewActivityDTO("Running", "30m", LocalDate.of(2024, 1, 1)));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Create should only insert")
+    void createShouldOnlyInsert() {
+        activityService.createActivity(new NewActivityDTO("Swimming", "45m", LocalDate.of(2024, 1, 2)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Save should return the stored id and timestamps without reading them back")
+    void saveShouldReturnStoredStateWithoutReadingBack() {
+        Activity saved = activityDomainRepository.save(new Activity("Cycling", 60, LocalDate.of(2024, 1, 3)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getCreatedAt()).isNotNull().isEqualTo(saved.getUpdatedAt());
+        assertThat(activityRepository.findById(saved.getId())).hasValueSatisfying(stored -> {
+            assertThat(stored.getCreatedAt()).isEqualTo(saved.getCreatedAt());
+            assertThat(stored.getUpdatedAt()).isEqualTo(saved.getUpdatedAt());
+        });
+    }
+
+    @Test
+    @DisplayName("Update should select once and update once")
+    void updateShouldSelectOnceAndUpdateOnce() {
+        activityService.updateActivity(existingActivity.id(), new NewActivityDTO("Running", "1h", LocalDate.of(2024, 1, 1)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Delete should select once and delete once")
+    void deleteShouldSelectOnceAndDeleteOnce() {
+        activityService.deleteActivity(existingActivity.id());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Queries should run a single statement in a single transaction")
+    void queriesShouldRunSingleStatementInSingleTransaction() {
+        activityService.getActivityById(existingActivity.id());
+        activityService.getAllActivities();
+        activityService.searchActivitiesByName("run");
+        activityService.getActivityPage(null, null);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getTransactionCount()).isEqualTo(4);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
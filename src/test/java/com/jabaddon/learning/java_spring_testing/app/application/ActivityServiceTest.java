@@ -1,6 +1,7 @@
 package com.jabaddon.learning.java_spring_testing.app.application;
 
 import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
 import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
 import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
 import com.jabaddon.learning.java_spring_testing.utils.TimeTranslator;
@@ -16,6 +17,8 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -33,6 +36,9 @@ class ActivityServiceTest {
     @Mock
     private ActivityDomainRepository activityRepository;
 
+    @Mock
+    private ActivityReadRepository activityReadRepository;
+
     @Mock
     private NotificationDomainService notificationService;
 
@@ -49,6 +55,10 @@ class ActivityServiceTest {
         newActivityDTO = new NewActivityDTO("Swimming", "45m", LocalDate.of(2024, 1, 2));
     }
 
+    private ActivityDTO testDTO() {
+        return new ActivityDTO(1L, "Running", 30L, LocalDate.of(2024, 1, 1));
+    }
+
     @Nested
     @DisplayName("Get All Activities")
     class GetAllActivitiesTests {
@@ -56,13 +66,10 @@ class ActivityServiceTest {
         @Test
         @DisplayName("Should return all activities as DTOs")
         void shouldReturnAllActivitiesAsDTOs() {
-            Activity activity1 = new Activity("Running", 30L, LocalDate.of(2024, 1, 1));
-            activity1.setId(1L);
-            Activity activity2 = new Activity("Swimming", 45L, LocalDate.of(2024, 1, 2));
-            activity2.setId(2L);
-            
-            List<Activity> activities = Arrays.asList(activity1, activity2);
-            when(activityRepository.findAll()).thenReturn(activities);
+            List<ActivityDTO> activities = Arrays.asList(
+                    new ActivityDTO(1L, "Running", 30L, LocalDate.of(2024, 1, 1)),
+                    new ActivityDTO(2L, "Swimming", 45L, LocalDate.of(2024, 1, 2)));
+            when(activityReadRepository.findAll()).thenReturn(activities);
 
             List<ActivityDTO> result = activityService.getAllActivities();
 
@@ -74,18 +81,108 @@ class ActivityServiceTest {
             assertThat(result.get(1).name()).isEqualTo("Swimming");
             assertThat(result.get(1).minutes()).isEqualTo(45L);
             
-            verify(activityRepository).findAll();
+            verify(activityReadRepository).findAll();
+            verifyNoInteractions(activityRepository);
         }
 
         @Test
         @DisplayName("Should return empty list when no activities exist")
         void shouldReturnEmptyListWhenNoActivitiesExist() {
-            when(activityRepository.findAll()).thenReturn(Arrays.asList());
+            when(activityReadRepository.findAll()).thenReturn(Arrays.asList());
 
             List<ActivityDTO> result = activityService.getAllActivities();
 
             assertThat(result).isEmpty();
-            verify(activityRepository).findAll();
+            verify(activityReadRepository).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Activity Page")
+    class GetActivityPageTests {
+
+        @Test
+        @DisplayName("Should use default page size when no limit is given")
+        void shouldUseDefaultPageSizeWhenNoLimitIsGiven() {
+            when(activityReadRepository.findPage(ActivityDateRange.UNBOUNDED, null, null, ActivityService.DEFAULT_PAGE_SIZE + 1))
+                    .thenReturn(List.of(testDTO()));
+
+            ActivityPage page = activityService.getActivityPage(null, null);
+
+            assertThat(page.activities()).hasSize(1);
+            assertThat(page.hasNext()).isFalse();
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should cap page size at the server maximum")
+        void shouldCapPageSizeAtServerMaximum() {
+            when(activityReadRepository.findPage(ActivityDateRange.UNBOUNDED, null, null, ActivityService.MAX_PAGE_SIZE + 1)).thenReturn(List.of());
+
+            activityService.getActivityPage(null, 1_000_000);
+
+            verify(activityReadRepository).findPage(ActivityDateRange.UNBOUNDED, null, null, ActivityService.MAX_PAGE_SIZE + 1);
+        }
+
+        @Test
+        @DisplayName("Should return next cursor pointing at the last activity of the page")
+        void shouldReturnNextCursorPointingAtLastActivityOfPage() {
+            ActivityDTO second = new ActivityDTO(2L, "Swimming", 45L, LocalDate.of(2024, 1, 2));
+            ActivityDTO third = new ActivityDTO(3L, "Cycling", 60L, LocalDate.of(2024, 1, 3));
+            when(activityReadRepository.findPage(ActivityDateRange.UNBOUNDED, null, null, 3)).thenReturn(List.of(testDTO(), second, third));
+
+            ActivityPage page = activityService.getActivityPage(null, 2);
+
+            assertThat(page.activities()).extracting(ActivityDTO::id).containsExactly(1L, 2L);
+            assertThat(page.hasNext()).isTrue();
+            assertThat(ActivityCursor.decode(page.nextCursor()))
+                    .isEqualTo(new ActivityCursor(LocalDate.of(2024, 1, 2), 2L));
+        }
+
+        @Test
+        @DisplayName("Should continue after the given cursor")
+        void shouldContinueAfterGivenCursor() {
+            String after = new ActivityCursor(LocalDate.of(2024, 1, 1), 1L).encode();
+            when(activityReadRepository.findPage(ActivityDateRange.UNBOUNDED, LocalDate.of(2024, 1, 1), 1L, 11)).thenReturn(List.of());
+
+            ActivityPage page = activityService.getActivityPage(after, 10);
+
+            assertThat(page.activities()).isEmpty();
+            verify(activityReadRepository).findPage(ActivityDateRange.UNBOUNDED, LocalDate.of(2024, 1, 1), 1L, 11);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid cursors and limits")
+        void shouldRejectInvalidCursorsAndLimits() {
+            assertThatThrownBy(() -> activityService.getActivityPage("not-a-cursor", null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("Invalid cursor");
+            assertThatThrownBy(() -> activityService.getActivityPage(null, 0))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Limit must be greater than zero");
+
+            verifyNoInteractions(activityReadRepository);
+        }
+
+        @Test
+        @DisplayName("Should restrict the page to the given date range")
+        void shouldRestrictPageToDateRange() {
+            ActivityDateRange january = new ActivityDateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+            when(activityReadRepository.findPage(january, null, null, 11)).thenReturn(List.of(testDTO()));
+
+            ActivityPage page = activityService.getActivityPage(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, 10);
+
+            assertThat(page.activities()).containsExactly(testDTO());
+        }
+
+        @Test
+        @DisplayName("Should reject a date range that ends before it starts")
+        void shouldRejectInvertedDateRange() {
+            assertThatThrownBy(() -> activityService.getActivityPage(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("'from' must not be after 'to'");
+
+            verifyNoInteractions(activityReadRepository);
         }
     }
 
@@ -96,25 +193,36 @@ class ActivityServiceTest {
         @Test
         @DisplayName("Should return activities matching name pattern")
         void shouldReturnActivitiesMatchingNamePattern() {
-            List<Activity> foundActivities = Arrays.asList(testActivity);
-            when(activityRepository.findByNameContainingIgnoreCase("run")).thenReturn(foundActivities);
+            List<ActivityDTO> foundActivities = Arrays.asList(testDTO());
+            when(activityReadRepository.findByNameContainingIgnoreCase("run", ActivityDateRange.UNBOUNDED, ActivityService.DEFAULT_PAGE_SIZE)).thenReturn(foundActivities);
 
             List<ActivityDTO> result = activityService.searchActivitiesByName("run");
 
             assertThat(result).hasSize(1);
             assertThat(result.get(0).name()).isEqualTo("Running");
-            verify(activityRepository).findByNameContainingIgnoreCase("run");
+            verify(activityReadRepository).findByNameContainingIgnoreCase("run", ActivityDateRange.UNBOUNDED, ActivityService.DEFAULT_PAGE_SIZE);
         }
 
         @Test
         @DisplayName("Should return empty list when no activities match")
         void shouldReturnEmptyListWhenNoActivitiesMatch() {
-            when(activityRepository.findByNameContainingIgnoreCase("nonexistent")).thenReturn(Arrays.asList());
+            when(activityReadRepository.findByNameContainingIgnoreCase("nonexistent", ActivityDateRange.UNBOUNDED, ActivityService.DEFAULT_PAGE_SIZE)).thenReturn(Arrays.asList());
 
             List<ActivityDTO> result = activityService.searchActivitiesByName("nonexistent");
 
             assertThat(result).isEmpty();
-            verify(activityRepository).findByNameContainingIgnoreCase("nonexistent");
+            verify(activityReadRepository).findByNameContainingIgnoreCase("nonexistent", ActivityDateRange.UNBOUNDED, ActivityService.DEFAULT_PAGE_SIZE);
+        }
+
+        @Test
+        @DisplayName("Should combine the name filter with a date range")
+        void shouldCombineNameFilterWithDateRange() {
+            ActivityDateRange fromJanuary = new ActivityDateRange(LocalDate.of(2024, 1, 1), null);
+            when(activityReadRepository.findByNameContainingIgnoreCase("run", fromJanuary, 5)).thenReturn(List.of(testDTO()));
+
+            List<ActivityDTO> result = activityService.searchActivitiesByName("run", LocalDate.of(2024, 1, 1), null, 5);
+
+            assertThat(result).containsExactly(testDTO());
         }
     }
 
@@ -125,7 +233,7 @@ class ActivityServiceTest {
         @Test
         @DisplayName("Should return activity when found")
         void shouldReturnActivityWhenFound() {
-            when(activityRepository.findById(1L)).thenReturn(Optional.of(testActivity));
+            when(activityReadRepository.findById(1L)).thenReturn(Optional.of(testDTO()));
 
             ActivityDTO result = activityService.getActivityById(1L);
 
@@ -133,19 +241,64 @@ class ActivityServiceTest {
             assertThat(result.name()).isEqualTo("Running");
             assertThat(result.minutes()).isEqualTo(30L);
             assertThat(result.date()).isEqualTo(LocalDate.of(2024, 1, 1));
-            verify(activityRepository).findById(1L);
+            verify(activityReadRepository).findById(1L);
+            verifyNoInteractions(activityRepository);
         }
 
         @Test
         @DisplayName("Should throw NoSuchElementException when activity not found")
         void shouldThrowExceptionWhenActivityNotFound() {
-            when(activityRepository.findById(999L)).thenReturn(Optional.empty());
+            when(activityReadRepository.findById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> activityService.getActivityById(999L))
                     .isInstanceOf(NoSuchElementException.class)
                     .hasMessage("Activity not found");
 
-            verify(activityRepository).findById(999L);
+            verify(activityReadRepository).findById(999L);
+        }
+
+        @Test
+        @DisplayName("Should return activity with the version of the same row")
+        void shouldReturnActivityWithVersionOfSameRow() {
+            VersionedActivityDTO versioned = new VersionedActivityDTO(testDTO(), new ActivityVersionDTO(1L, 4L, null));
+            when(activityReadRepository.findVersionedById(1L)).thenReturn(Optional.of(versioned));
+
+            assertThat(activityService.getVersionedActivity(1L)).isEqualTo(versioned);
+            verifyNoInteractions(activityRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw NoSuchElementException when versioned activity not found")
+        void shouldThrowExceptionWhenVersionedActivityNotFound() {
+            when(activityReadRepository.findVersionedById(999L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> activityService.getVersionedActivity(999L))
+                    .isInstanceOf(NoSuchElementException.class)
+                    .hasMessage("Activity not found");
+        }
+
+        @Test
+        @DisplayName("Should return version and last modified instant")
+        void shouldReturnVersionAndLastModifiedInstant() {
+            LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+            when(activityRepository.findVersionById(1L)).thenReturn(Optional.of(new ActivityVersion(4L, updatedAt)));
+
+            ActivityVersionDTO result = activityService.getActivityVersion(1L);
+
+            assertThat(result.id()).isEqualTo(1L);
+            assertThat(result.version()).isEqualTo(4L);
+            assertThat(result.lastModified()).isEqualTo(updatedAt.atZone(ZoneId.systemDefault()).toInstant());
+            verify(activityRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should throw NoSuchElementException when version is not found")
+        void shouldThrowExceptionWhenVersionNotFound() {
+            when(activityRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> activityService.getActivityVersion(999L))
+                    .isInstanceOf(NoSuchElementException.class)
+                    .hasMessage("Activity not found");
         }
     }
 
@@ -162,8 +315,7 @@ class ActivityServiceTest {
                 Activity savedActivity = new Activity("Swimming", 45L, LocalDate.of(2024, 1, 2));
                 savedActivity.setId(2L);
                 
-                when(activityRepository.save(any(Activity.class))).thenReturn(2L);
-                when(activityRepository.findById(2L)).thenReturn(Optional.of(savedActivity));
+                when(activityRepository.save(any(Activity.class))).thenReturn(savedActivity);
 
                 ActivityDTO result = activityService.createActivity(newActivityDTO);
 
@@ -177,26 +329,64 @@ class ActivityServiceTest {
                     activity.getMinutes() == 45L &&
                     activity.getDate().equals(LocalDate.of(2024, 1, 2))
                 ));
-                verify(activityRepository).findById(2L);
+                verify(activityRepository, never()).findById(anyLong());
             }
         }
+    }
+
+    @Nested
+    @DisplayName("Create Activities in Batch")
+    class CreateActivitiesTests {
+
+        @Test
+        @DisplayName("Should save valid activities together and report invalid ones per item")
+        void shouldSaveValidActivitiesTogetherAndReportInvalidOnes() {
+            List<NewActivityDTO> batch = Arrays.asList(
+                    new NewActivityDTO("Running", "30m", LocalDate.of(2024, 1, 1)),
+                    new NewActivityDTO("Broken", "30x", LocalDate.of(2024, 1, 1)),
+                    null,
+                    new NewActivityDTO("Cycling", "1h", LocalDate.of(2024, 1, 2))
+            );
+            when(activityRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Activity> chunk = invocation.getArgument(0);
+                chunk.get(0).setId(10L);
+                chunk.get(1).setId(11L);
+                return chunk;
+            });
+
+            List<ActivityBatchResultDTO> results = activityService.createActivities(batch);
+
+            assertThat(results).extracting(ActivityBatchResultDTO::index).containsExactly(0, 1, 2, 3);
+            assertThat(results.get(0).activity()).isEqualTo(new ActivityDTO(10L, "Running", 30L, LocalDate.of(2024, 1, 1)));
+            assertThat(results.get(1).error()).startsWith("Invalid time unit");
+            assertThat(results.get(2).error()).isEqualTo("Activity cannot be null");
+            assertThat(results.get(3).activity()).isEqualTo(new ActivityDTO(11L, "Cycling", 60L, LocalDate.of(2024, 1, 2)));
+            verify(activityRepository, times(1)).saveAll(anyList());
+        }
 
         @Test
-        @DisplayName("Should throw IllegalStateException when saved activity cannot be retrieved")
-        void shouldThrowExceptionWhenSavedActivityCannotBeRetrieved() {
-            try (MockedStatic<TimeTranslator> mockedTimeTranslator = mockStatic(TimeTranslator.class)) {
-                mockedTimeTranslator.when(() -> TimeTranslator.toMinutes("45m")).thenReturn(45L);
-                
-                when(activityRepository.save(any(Activity.class))).thenReturn(2L);
-                when(activityRepository.findById(2L)).thenReturn(Optional.empty());
+        @DisplayName("Should write large batches in bounded chunks")
+        void shouldWriteLargeBatchesInBoundedChunks() {
+            List<NewActivityDTO> batch = java.util.Collections.nCopies(ActivityService.BATCH_CHUNK_SIZE + 1, newActivityDTO);
+            when(activityRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Activity> chunk = invocation.getArgument(0);
+                return chunk;
+            });
+
+            List<ActivityBatchResultDTO> results = activityService.createActivities(batch);
+
+            assertThat(results).hasSize(ActivityService.BATCH_CHUNK_SIZE + 1);
+            verify(activityRepository, times(2)).saveAll(anyList());
+        }
 
-                assertThatThrownBy(() -> activityService.createActivity(newActivityDTO))
-                        .isInstanceOf(IllegalStateException.class)
-                        .hasMessage("Activity could not be created");
+        @Test
+        @DisplayName("Should reject batches above the maximum size")
+        void shouldRejectBatchesAboveMaximumSize() {
+            List<NewActivityDTO> batch = java.util.Collections.nCopies(ActivityService.MAX_BATCH_SIZE + 1, newActivityDTO);
 
-                verify(activityRepository).save(any(Activity.class));
-                verify(activityRepository).findById(2L);
-            }
+            assertThatThrownBy(() -> activityService.createActivities(batch))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(activityRepository);
         }
     }
 
@@ -63,4 +63,27 @@ class NewActivityDTOJsonTest {
                 }
                 """);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReuseTheSameStringForRepeatedValidTimes() throws Exception {
+        String content = """
+                {"name": "Run", "time": "45m", "date": "2024-03-16"}
+                """;
+
+        NewActivityDTO first = json.parseObject(content);
+        NewActivityDTO second = json.parseObject(content);
+
+        assertThat(first.time()).isEqualTo("45m");
+        assertThat(second.time()).isSameAs(first.time());
+    }
+
+    @Test
+    void shouldKeepInvalidAndNonStringTimesAsSent() throws Exception {
+        assertThat(json.parseObject("""
+                {"time": "  1 hour "}
+                """).time()).isEqualTo("  1 hour ");
+        assertThat(json.parseObject("""
+                {"time": 90}
+                """).time()).isEqualTo("90");
+    }
+}
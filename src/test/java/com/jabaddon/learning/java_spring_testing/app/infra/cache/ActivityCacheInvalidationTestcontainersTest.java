@@ -0,0 +1,108 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.cache;
+
+import com.jabaddon.learning.java_spring_testing.JavaSpringTestingApplication;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityService;
+import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Two application contexts play two nodes sharing one database, each with its own near cache.
+ */
+@Testcontainers
+@DisplayName("Cross-node activity cache invalidation")
+class ActivityCacheInvalidationTestcontainersTest {
+
+    private static final Duration CONVERGENCE_TIMEOUT = Duration.ofSeconds(5);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresqlContainer = new PostgreSQLContainer<>("postgres:latest");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(JavaSpringTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgresqlContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgresqlContainer.getUsername(),
+                        "spring.datasource.password=" + postgresqlContainer.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "app.activities.cache.enabled=true",
+                        "app.activities.cache.notify.enabled=true",
+                        "app.activities.cache.notify.poll-timeout=50ms")
+                .run();
+    }
+
+    @Test
+    @DisplayName("Should converge every node's cache after another node writes")
+    void shouldConvergeAfterWritesOnAnotherNode() {
+        ActivityService serviceA = nodeA.getBean(ActivityService.class);
+        ActivityService serviceB = nodeB.getBean(ActivityService.class);
+        ActivityDTO created = serviceA.createActivity(new NewActivityDTO("Morning Run", "30m", LocalDate.of(2024, 1, 1)));
+        // Warm node B's cache
+        assertThat(serviceB.getActivityById(created.id()).name()).isEqualTo("Morning Run");
+        assertThat(serviceB.searchActivitiesByName("swim")).isEmpty();
+
+        serviceA.updateActivity(created.id(), new NewActivityDTO("Morning Swim", "30m", LocalDate.of(2024, 1, 1)));
+
+        awaitConvergence(() -> serviceB.getActivityById(created.id()).name().equals("Morning Swim"));
+        awaitConvergence(() -> !serviceB.searchActivitiesByName("swim").isEmpty());
+
+        serviceA.deleteActivity(created.id());
+
+        awaitConvergence(() -> {
+            try {
+                serviceB.getActivityById(created.id());
+                return false;
+            } catch (NoSuchElementException e) {
+                return true;
+            }
+        });
+    }
+
+    private static void awaitConvergence(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + CONVERGENCE_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Node caches did not converge within " + CONVERGENCE_TIMEOUT);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for convergence");
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ActivityChangeListener Unit Tests")
+class ActivityChangeListenerTest {
+
+    @Mock
+    private ActivityCache cache;
+
+    private ActivityChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new ActivityChangeListener("jdbc:h2:mem:test", "sa", "", cache,
+                Duration.ofMillis(100), Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("Should evict the changed activity on update and delete")
+    void shouldEvictChangedActivity() {
+        listener.apply("UPDATE:42");
+        listener.apply("DELETE:7");
+
+        verify(cache).evict(42L);
+        verify(cache).evict(7L);
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("Should only evict searches on insert")
+    void shouldOnlyEvictSearchesOnInsert() {
+        listener.apply("INSERT");
+
+        verify(cache).evictSearches();
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("Should evict everything on a malformed payload")
+    void shouldEvictEverythingOnMalformedPayload() {
+        listener.apply("UPDATE:abc");
+
+        verify(cache).evictAll();
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("Should not listen on databases other than Postgres")
+    void shouldNotListenOnOtherDatabases() {
+        listener.start();
+
+        verifyNoInteractions(cache);
+        assertThat(listener.isRunning()).isFalse();
+    }
+}
@@ -0,0 +1,239 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.cache;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityVersionDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReadYourWrites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Caching activity repositories Unit Tests")
+class CachingActivityRepositoryTest {
+
+    @Mock
+    private ActivityReadRepository readDelegate;
+
+    @Mock
+    private ActivityDomainRepository domainDelegate;
+
+    private ActivityCache cache;
+    private CachingActivityReadRepository readRepository;
+    private CachingActivityDomainRepository domainRepository;
+
+    private final ActivityDTO running = new ActivityDTO(1L, "Running", 30L, LocalDate.of(2024, 1, 1));
+
+    @BeforeEach
+    void setUp() {
+        cache = new ActivityCache(100, 100, Duration.ofMinutes(5));
+        readRepository = new CachingActivityReadRepository(readDelegate, cache);
+        domainRepository = new CachingActivityDomainRepository(domainDelegate, cache);
+    }
+
+    private static VersionedActivityDTO versioned(ActivityDTO activity) {
+        return new VersionedActivityDTO(activity, new ActivityVersionDTO(activity.id(), 0L, null));
+    }
+
+    private Activity runningActivity() {
+        Activity activity = new Activity("Running", 30L, LocalDate.of(2024, 1, 1));
+        activity.setId(1L);
+        return activity;
+    }
+
+    @Nested
+    @DisplayName("Find by ID")
+    class FindByIdTests {
+
+        @Test
+        @DisplayName("Should load an activity once and then serve it from the cache")
+        void shouldLoadOnceThenServeFromCache() {
+            when(readDelegate.findVersionedById(1L)).thenReturn(Optional.of(versioned(running)));
+
+            assertThat(readRepository.findById(1L)).contains(running);
+            assertThat(readRepository.findById(1L)).contains(running);
+
+            verify(readDelegate, times(1)).findVersionedById(1L);
+        }
+
+        @Test
+        @DisplayName("Should serve an activity and its version from one cached read")
+        void shouldServeActivityAndVersionFromOneRead() {
+            when(readDelegate.findVersionedById(1L)).thenReturn(Optional.of(versioned(running)));
+
+            assertThat(readRepository.findVersionedById(1L)).contains(versioned(running));
+            assertThat(readRepository.findById(1L)).contains(running);
+
+            verify(readDelegate, times(1)).findVersionedById(1L);
+            verify(readDelegate, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should not cache missing activities")
+        void shouldNotCacheMissingActivities() {
+            when(readDelegate.findVersionedById(2L)).thenReturn(Optional.empty());
+
+            assertThat(readRepository.findById(2L)).isEmpty();
+            assertThat(readRepository.findById(2L)).isEmpty();
+
+            verify(readDelegate, times(2)).findVersionedById(2L);
+        }
+
+        @Test
+        @DisplayName("Should reload an activity after it is updated")
+        void shouldReloadAfterUpdate() {
+            when(readDelegate.findVersionedById(1L)).thenReturn(Optional.of(versioned(running)));
+            readRepository.findById(1L);
+
+            domainRepository.update(runningActivity());
+            readRepository.findById(1L);
+
+            verify(domainDelegate).update(any(Activity.class));
+            verify(readDelegate, times(2)).findVersionedById(1L);
+        }
+
+        @Test
+        @DisplayName("Should evict the cached version when an activity is deleted")
+        void shouldEvictVersionWhenDeleted() {
+            ActivityVersion version = new ActivityVersion(0L, LocalDateTime.of(2024, 1, 1, 8, 0));
+            when(domainDelegate.findVersionById(1L)).thenReturn(Optional.of(version));
+            domainRepository.findVersionById(1L);
+            domainRepository.findVersionById(1L);
+
+            domainRepository.deleteById(1L);
+            domainRepository.findVersionById(1L);
+
+            verify(domainDelegate, times(2)).findVersionById(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Lagging read replicas")
+    class ReplicaLagTests {
+
+        private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+        private final Clock clock = mock(Clock.class);
+        private final ActivityDTO swimming = new ActivityDTO(1L, "Swimming", 30L, LocalDate.of(2024, 1, 1));
+
+        @BeforeEach
+        void setUp() {
+            when(clock.instant()).thenReturn(NOW);
+            cache = new ActivityCache(100, 100, Duration.ofMinutes(5), Duration.ofSeconds(5), clock);
+            readRepository = new CachingActivityReadRepository(readDelegate, cache);
+            domainRepository = new CachingActivityDomainRepository(domainDelegate, cache);
+        }
+
+        @AfterEach
+        void tearDown() {
+            ReadYourWrites.clear();
+        }
+
+        @Test
+        @DisplayName("Should not cache what a lagging replica returns right after an update")
+        void shouldNotCacheStaleReplicaReadAfterUpdate() {
+            // The replica still has "Running" for the first read after the rename, then catches up
+            when(readDelegate.findVersionedById(1L)).thenReturn(Optional.of(versioned(running)), Optional.of(versioned(swimming)));
+            domainRepository.update(runningActivity());
+
+            assertThat(readRepository.findById(1L)).contains(running);
+            when(clock.instant()).thenReturn(NOW.plusSeconds(6));
+
+            assertThat(readRepository.findById(1L)).contains(swimming);
+            assertThat(readRepository.findById(1L)).contains(swimming);
+            verify(readDelegate, times(2)).findVersionedById(1L);
+        }
+
+        @Test
+        @DisplayName("Should not cache searches a lagging replica answers right after a write")
+        void shouldNotCacheStaleSearchAfterWrite() {
+            when(readDelegate.findByNameContainingIgnoreCase("swim", ActivityDateRange.UNBOUNDED, 10))
+                    .thenReturn(List.of(), List.of(swimming));
+            domainRepository.save(runningActivity());
+
+            assertThat(readRepository.findByNameContainingIgnoreCase("swim", ActivityDateRange.UNBOUNDED, 10)).isEmpty();
+            when(clock.instant()).thenReturn(NOW.plusSeconds(6));
+
+            assertThat(readRepository.findByNameContainingIgnoreCase("swim", ActivityDateRange.UNBOUNDED, 10)).containsExactly(swimming);
+        }
+
+        @Test
+        @DisplayName("Should bypass the cache while reads are pinned to the primary")
+        void shouldBypassCacheWhenPinned() {
+            when(readDelegate.findVersionedById(1L)).thenReturn(Optional.of(versioned(running)), Optional.of(versioned(swimming)));
+            readRepository.findById(1L);
+
+            ReadYourWrites.pinToPrimary();
+
+            assertThat(readRepository.findById(1L)).contains(swimming);
+            ReadYourWrites.clear();
+            assertThat(readRepository.findById(1L)).contains(running);
+        }
+    }
+
+    @Nested
+    @DisplayName("Search")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should share cached results between queries that differ only in case")
+        void shouldShareResultsBetweenQueriesDifferingInCase() {
+            when(readDelegate.findByNameContainingIgnoreCase("Run", ActivityDateRange.UNBOUNDED, 10)).thenReturn(List.of(running));
+
+            assertThat(readRepository.findByNameContainingIgnoreCase("Run", ActivityDateRange.UNBOUNDED, 10)).containsExactly(running);
+            assertThat(readRepository.findByNameContainingIgnoreCase("rUN", ActivityDateRange.UNBOUNDED, 10)).containsExactly(running);
+
+            verify(readDelegate, times(1)).findByNameContainingIgnoreCase(anyString(), eq(ActivityDateRange.UNBOUNDED), eq(10));
+        }
+
+        @Test
+        @DisplayName("Should run searches again after any activity is created")
+        void shouldRunSearchesAgainAfterCreate() {
+            when(readDelegate.findByNameContainingIgnoreCase("run", ActivityDateRange.UNBOUNDED, 10)).thenReturn(List.of(running));
+            readRepository.findByNameContainingIgnoreCase("run", ActivityDateRange.UNBOUNDED, 10);
+
+            domainRepository.save(runningActivity());
+            readRepository.findByNameContainingIgnoreCase("run", ActivityDateRange.UNBOUNDED, 10);
+
+            verify(readDelegate, times(2)).findByNameContainingIgnoreCase("run", ActivityDateRange.UNBOUNDED, 10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish hit and miss counts")
+    void shouldPublishHitAndMissCounts() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        when(readDelegate.findVersionedById(1L)).thenReturn(Optional.of(versioned(running)));
+
+        readRepository.findById(1L);
+        readRepository.findById(1L);
+
+        assertThat(registry.get("cache.gets").tag("cache", "activities").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "activities").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+}
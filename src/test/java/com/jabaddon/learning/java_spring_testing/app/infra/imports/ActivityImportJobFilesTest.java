@@ -0,0 +1,77 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Import job files")
+class ActivityImportJobFilesTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should store the body in UTF-8 under the job id")
+    void shouldStoreBodyInUtf8() throws IOException {
+        ActivityImportJobFiles files = files();
+        UUID id = UUID.randomUUID();
+
+        Path stored = files.store(id, body("Café,45m,2024-01-01\n", StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1);
+
+        assertThat(stored).isEqualTo(files.path(id));
+        assertThat(Files.readString(stored, StandardCharsets.UTF_8)).isEqualTo("Café,45m,2024-01-01\n");
+        assertThat(directory).isDirectoryNotContaining("glob:**.part");
+    }
+
+    @Test
+    @DisplayName("Should delete files left over past the retention period when storing a new one")
+    void shouldDeleteExpiredFiles() throws IOException {
+        ActivityImportJobFiles files = files();
+        UUID failed = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        files.store(failed, body("a,1m,2024-01-01\n", StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        files.store(recent, body("b,1m,2024-01-01\n", StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        Path cutOff = Files.writeString(directory.resolve(UUID.randomUUID() + ".csv.part"), "c,1m");
+        Path other = Files.writeString(directory.resolve("notes.txt"), "kept");
+        age(files.path(failed), Duration.ofDays(8));
+        age(cutOff, Duration.ofDays(8));
+        age(other, Duration.ofDays(8));
+        age(files.path(recent), Duration.ofDays(6));
+
+        files.store(UUID.randomUUID(), body("d,1m,2024-01-01\n", StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        assertThat(files.path(failed)).doesNotExist();
+        assertThat(cutOff).doesNotExist();
+        assertThat(files.path(recent)).exists();
+        assertThat(other).exists();
+    }
+
+    private ActivityImportJobFiles files() {
+        return new ActivityImportJobFiles(directory, Duration.ofDays(7), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static void age(Path file, Duration age) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(NOW.minus(age)));
+    }
+
+    private static ByteArrayInputStream body(String csv, Charset charset) {
+        return new ByteArrayInputStream(csv.getBytes(charset));
+    }
+}
@@ -0,0 +1,51 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ActivityPartitionMaintenance")
+class ActivityPartitionMaintenanceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-15T03:00:00Z"), ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("Should log a failed month and go on with the next ones instead of throwing")
+    void shouldNotThrowWhenPartitionCreationFails() {
+        doThrow(new DataIntegrityViolationException("relation \"activities_2024_02\" already exists"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(LocalDate.of(2024, 2, 1)));
+        ActivityPartitionMaintenance maintenance =
+                new ActivityPartitionMaintenance(jdbcTemplate, "jdbc:postgresql://localhost/activities", 3, CLOCK);
+
+        assertThatCode(maintenance::createUpcomingPartitions).doesNotThrowAnyException();
+
+        verify(jdbcTemplate, times(4)).query(anyString(), any(RowCallbackHandler.class), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should leave other databases alone")
+    void shouldSkipOtherDatabases() {
+        new ActivityPartitionMaintenance(jdbcTemplate, "jdbc:h2:mem:activities", 3, CLOCK).createUpcomingPartitions();
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any(LocalDate.class));
+    }
+}
@@ -0,0 +1,90 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.TestcontainersConfiguration;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityExportFormat;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+class ActivityBulkExportWithTestContainersDataJpaTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ActivityBulkExportRepositoryImpl exportRepository;
+
+    @BeforeEach
+    void setUp() {
+        exportRepository = new ActivityBulkExportRepositoryImpl(jdbcTemplate, 100);
+        activityRepository.saveAll(List.of(
+                new ActivityJpaEntity("Running", 30L, LocalDate.of(2024, 1, 1)),
+                new ActivityJpaEntity("Swim, \"open\" water", 45L, LocalDate.of(2024, 1, 31)),
+                new ActivityJpaEntity("Cycling", 60L, LocalDate.of(2024, 2, 1))));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should copy the activities within the range out as CSV")
+    void shouldCopyOutCsvWithinRange() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportRepository.export(new ActivityDateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)),
+                ActivityExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).isEqualTo(ActivityBulkExportRepositoryImpl.CSV_HEADER);
+        assertThat(lines.subList(1, lines.size()))
+                .hasSize(2)
+                .anySatisfy(line -> assertThat(line).endsWith(",Running,30,2024-01-01"))
+                .anySatisfy(line -> assertThat(line).endsWith(",\"Swim, \"\"open\"\" water\",45,2024-01-31"));
+    }
+
+    @Test
+    @DisplayName("Should copy out a binary export that COPY reads back")
+    void shouldCopyOutBinaryThatCopyReadsBack() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportRepository.export(ActivityDateRange.UNBOUNDED, ActivityExportFormat.BINARY, out);
+
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE copied (id bigint, name varchar(255), minutes bigint, date date)");
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn("COPY copied FROM STDIN WITH (FORMAT binary)", new ByteArrayInputStream(out.toByteArray()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM copied ORDER BY date", String.class))
+                .containsExactly("Running", "Swim, \"open\" water", "Cycling");
+    }
+}
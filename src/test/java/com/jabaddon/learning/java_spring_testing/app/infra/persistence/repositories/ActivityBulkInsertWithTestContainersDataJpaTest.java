@@ -0,0 +1,90 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.TestcontainersConfiguration;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+class ActivityBulkInsertWithTestContainersDataJpaTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Test
+    @DisplayName("Should copy activities with ids from the sequence and names as they were")
+    void shouldCopyActivitiesWithIdsFromSequence() {
+        List<String> names = List.of("Running", "Swim, open water", "The \"long\" one", "Line\nbreak", "Café 🏃", "Back\\slash");
+        List<ActivityJpaEntity> entities = IntStream.range(0, 120)
+                .mapToObj(i -> new ActivityJpaEntity(names.get(i % names.size()), (long) i, LocalDate.of(2024, 1, 1 + i % 28)))
+                .toList();
+
+        List<ActivityJpaEntity> inserted = activityRepository.insertAll(entities);
+
+        assertThat(inserted).extracting(ActivityJpaEntity::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(em().contains(inserted.get(0))).isFalse();
+        List<ActivityJpaEntity> stored = activityRepository.findAllById(inserted.stream().map(ActivityJpaEntity::getId).toList());
+        assertThat(stored).hasSize(120);
+        assertThat(stored).allSatisfy(activity -> {
+            assertThat(activity.getName()).isEqualTo(names.get((int) (long) activity.getMinutes() % names.size()));
+            assertThat(activity.getCreatedAt()).isNotNull();
+            assertThat(activity.getVersion()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("Should never hand out an id Hibernate uses afterwards")
+    void shouldNotCollideWithHibernateIds() {
+        ActivityJpaEntity before = activityRepository.save(new ActivityJpaEntity("Before", 10L, LocalDate.of(2024, 1, 1)));
+        entityManager.flush();
+
+        List<ActivityJpaEntity> inserted = activityRepository.insertAll(IntStream.range(0, 75)
+                .mapToObj(i -> new ActivityJpaEntity("Copied " + i, 30L, LocalDate.of(2024, 1, 2)))
+                .toList());
+        List<ActivityJpaEntity> after = IntStream.range(0, 60)
+                .mapToObj(i -> activityRepository.save(new ActivityJpaEntity("After " + i, 20L, LocalDate.of(2024, 1, 3))))
+                .toList();
+        entityManager.flush();
+
+        assertThat(inserted).extracting(ActivityJpaEntity::getId)
+                .doesNotContain(before.getId())
+                .doesNotContainAnyElementsOf(after.stream().map(ActivityJpaEntity::getId).toList());
+        assertThat(activityRepository.count()).isEqualTo(1 + 75 + 60);
+    }
+
+    @Test
+    @DisplayName("Should refuse a chunk holding an import key that is already stored")
+    void shouldRefuseDuplicateImportKeys() {
+        ActivityJpaEntity first = new ActivityJpaEntity("Imported", 30L, LocalDate.of(2024, 1, 1));
+        first.setImportKey("job:2");
+        activityRepository.insertAll(List.of(first));
+
+        ActivityJpaEntity again = new ActivityJpaEntity("Imported", 30L, LocalDate.of(2024, 1, 1));
+        again.setImportKey("job:2");
+        assertThatThrownBy(() -> activityRepository.insertAll(List.of(again)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private EntityManager em() {
+        return entityManager.getEntityManager();
+    }
+}
@@ -0,0 +1,170 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import com.jabaddon.learning.java_spring_testing.TestcontainersConfiguration;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+class ActivityPartitioningWithTestContainersDataJpaTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        createPartition(LocalDate.of(2024, 1, 1));
+        createPartition(LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    @DisplayName("Should store each activity in the partition of its month")
+    void shouldStoreActivityInPartitionOfItsMonth() {
+        ActivityJpaEntity january = activityRepository.save(new ActivityJpaEntity("Running", 30L, LocalDate.of(2024, 1, 15)));
+        ActivityJpaEntity february = activityRepository.save(new ActivityJpaEntity("Walking", 45L, LocalDate.of(2024, 2, 3)));
+        entityManager.flush();
+
+        assertThat(partitionOf(january.getId())).isEqualTo("activities_2024_01");
+        assertThat(partitionOf(february.getId())).isEqualTo("activities_2024_02");
+    }
+
+    @Test
+    @DisplayName("Should only scan the partitions covered by a date range, even with the range bound at run time")
+    void shouldPruneSkippedPartitions() {
+        activityRepository.save(new ActivityJpaEntity("Running", 30L, LocalDate.of(2024, 1, 15)));
+        activityRepository.save(new ActivityJpaEntity("Walking", 45L, LocalDate.of(2024, 2, 3)));
+        entityManager.flush();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // A generic plan does not know the range while planning, so the other partitions have to be
+        // removed when the executor starts
+        String plan = RepositoryQueryPlans.explainGenericPlan(jdbcTemplate, "findByNameTrigramAndDateBetween", Map.of(
+                "term", "run", "pattern", ActivityReadRepositoryImpl.containsPattern("run"),
+                "from", LocalDate.of(2024, 1, 1), "to", LocalDate.of(2024, 1, 31), "limit", 50));
+
+        assertThat(plan).contains("activities_2024_01", "Subplans Removed");
+        assertThat(plan).doesNotContain("activities_2024_02", "activities_default");
+    }
+
+    @Test
+    @DisplayName("Should keep the date of every activity in activity_dates")
+    void shouldKeepActivityDatesInStep() {
+        ActivityJpaEntity activity = activityRepository.save(new ActivityJpaEntity("Running", 30L, LocalDate.of(2024, 1, 15)));
+        entityManager.flush();
+        assertThat(lookupDate(activity.getId())).containsExactly(LocalDate.of(2024, 1, 15));
+
+        activity.setDate(LocalDate.of(2024, 2, 3));
+        entityManager.flush();
+        assertThat(partitionOf(activity.getId())).isEqualTo("activities_2024_02");
+        assertThat(lookupDate(activity.getId())).containsExactly(LocalDate.of(2024, 2, 3));
+
+        activityRepository.delete(activity);
+        entityManager.flush();
+        assertThat(lookupDate(activity.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only read the partition of the activity for a lookup by id")
+    void shouldRouteLookupByIdToOnePartition() {
+        ActivityJpaEntity january = activityRepository.save(new ActivityJpaEntity("Running", 30L, LocalDate.of(2024, 1, 15)));
+        activityRepository.save(new ActivityJpaEntity("Walking", 45L, LocalDate.of(2024, 2, 3)));
+        entityManager.flush();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // The date is only known once the subquery has run, so the other partitions are skipped by the
+        // executor rather than the planner, and show up in the plan as never executed
+        String plan = RepositoryQueryPlans.explain(jdbcTemplate, "(analyze, costs off, timing off, summary off)",
+                "findRoutedVersionedById", Map.of("id", january.getId()));
+
+        assertThat(plan.lines().filter(line -> line.contains("activities_2024_01"))).noneMatch(line -> line.contains("never executed"));
+        assertThat(plan.lines().filter(line -> line.contains("activities_2024_02") || line.contains("activities_default")))
+                .isNotEmpty()
+                .allMatch(line -> line.contains("never executed"));
+        assertThat(activityRepository.findRoutedVersionedById(january.getId()))
+                .hasValueSatisfying(versioned -> assertThat(versioned.activity().name()).isEqualTo("Running"));
+    }
+
+    @Test
+    @DisplayName("Should move rows out of the default partition when their month is created")
+    void shouldMoveRowsOutOfDefaultPartition() {
+        ActivityJpaEntity old = activityRepository.save(new ActivityJpaEntity("Rowing", 20L, LocalDate.of(1999, 6, 10)));
+        entityManager.flush();
+        assertThat(partitionOf(old.getId())).isEqualTo("activities_default");
+
+        createPartition(LocalDate.of(1999, 6, 1));
+
+        assertThat(partitionOf(old.getId())).isEqualTo("activities_1999_06");
+        assertThat(activityRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should create a partition once when two nodes race for it")
+    void shouldCreatePartitionOnceWhenRacing() {
+        // Own connections outside the test transaction, as two nodes would have; the partition is committed
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        LocalDate month = LocalDate.of(1998, 3, 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> nodes = List.of(1, 2).stream()
+                .map(node -> CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    jdbcTemplate.query("select create_activities_partition(?)", resultSet -> { }, month);
+                }))
+                .toList();
+
+        start.countDown();
+
+        assertThat(CompletableFuture.allOf(nodes.toArray(CompletableFuture[]::new))).succeedsWithin(Duration.ofSeconds(30));
+        assertThat(jdbcTemplate.queryForObject("select cast(to_regclass('activities_1998_03') as text)", String.class))
+                .isEqualTo("activities_1998_03");
+    }
+
+    private void createPartition(LocalDate month) {
+        em().createNativeQuery("select cast(create_activities_partition(:month) as text)")
+                .setParameter("month", month)
+                .getSingleResult();
+    }
+
+    private String partitionOf(Long id) {
+        return (String) em().createNativeQuery("select cast(tableoid::regclass as text) from activities where id = :id")
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+
+    private List<LocalDate> lookupDate(Long id) {
+        return new JdbcTemplate(dataSource).queryForList("select date from activity_dates where id = ?", LocalDate.class, id);
+    }
+
+    private EntityManager em() {
+        return entityManager.getEntityManager();
+    }
+}
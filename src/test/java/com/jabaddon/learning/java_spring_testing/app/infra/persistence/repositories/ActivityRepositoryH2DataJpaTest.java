@@ -1,5 +1,8 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
 
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
 import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -7,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDate;
@@ -192,4 +196,131 @@ class ActivityRepositoryH2DataJpaTest {
 
         assertThat(activities).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should page activities by date and id using a keyset")
+    void shouldPageActivitiesByDateAndIdUsingKeyset() {
+        activityRepository.save(runningActivity);
+        activityRepository.save(walkingActivity);
+        activityRepository.save(cyclingActivity);
+        ActivityJpaEntity sameDayActivity = activityRepository.save(
+                new ActivityJpaEntity("Yoga", 20L, LocalDate.now().minusDays(1)));
+        entityManager.flush();
+
+        List<ActivityDTO> firstPage = activityRepository.findFirstPage(Limit.of(2));
+        ActivityDTO last = firstPage.getLast();
+        List<ActivityDTO> secondPage = activityRepository.findPageAfter(last.date(), last.id(), Limit.of(2));
+
+        assertThat(firstPage).extracting(ActivityDTO::name).containsExactly("Cycling", "Walking");
+        assertThat(secondPage).extracting(ActivityDTO::name).containsExactly("Yoga", "Running");
+        assertThat(secondPage.getFirst().id()).isEqualTo(sameDayActivity.getId());
+    }
+
+    @Test
+    @DisplayName("Should page a date range in date and id order")
+    void shouldPageDateRangeInDateAndIdOrder() {
+        activityRepository.save(runningActivity);
+        activityRepository.save(walkingActivity);
+        activityRepository.save(cyclingActivity);
+        activityRepository.save(new ActivityJpaEntity("Yoga", 20L, LocalDate.now().minusDays(1)));
+        entityManager.flush();
+        LocalDate from = LocalDate.now().minusDays(1);
+        LocalDate to = LocalDate.now();
+
+        List<ActivityDTO> firstPage = activityRepository.findFirstPageBetween(from, to, Limit.of(2));
+        ActivityDTO last = firstPage.getLast();
+        List<ActivityDTO> secondPage = activityRepository.findPageBetweenAfter(from, to, last.date(), last.id(), Limit.of(2));
+        List<ActivityDTO> byName = activityRepository.findProjectedByNameLikeAndDateBetween(
+                ActivityReadRepositoryImpl.containsPattern("ing"), from, to, Limit.unlimited());
+
+        assertThat(firstPage).extracting(ActivityDTO::name).containsExactly("Walking", "Yoga");
+        assertThat(secondPage).extracting(ActivityDTO::name).containsExactly("Running");
+        assertThat(byName).extracting(ActivityDTO::name).containsExactly("Running", "Walking");
+    }
+
+    @Test
+    @DisplayName("Should order a name search the same with and without a date range")
+    void shouldOrderNameSearchTheSameWithAndWithoutDateRange() {
+        activityRepository.save(new ActivityJpaEntity("Swimming", 40L, LocalDate.of(2024, 1, 1)));
+        activityRepository.save(new ActivityJpaEntity("Running", 30L, LocalDate.of(2024, 1, 3)));
+        activityRepository.save(new ActivityJpaEntity("Cycling", 60L, LocalDate.of(2024, 1, 2)));
+        entityManager.flush();
+        String pattern = ActivityReadRepositoryImpl.containsPattern("ing");
+
+        List<ActivityDTO> unranged = activityRepository.findProjectedByNameLike(pattern, Limit.of(2));
+        List<ActivityDTO> ranged = activityRepository.findProjectedByNameLikeAndDateBetween(
+                pattern, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Limit.of(2));
+
+        assertThat(unranged).extracting(ActivityDTO::name).containsExactly("Cycling", "Running");
+        assertThat(ranged).isEqualTo(unranged);
+    }
+
+    @Test
+    @DisplayName("Should project activities into DTOs without managing entities")
+    void shouldProjectActivitiesIntoDTOsWithoutManagingEntities() {
+        ActivityJpaEntity savedActivity = activityRepository.save(runningActivity);
+        activityRepository.save(walkingActivity);
+        entityManager.flush();
+        entityManager.clear();
+
+        Optional<ActivityDTO> byId = activityRepository.findProjectedById(savedActivity.getId());
+        List<ActivityDTO> all = activityRepository.findAllProjectedBy();
+
+        assertThat(byId).contains(new ActivityDTO(savedActivity.getId(), "Running", 30L, LocalDate.now()));
+        assertThat(all).extracting(ActivityDTO::name).containsExactlyInAnyOrder("Running", "Walking");
+        assertThat(entityManager.getEntityManager().unwrap(org.hibernate.Session.class)
+                .getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should project name search and treat wildcards literally")
+    void shouldProjectNameSearchAndTreatWildcardsLiterally() {
+        activityRepository.save(runningActivity);
+        activityRepository.save(new ActivityJpaEntity("100% Effort_Run", 10L, LocalDate.now()));
+        entityManager.flush();
+
+        List<ActivityDTO> byName = activityRepository.findProjectedByNameLike(ActivityReadRepositoryImpl.containsPattern("RUN"), Limit.unlimited());
+        List<ActivityDTO> byWildcard = activityRepository.findProjectedByNameLike(ActivityReadRepositoryImpl.containsPattern("0% e"), Limit.unlimited());
+        List<ActivityDTO> byUnderscore = activityRepository.findProjectedByNameLike(ActivityReadRepositoryImpl.containsPattern("_"), Limit.unlimited());
+
+        assertThat(byName).extracting(ActivityDTO::name).containsExactlyInAnyOrder("Running", "100% Effort_Run");
+        assertThat(byWildcard).extracting(ActivityDTO::name).containsExactly("100% Effort_Run");
+        assertThat(byUnderscore).extracting(ActivityDTO::name).containsExactly("100% Effort_Run");
+    }
+
+    @Test
+    @DisplayName("Should find version without loading the activity and bump it on update")
+    void shouldFindVersionAndBumpItOnUpdate() {
+        ActivityJpaEntity savedActivity = activityRepository.save(runningActivity);
+        entityManager.flush();
+
+        Optional<ActivityVersion> initialVersion = activityRepository.findVersionById(savedActivity.getId());
+
+        savedActivity.setMinutes(90L);
+        entityManager.flush();
+        Optional<ActivityVersion> updatedVersion = activityRepository.findVersionById(savedActivity.getId());
+
+        assertThat(initialVersion).map(ActivityVersion::version).contains(0L);
+        assertThat(updatedVersion).map(ActivityVersion::version).contains(1L);
+        assertThat(updatedVersion.get().updatedAt()).isNotNull();
+        assertThat(activityRepository.findVersionById(999L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should project an activity with the version and update time of its row")
+    void shouldProjectActivityWithVersionOfItsRow() {
+        ActivityJpaEntity savedActivity = activityRepository.save(runningActivity);
+        entityManager.flush();
+        savedActivity.setMinutes(90L);
+        entityManager.flush();
+        entityManager.clear();
+
+        Optional<VersionedActivityDTO> versioned = activityRepository.findVersionedById(savedActivity.getId());
+
+        assertThat(versioned).map(VersionedActivityDTO::activity)
+                .contains(new ActivityDTO(savedActivity.getId(), "Running", 90L, LocalDate.now()));
+        assertThat(versioned).map(found -> found.version().version()).contains(1L);
+        assertThat(versioned.get().version().lastModified()).isNotNull();
+        assertThat(activityRepository.findVersionedById(999L)).isEmpty();
+    }
+}
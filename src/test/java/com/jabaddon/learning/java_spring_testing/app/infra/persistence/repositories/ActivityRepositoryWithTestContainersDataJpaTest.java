@@ -1,6 +1,7 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
 
 import com.jabaddon.learning.java_spring_testing.TestcontainersConfiguration;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
 import com.jabaddon.learning.java_spring_testing.app.infra.persistence.entities.ActivityJpaEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,10 +10,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,6 +31,9 @@ class ActivityRepositoryWithTestContainersDataJpaTest {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private ActivityJpaEntity runningActivity;
     private ActivityJpaEntity walkingActivity;
     private ActivityJpaEntity cyclingActivity;
@@ -187,4 +193,43 @@ class ActivityRepositoryWithTestContainersDataJpaTest {
 
         assertThat(activities).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should rank trigram name search by similarity and honour the limit")
+    void shouldRankTrigramNameSearchBySimilarity() {
+        activityRepository.save(new ActivityJpaEntity("Trail Running Session", 50L, LocalDate.now()));
+        activityRepository.save(runningActivity);
+        activityRepository.save(walkingActivity);
+        entityManager.flush();
+
+        entityManager.clear();
+
+        List<ActivityDTO> activities = activityRepository.findByNameTrigram(
+                "running", ActivityReadRepositoryImpl.containsPattern("running"), 10);
+        List<ActivityDTO> limited = activityRepository.findByNameTrigram(
+                "running", ActivityReadRepositoryImpl.containsPattern("running"), 1);
+
+        assertThat(activities).extracting(ActivityDTO::name)
+                .containsExactly("Running", "Trail Running Session");
+        assertThat(activities.getFirst()).isEqualTo(new ActivityDTO(runningActivity.getId(), "Running", 30L, runningActivity.getDate()));
+        assertThat(limited).extracting(ActivityDTO::name).containsExactly("Running");
+        // Projected straight from the rows, as the other reads are
+        assertThat(entityManager.getEntityManager().unwrap(org.hibernate.Session.class)
+                .getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should serve name search from the trigram index")
+    void shouldServeNameSearchFromTrigramIndex() {
+        activityRepository.save(runningActivity);
+        entityManager.flush();
+        // The table is tiny, so make the planner prove it can use the index instead of picking a seq scan
+        jdbcTemplate.execute("set local enable_seqscan = off");
+
+        String plan = RepositoryQueryPlans.explain(jdbcTemplate, "", "findByNameTrigram", Map.of(
+                "term", "run", "pattern", ActivityReadRepositoryImpl.containsPattern("run"), "limit", 10));
+
+        // Since V7 every partition carries its own copy of idx_activities_name_trgm, named <partition>_lower_idx
+        assertThat(plan).containsPattern("Bitmap Index Scan on activities_\\w+_lower_idx");
+    }
+}
@@ -0,0 +1,105 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * EXPLAINs the native SQL of an {@link ActivityRepository} method as it is declared, with its named
+ * parameters bound, so a plan assertion covers the query the application really runs.
+ */
+final class RepositoryQueryPlans {
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):(\\w+)");
+
+    private RepositoryQueryPlans() {
+    }
+
+    /**
+     * The plan for the query with its parameters bound as JDBC parameters, as the repository sends it.
+     */
+    static String explain(JdbcTemplate jdbcTemplate, String options, String method, Map<String, Object> parameters) {
+        List<Object> bound = new ArrayList<>();
+        String sql = replaceParameters(nativeQuery(method), name -> {
+            bound.add(value(parameters, name));
+            return "?";
+        });
+        return String.join("\n", jdbcTemplate.queryForList("explain " + options + " " + sql, String.class, bound.toArray()));
+    }
+
+    /**
+     * The generic plan for the query, the one a prepared statement is left with once it has run often enough:
+     * its parameters are unknown while planning, so partitions can only be pruned when the executor starts.
+     */
+    static String explainGenericPlan(JdbcTemplate jdbcTemplate, String method, Map<String, Object> parameters) {
+        Map<String, Integer> numbers = new LinkedHashMap<>();
+        String sql = replaceParameters(nativeQuery(method), name -> {
+            value(parameters, name);
+            return "$" + numbers.computeIfAbsent(name, ignored -> numbers.size() + 1);
+        });
+        String types = numbers.keySet().stream().map(name -> type(parameters.get(name))).collect(Collectors.joining(", "));
+        String values = numbers.keySet().stream().map(name -> literal(parameters.get(name))).collect(Collectors.joining(", "));
+        jdbcTemplate.execute("set local plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("prepare explained (" + types + ") as " + sql);
+        try {
+            return String.join("\n", jdbcTemplate.queryForList("explain (costs off) execute explained (" + values + ")", String.class));
+        } finally {
+            jdbcTemplate.execute("deallocate explained");
+        }
+    }
+
+    private static String nativeQuery(String method) {
+        Query query = Arrays.stream(ActivityRepository.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(method))
+                .map(candidate -> AnnotatedElementUtils.findMergedAnnotation(candidate, Query.class))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No @Query method " + method));
+        if (!query.nativeQuery()) {
+            throw new IllegalArgumentException(method + " is not a native query");
+        }
+        return query.value();
+    }
+
+    private static String replaceParameters(String sql, Function<String, String> replacement) {
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder replaced = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(replaced, Matcher.quoteReplacement(replacement.apply(matcher.group(1))));
+        }
+        return matcher.appendTail(replaced).toString();
+    }
+
+    private static Object value(Map<String, Object> parameters, String name) {
+        if (!parameters.containsKey(name)) {
+            throw new IllegalArgumentException("No value for :" + name);
+        }
+        return parameters.get(name);
+    }
+
+    private static String type(Object value) {
+        return switch (value) {
+            case String ignored -> "text";
+            case LocalDate ignored -> "date";
+            case Integer ignored -> "int";
+            case Long ignored -> "bigint";
+            default -> throw new IllegalArgumentException("No SQL type for " + value.getClass());
+        };
+    }
+
+    private static String literal(Object value) {
+        return value instanceof Number ? value.toString() : "'" + value.toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,204 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReadReplicaDataSource")
+class ReadReplicaDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    private final DataSource primary = database("primary");
+    private final DataSource replica1 = database("replica1");
+    private final DataSource replica2 = database("replica2");
+    private final Clock clock = mock(Clock.class);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Nested
+    @DisplayName("Replica selection")
+    class Selection {
+
+        @Test
+        @DisplayName("Should take each replica in turn with round-robin")
+        void shouldRoundRobin() throws SQLException {
+            ReadReplicaDataSource dataSource = replicas(ReplicaSelection.ROUND_ROBIN, replica1, replica2);
+
+            assertThat(List.of(name(dataSource), name(dataSource), name(dataSource)))
+                    .containsExactly("REPLICA1", "REPLICA2", "REPLICA1");
+        }
+
+        @Test
+        @DisplayName("Should take the replica with the fewest open connections")
+        void shouldPickLeastConnections() throws SQLException {
+            ReadReplicaDataSource dataSource = replicas(ReplicaSelection.LEAST_CONNECTIONS, replica1, replica2);
+
+            try (Connection first = dataSource.getConnection()) {
+                assertThat(catalog(first)).isEqualTo("REPLICA1");
+                assertThat(dataSource.activeConnections(0)).isEqualTo(1);
+                assertThat(name(dataSource)).isEqualTo("REPLICA2");
+            }
+
+            assertThat(dataSource.activeConnections(0)).isZero();
+            assertThat(name(dataSource)).isEqualTo("REPLICA1");
+        }
+
+        @Test
+        @DisplayName("Should read from the primary when pinned for read-your-writes")
+        void shouldUsePrimaryWhenPinned() throws SQLException {
+            ReadReplicaDataSource dataSource = replicas(ReplicaSelection.ROUND_ROBIN, replica1);
+
+            ReadYourWrites.pinToPrimary();
+
+            assertThat(name(dataSource)).isEqualTo("PRIMARY");
+        }
+    }
+
+    @Nested
+    @DisplayName("Unhealthy replicas")
+    class Unhealthy {
+
+        @Test
+        @DisplayName("Should fall back to the primary and retry the replica later")
+        void shouldFallBackToPrimary() throws SQLException {
+            DataSource broken = mock(DataSource.class);
+            when(broken.getConnection()).thenThrow(new SQLException("Connection refused", "08001"));
+            ReadReplicaDataSource dataSource = replicas(ReplicaSelection.ROUND_ROBIN, broken);
+
+            assertThat(name(dataSource)).isEqualTo("PRIMARY");
+            assertThat(name(dataSource)).isEqualTo("PRIMARY");
+            verify(broken, times(1)).getConnection();
+
+            when(clock.instant()).thenReturn(NOW.plusSeconds(31));
+            name(dataSource);
+
+            verify(broken, times(2)).getConnection();
+        }
+
+        @Test
+        @DisplayName("Should move on to the next healthy replica")
+        void shouldUseNextReplica() throws SQLException {
+            DataSource broken = mock(DataSource.class);
+            when(broken.getConnection()).thenThrow(new SQLException("Connection refused", "08001"));
+            ReadReplicaDataSource dataSource = replicas(ReplicaSelection.ROUND_ROBIN, broken, replica2);
+
+            assertThat(List.of(name(dataSource), name(dataSource))).containsExactly("REPLICA2", "REPLICA2");
+        }
+
+        @Test
+        @DisplayName("Should give up on a replica that hangs within the connection timeout and skip it")
+        void shouldSkipHangingReplica() throws Exception {
+            // Accepts connections but never answers the startup message
+            try (ServerSocket hanging = new ServerSocket(0);
+                 HikariDataSource pool = pool("jdbc:postgresql://localhost:" + hanging.getLocalPort() + "/activities")) {
+                ReadReplicaDataSource dataSource = replicas(ReplicaSelection.ROUND_ROBIN, pool, replica2);
+
+                long started = System.nanoTime();
+                assertThat(name(dataSource)).isEqualTo("REPLICA2");
+                assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+
+                started = System.nanoTime();
+                assertThat(List.of(name(dataSource), name(dataSource))).containsExactly("REPLICA2", "REPLICA2");
+                assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(250));
+            }
+        }
+
+        @Test
+        @DisplayName("Should not mark a healthy replica down when its pool is only busy")
+        void shouldKeepBusyReplica() throws SQLException {
+            try (HikariDataSource pool = pool("jdbc:h2:mem:busyreplica;DB_CLOSE_DELAY=-1")) {
+                ReadReplicaDataSource dataSource = replicas(ReplicaSelection.ROUND_ROBIN, pool);
+
+                try (Connection held = dataSource.getConnection()) {
+                    assertThat(catalog(held)).isEqualTo("BUSYREPLICA");
+                    assertThat(name(dataSource)).isEqualTo("PRIMARY");
+                }
+
+                assertThat(name(dataSource)).isEqualTo("BUSYREPLICA");
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Routing by transaction")
+    class Routing {
+
+        @Test
+        @DisplayName("Should send read-only transactions to a replica and the rest to the primary")
+        void shouldRouteByReadOnlyFlag() {
+            ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary,
+                    replicas(ReplicaSelection.ROUND_ROBIN, replica1));
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(routing);
+            TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(routing));
+            TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+            readOnly.setReadOnly(true);
+
+            String written = readWrite.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+            String read = readOnly.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+
+            assertThat(written).isEqualTo("PRIMARY");
+            assertThat(read).isEqualTo("REPLICA1");
+        }
+    }
+
+    private ReadReplicaDataSource replicas(ReplicaSelection selection, DataSource... replicas) {
+        return new ReadReplicaDataSource(primary, List.of(replicas), selection, Duration.ofSeconds(30), clock);
+    }
+
+    private static String name(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return catalog(connection);
+        }
+    }
+
+    private static String catalog(Connection connection) throws SQLException {
+        return connection.getCatalog();
+    }
+
+    // One connection and the shortest timeout Hikari accepts, set up the way ReadReplicaConfiguration does
+    private static HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(250);
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name, "sa", "");
+    }
+}
@@ -0,0 +1,107 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.search;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LuceneActivityIndex Unit Tests")
+class LuceneActivityIndexTest {
+
+    private LuceneActivityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LuceneActivityIndex(new ByteBuffersDirectory());
+        index.rebuild(Stream.of(
+                new ActivityDTO(1L, "Morning Run", 30L, LocalDate.of(2024, 1, 1)),
+                new ActivityDTO(2L, "Trail Running", 30L, LocalDate.of(2024, 1, 1)),
+                new ActivityDTO(3L, "Swimming", 30L, LocalDate.of(2024, 1, 1))));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    @DisplayName("Should return the stored activity for a match")
+    void shouldReturnStoredActivityForMatch() {
+        List<ActivityDTO> result = index.search("swimming", 10);
+
+        assertThat(result).containsExactly(new ActivityDTO(3L, "Swimming", 30L, LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos")
+    void shouldTolerateTypos() {
+        assertThat(index.search("swimmnig", 10)).extracting(ActivityDTO::id).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should rank exact matches above prefix matches")
+    void shouldRankExactMatchesAbovePrefixMatches() {
+        assertThat(index.search("run", 10)).extracting(ActivityDTO::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should honour the limit")
+    void shouldHonourTheLimit() {
+        assertThat(index.search("run", 1)).extracting(ActivityDTO::id).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should only return activities within the date range")
+    void shouldOnlyReturnActivitiesWithinDateRange() {
+        Activity lateRun = new Activity("Late Run", 30L, LocalDate.of(2024, 3, 1));
+        lateRun.setId(4L);
+        index.index(lateRun);
+
+        List<ActivityDTO> result = index.search("run", new ActivityDateRange(LocalDate.of(2024, 2, 1), null), 10);
+
+        assertThat(result).extracting(ActivityDTO::id).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should rebuild undated activities and leave them out of date ranges")
+    void shouldRebuildUndatedActivitiesAndLeaveThemOutOfDateRanges() {
+        index.rebuild(Stream.of(new ActivityDTO(5L, "Undated Run", 20L, null)));
+
+        assertThat(index.search("run", 10)).containsExactly(new ActivityDTO(5L, "Undated Run", 20L, null));
+        assertThat(index.search("run", new ActivityDateRange(LocalDate.of(2024, 1, 1), null), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and deletes")
+    void shouldReflectUpdatesAndDeletes() {
+        index.index(activity(3L, "Cycling"));
+        index.delete(1L);
+
+        assertThat(index.search("swimming", 10)).isEmpty();
+        assertThat(index.search("cycling", 10)).extracting(ActivityDTO::id).containsExactly(3L);
+        assertThat(index.search("run", 10)).extracting(ActivityDTO::id).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for text without words")
+    void shouldReturnNothingForTextWithoutWords() {
+        assertThat(index.search("  ?! ", 10)).isEmpty();
+    }
+
+    private static Activity activity(Long id, String name) {
+        Activity activity = new Activity(name, 30L, LocalDate.of(2024, 1, 1));
+        activity.setId(id);
+        return activity;
+    }
+}
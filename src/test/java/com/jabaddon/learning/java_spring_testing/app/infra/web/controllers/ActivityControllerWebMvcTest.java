@@ -1,22 +1,55 @@
 package com.jabaddon.learning.java_spring_testing.app.infra.web.controllers;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBatchResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBulkExportService;
 import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDateRange;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityExportFormat;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityPage;
 import com.jabaddon.learning.java_spring_testing.app.application.ActivityService;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityVersionDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.VersionedActivityDTO;
 import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.infra.web.converters.ActivityListHttpMessageConverter;
+import com.jabaddon.learning.java_spring_testing.app.infra.web.converters.BinaryFormats;
+import com.jabaddon.learning.java_spring_testing.app.infra.web.converters.MessagePackHttpMessageConverter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -25,33 +58,43 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(ActivityController.class)
 class ActivityControllerWebMvcTest {
 
+    private static final Type ACTIVITY_LIST = new TypeReference<List<ActivityDTO>>() {
+    }.getType();
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private BinaryFormats binaryFormats;
+
     @MockitoBean
     private ActivityService activityService;
 
+    @MockitoBean
+    private ActivityBulkExportService activityBulkExportService;
+
     @Test
     @DisplayName("Should return empty list when no activities exist")
     void shouldReturnEmptyListWhenNoActivitiesExist() throws Exception {
-        when(activityService.getAllActivities()).thenReturn(List.of());
+        when(activityService.getActivityPage(null, null, null, null)).thenReturn(new ActivityPage(List.of(), null));
 
         mockMvc.perform(get("/api/activities"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(0)));
 
-        verify(activityService).getAllActivities();
+        verify(activityService).getActivityPage(null, null, null, null);
     }
 
     @Test
     @DisplayName("Should return all activities when they exist")
     void shouldReturnAllActivitiesWhenTheyExist() throws Exception {
         ActivityDTO activity = new ActivityDTO(1L, "Running", 30, LocalDate.now());
-        when(activityService.getAllActivities()).thenReturn(List.of(activity));
+        when(activityService.getActivityPage(null, null, null, null)).thenReturn(new ActivityPage(List.of(activity), null));
 
         mockMvc.perform(get("/api/activities"))
                 .andExpect(status().isOk())
@@ -62,14 +105,39 @@ class ActivityControllerWebMvcTest {
                 .andExpect(jsonPath("$[0].minutes", is(30)))
                 .andExpect(jsonPath("$[0].date", is(LocalDate.now().toString())));
 
-        verify(activityService).getAllActivities();
+        verify(activityService).getActivityPage(null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Should return next cursor header when more activities are available")
+    void shouldReturnNextCursorHeaderWhenMoreActivitiesAreAvailable() throws Exception {
+        ActivityDTO activity = new ActivityDTO(2L, "Running", 30, LocalDate.now());
+        when(activityService.getActivityPage(null, null, "abc", 1)).thenReturn(new ActivityPage(List.of(activity), "def"));
+
+        mockMvc.perform(get("/api/activities?after=abc&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)));
+
+        verify(activityService).getActivityPage(null, null, "abc", 1);
+    }
+
+    @Test
+    @DisplayName("Should return 400 when cursor is invalid")
+    void shouldReturn400WhenCursorIsInvalid() throws Exception {
+        when(activityService.getActivityPage(null, null, "broken", null))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: broken"));
+
+        mockMvc.perform(get("/api/activities?after=broken"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     @DisplayName("Should return matching activities when filtering by name")
     void shouldReturnMatchingActivitiesWhenFilteringByName() throws Exception {
         ActivityDTO activity = new ActivityDTO(1L, "Running", 30, LocalDate.now());
-        when(activityService.searchActivitiesByName("run")).thenReturn(List.of(activity));
+        when(activityService.searchActivitiesByName("run", null, null, null)).thenReturn(List.of(activity));
 
         mockMvc.perform(get("/api/activities?name=run"))
                 .andExpect(status().isOk())
@@ -77,23 +145,324 @@ class ActivityControllerWebMvcTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].name", is("Running")));
 
-        verify(activityService).searchActivitiesByName("run");
+        verify(activityService).searchActivitiesByName("run", null, null, null);
+    }
+
+    @Test
+    @DisplayName("Should pass the date range to both the listing and the name search")
+    void shouldPassDateRangeToListingAndSearch() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 7);
+        when(activityService.getActivityPage(from, to, null, null)).thenReturn(new ActivityPage(List.of(), null));
+        when(activityService.searchActivitiesByName("run", from, to, null)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/activities?from=2024-01-01&to=2024-01-07"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/activities?name=run&from=2024-01-01&to=2024-01-07"))
+                .andExpect(status().isOk());
+
+        verify(activityService).getActivityPage(from, to, null, null);
+        verify(activityService).searchActivitiesByName("run", from, to, null);
+    }
+
+    @Test
+    @DisplayName("Should return 400 when a date is not ISO formatted")
+    void shouldReturn400WhenDateIsNotIsoFormatted() throws Exception {
+        mockMvc.perform(get("/api/activities?from=01/02/2024"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(activityService);
+    }
+
+    @Test
+    @DisplayName("Should stream activities as newline delimited JSON")
+    void shouldStreamActivitiesAsNewlineDelimitedJson() throws Exception {
+        stubExport(new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1)),
+                new ActivityDTO(2L, "Cycling", 60, LocalDate.of(2024, 1, 2)));
+
+        MvcResult result = mockMvc.perform(get("/api/activities/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"id":1,"name":"Running","minutes":30,"time":"30m","date":"2024-01-01"}
+                        {"id":2,"name":"Cycling","minutes":60,"time":"1h","date":"2024-01-02"}"""));
+    }
+
+    @Test
+    @DisplayName("Should stream activities as a JSON array")
+    void shouldStreamActivitiesAsJsonArray() throws Exception {
+        stubExport(new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1)),
+                new ActivityDTO(2L, "Cycling", 60, LocalDate.of(2024, 1, 2)));
+
+        MvcResult result = mockMvc.perform(get("/api/activities/export").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].name", is("Cycling")));
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"*/*", "application/*"})
+    @DisplayName("Should keep exporting JSON to clients that do not name a format")
+    void shouldKeepExportingJsonToClientsThatDoNotNameAFormat(String accept) throws Exception {
+        stubExport(new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1)));
+
+        MockHttpServletRequestBuilder export = get("/api/activities/export");
+        if (accept != null) {
+            export.header(HttpHeaders.ACCEPT, accept);
+        }
+        MvcResult result = mockMvc.perform(export)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].name", is("Running")));
+    }
+
+    @Test
+    @DisplayName("Should stream a gzipped COPY CSV export within the requested dates")
+    void shouldStreamGzippedCsvExportWithinDates() throws Exception {
+        String csv = "id,name,minutes,date\n1,Running,30,2024-01-01\n";
+        ActivityDateRange january = new ActivityDateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write(csv.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(activityBulkExportService).exportActivities(eq(january), eq(ActivityExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/activities/export")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31")
+                        .header(HttpHeaders.ACCEPT, "text/csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, allOf(containsString(HttpHeaders.ACCEPT + ","), containsString(HttpHeaders.ACCEPT_ENCODING))))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("activities.csv")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gunzipped = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gunzipped.readAllBytes(), StandardCharsets.UTF_8), is(csv));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream the COPY binary export uncompressed unless gzip is accepted")
+    void shouldStreamBinaryExportUncompressed() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("PGCOPY".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(activityBulkExportService).exportActivities(eq(ActivityDateRange.UNBOUNDED), eq(ActivityExportFormat.BINARY), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/activities/export")
+                        .header(HttpHeaders.ACCEPT, ActivityController.APPLICATION_PGCOPY_VALUE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ActivityController.APPLICATION_PGCOPY_VALUE))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("PGCOPY"));
+    }
+
+    @Test
+    @DisplayName("Should reject a COPY export whose range ends before it starts")
+    void shouldRejectCopyExportWithInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/activities/export")
+                        .param("from", "2024-02-01")
+                        .param("to", "2024-01-01")
+                        .header(HttpHeaders.ACCEPT, "text/csv"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(activityBulkExportService);
+    }
+
+    @Test
+    @DisplayName("Should reject a range on a COPY export that falls back to JSON")
+    void shouldRejectRangeOnJsonFallbackOfCopyExport() throws Exception {
+        mockMvc.perform(get("/api/activities/export")
+                        .param("from", "2024-01-01")
+                        .header(HttpHeaders.ACCEPT, "text/*"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(activityBulkExportService, activityService);
+    }
+
+    @Test
+    @DisplayName("Should stream activities as a Smile array")
+    void shouldStreamActivitiesAsSmileArray() throws Exception {
+        ActivityDTO running = new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1));
+        ActivityDTO cycling = new ActivityDTO(2L, "Cycling", 60, LocalDate.of(2024, 1, 2));
+        stubExport(running, cycling);
+        MediaType smile = MediaType.parseMediaType(BinaryFormats.APPLICATION_SMILE_VALUE);
+
+        MvcResult result = mockMvc.perform(get("/api/activities/export").accept(smile))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(read(smile, body, ActivityDTO[].class), arrayContaining(running, cycling));
+    }
+
+    @Test
+    @DisplayName("Should stream activities as a sequence of MessagePack values")
+    void shouldStreamActivitiesAsMessagePackSequence() throws Exception {
+        ActivityDTO running = new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1));
+        ActivityDTO cycling = new ActivityDTO(2L, "Cycling", 60, LocalDate.of(2024, 1, 2));
+        stubExport(running, cycling);
+
+        MvcResult result = mockMvc.perform(get("/api/activities/export").accept(MessagePackHttpMessageConverter.APPLICATION_X_MSGPACK))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MessagePackHttpMessageConverter.APPLICATION_X_MSGPACK))
+                .andReturn().getResponse().getContentAsByteArray();
+        // Split with msgpack-core, Jackson's MessagePack parser does not expect the end of a sequence
+        List<ActivityDTO> exported = new ArrayList<>();
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(body)) {
+            while (unpacker.hasNext()) {
+                int from = (int) unpacker.getTotalReadBytes();
+                unpacker.skipValue();
+                exported.add(binaryFormats.converterFor(MessagePackHttpMessageConverter.APPLICATION_X_MSGPACK).getObjectMapper()
+                        .readValue(body, from, (int) unpacker.getTotalReadBytes() - from, ActivityDTO.class));
+            }
+        }
+        assertThat(exported, contains(running, cycling));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubExport(ActivityDTO... activities) {
+        doAnswer(invocation -> {
+            Consumer<ActivityDTO> consumer = invocation.getArgument(0);
+            List.of(activities).forEach(consumer);
+            return null;
+        }).when(activityService).exportActivities(any(Consumer.class));
     }
 
     @Test
     @DisplayName("Should return activity when valid ID is provided")
     void shouldReturnActivityWhenValidIdIsProvided() throws Exception {
         ActivityDTO activity = new ActivityDTO(1L, "Cycling", 60, LocalDate.now());
-        when(activityService.getActivityById(1L)).thenReturn(activity);
+        when(activityService.getVersionedActivity(1L))
+                .thenReturn(new VersionedActivityDTO(activity, new ActivityVersionDTO(1L, 3L, Instant.now())));
 
         mockMvc.perform(get("/api/activities/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(header().exists("Last-Modified"))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.name", is("Cycling")))
                 .andExpect(jsonPath("$.minutes", is(60)));
 
-        verify(activityService).getActivityById(1L);
+        verify(activityService).getVersionedActivity(1L);
+        verify(activityService, never()).getActivityVersion(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should tag a modified activity with the version of the row it returns")
+    void shouldTagModifiedActivityWithVersionOfReturnedRow() throws Exception {
+        // The version comes from a replica that is ahead of the one the activity is read from
+        ActivityDTO activity = new ActivityDTO(1L, "Cycling", 60, LocalDate.of(2024, 1, 1));
+        when(activityService.getActivityVersion(1L)).thenReturn(new ActivityVersionDTO(1L, 2L, null));
+        when(activityService.getVersionedActivity(1L))
+                .thenReturn(new VersionedActivityDTO(activity, new ActivityVersionDTO(1L, 1L, null)));
+
+        mockMvc.perform(get("/api/activities/1").header("If-None-Match", "\"1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"1-1\""))
+                .andExpect(jsonPath("$.name", is("Cycling")));
+    }
+
+    @Test
+    @DisplayName("Should return 304 when the returned row matches although the version checked first does not")
+    void shouldReturn304WhenReturnedRowMatches() throws Exception {
+        ActivityDTO activity = new ActivityDTO(1L, "Cycling", 60, LocalDate.of(2024, 1, 1));
+        when(activityService.getActivityVersion(1L)).thenReturn(new ActivityVersionDTO(1L, 3L, null));
+        when(activityService.getVersionedActivity(1L))
+                .thenReturn(new VersionedActivityDTO(activity, new ActivityVersionDTO(1L, 4L, null)));
+
+        mockMvc.perform(get("/api/activities/1").header("If-None-Match", "\"1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", "\"1-4\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should return 304 without loading the activity when ETag matches")
+    void shouldReturn304WithoutLoadingActivityWhenETagMatches() throws Exception {
+        when(activityService.getActivityVersion(1L)).thenReturn(new ActivityVersionDTO(1L, 3L, Instant.now()));
+
+        mockMvc.perform(get("/api/activities/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(activityService, never()).getVersionedActivity(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return 304 when activity was not modified since the given date")
+    void shouldReturn304WhenActivityWasNotModifiedSince() throws Exception {
+        Instant lastModified = Instant.parse("2024-03-15T10:15:30Z");
+        when(activityService.getActivityVersion(1L)).thenReturn(new ActivityVersionDTO(1L, 3L, lastModified));
+
+        mockMvc.perform(get("/api/activities/1").header("If-Modified-Since", "Fri, 15 Mar 2024 10:15:30 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(activityService, never()).getVersionedActivity(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return 304 for an unchanged list when ETag matches")
+    void shouldReturn304ForUnchangedListWhenETagMatches() throws Exception {
+        ActivityDTO activity = new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1));
+        when(activityService.getActivityPage(null, null, null, null)).thenReturn(new ActivityPage(List.of(activity), null));
+
+        String eTag = mockMvc.perform(get("/api/activities"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/activities").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should give lists that differ only in names with equal hash codes different ETags")
+    void shouldGiveDifferentETagsToListsWithCollidingNameHashCodes() throws Exception {
+        // "Aa" and "BB" have the same String.hashCode()
+        when(activityService.getActivityPage(null, null, null, null))
+                .thenReturn(new ActivityPage(List.of(new ActivityDTO(1L, "Aa", 30, LocalDate.of(2024, 1, 1))), null))
+                .thenReturn(new ActivityPage(List.of(new ActivityDTO(1L, "BB", 30, LocalDate.of(2024, 1, 1))), null));
+
+        String eTag = mockMvc.perform(get("/api/activities"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/activities").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("BB")));
     }
 
     @Test
@@ -117,6 +486,140 @@ class ActivityControllerWebMvcTest {
         verify(activityService).createActivity(any(NewActivityDTO.class));
     }
 
+    @Test
+    @DisplayName("Should create activities in batch and return per item results")
+    void shouldCreateActivitiesInBatchAndReturnPerItemResults() throws Exception {
+        List<NewActivityDTO> batch = List.of(
+                new NewActivityDTO("Swimming", "45m", LocalDate.now()),
+                new NewActivityDTO("Broken", "45x", LocalDate.now()));
+        when(activityService.createActivities(anyList())).thenReturn(List.of(
+                ActivityBatchResultDTO.created(0, new ActivityDTO(1L, "Swimming", 45, LocalDate.now())),
+                ActivityBatchResultDTO.failed(1, "Invalid time unit 'x'. Valid units are: w, d, h, m")));
+
+        mockMvc.perform(post("/api/activities/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].activity.id", is(1)))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].activity").doesNotExist())
+                .andExpect(jsonPath("$[1].error", is("Invalid time unit 'x'. Valid units are: w, d, h, m")));
+
+        verify(activityService).createActivities(anyList());
+    }
+
+    @Test
+    @DisplayName("Should return activities as CBOR when asked for it")
+    void shouldReturnActivitiesAsCborWhenAskedForIt() throws Exception {
+        ActivityDTO activity = new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1));
+        when(activityService.getActivityPage(null, null, null, null)).thenReturn(new ActivityPage(List.of(activity), null));
+
+        byte[] body = mockMvc.perform(get("/api/activities").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(read(MediaType.APPLICATION_CBOR, body, ActivityDTO[].class), arrayContaining(activity));
+    }
+
+    @Test
+    @DisplayName("Should write activity lists with the reusable list writers, ahead of the Jackson converters")
+    void shouldWriteActivityListsWithReusableListWriters(@Autowired RequestMappingHandlerAdapter handlerAdapter) {
+        List<HttpMessageConverter<?>> converters = handlerAdapter.getMessageConverters();
+        HttpMessageConverter<?> listWriter = converters.stream()
+                .filter(converter -> converter instanceof GenericHttpMessageConverter<?> generic
+                        && generic.canWrite(ACTIVITY_LIST, List.class, MediaType.APPLICATION_JSON))
+                .findFirst().orElseThrow();
+
+        assertThat(listWriter, instanceOf(ActivityListHttpMessageConverter.class));
+    }
+
+    @Test
+    @DisplayName("Should give each representation of an activity its own ETag and vary by Accept")
+    void shouldGiveEachRepresentationItsOwnETag() throws Exception {
+        when(activityService.getActivityVersion(1L)).thenReturn(new ActivityVersionDTO(1L, 3L, null));
+        when(activityService.getVersionedActivity(1L)).thenReturn(new VersionedActivityDTO(
+                new ActivityDTO(1L, "Cycling", 60, LocalDate.of(2024, 1, 1)), new ActivityVersionDTO(1L, 3L, null)));
+
+        mockMvc.perform(get("/api/activities/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"1-3-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        mockMvc.perform(get("/api/activities/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    @DisplayName("Should give the CBOR list an ETag of its own and ignore a format the client refuses with q=0")
+    void shouldGiveCborListItsOwnETag() throws Exception {
+        ActivityDTO activity = new ActivityDTO(1L, "Running", 30, LocalDate.of(2024, 1, 1));
+        when(activityService.getActivityPage(null, null, null, null)).thenReturn(new ActivityPage(List.of(activity), null));
+
+        String json = mockMvc.perform(get("/api/activities").header(HttpHeaders.ACCEPT, "application/cbor;q=0, application/json"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader("ETag");
+        String cbor = mockMvc.perform(get("/api/activities").accept(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(cbor, is(json.replaceAll("\"$", "-cbor\"")));
+    }
+
+    @Test
+    @DisplayName("Should create activity from a Smile body and answer in Smile")
+    void shouldCreateActivityFromSmileBody() throws Exception {
+        MediaType smile = MediaType.parseMediaType(BinaryFormats.APPLICATION_SMILE_VALUE);
+        NewActivityDTO newActivity = new NewActivityDTO("Swimming", "45m", LocalDate.of(2024, 1, 1));
+        ActivityDTO createdActivity = new ActivityDTO(1L, "Swimming", 45, LocalDate.of(2024, 1, 1));
+        when(activityService.createActivity(newActivity)).thenReturn(createdActivity);
+
+        byte[] body = mockMvc.perform(post("/api/activities")
+                        .contentType(smile)
+                        .accept(smile)
+                        .content(write(smile, newActivity)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(read(smile, body, ActivityDTO.class), is(createdActivity));
+    }
+
+    @Test
+    @DisplayName("Should create activities in batch from a MessagePack body")
+    void shouldCreateActivitiesInBatchFromMessagePackBody() throws Exception {
+        List<NewActivityDTO> batch = List.of(
+                new NewActivityDTO("Swimming", "45m", LocalDate.of(2024, 1, 1)),
+                new NewActivityDTO("Running", "1h30m", LocalDate.of(2024, 1, 2)));
+        when(activityService.createActivities(batch)).thenReturn(List.of(
+                ActivityBatchResultDTO.created(0, new ActivityDTO(1L, "Swimming", 45, LocalDate.of(2024, 1, 1))),
+                ActivityBatchResultDTO.created(1, new ActivityDTO(2L, "Running", 90, LocalDate.of(2024, 1, 2)))));
+
+        mockMvc.perform(post("/api/activities/batch")
+                        .contentType(MessagePackHttpMessageConverter.APPLICATION_MSGPACK)
+                        .content(write(MessagePackHttpMessageConverter.APPLICATION_MSGPACK, batch)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[1].activity.time", is("1h30m")));
+
+        verify(activityService).createActivities(batch);
+    }
+
+    @Test
+    @DisplayName("Should keep answering in JSON to clients accepting anything")
+    void shouldKeepAnsweringInJsonToClientsAcceptingAnything() throws Exception {
+        when(activityService.getActivityPage(null, null, null, null)).thenReturn(new ActivityPage(List.of(), null));
+
+        mockMvc.perform(get("/api/activities").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     @DisplayName("Should update and return activity when valid data is provided")
     void shouldUpdateAndReturnActivityWhenValidDataIsProvided() throws Exception {
@@ -166,11 +669,19 @@ class ActivityControllerWebMvcTest {
     @Test
     @DisplayName("Should handle service exceptions gracefully")
     void shouldHandleServiceExceptionsGracefully() throws Exception {
-        when(activityService.getActivityById(999L)).thenThrow(new RuntimeException("Activity not found"));
+        when(activityService.getVersionedActivity(999L)).thenThrow(new RuntimeException("Activity not found"));
 
         mockMvc.perform(get("/api/activities/999"))
                 .andExpect(status().is5xxServerError());
 
-        verify(activityService).getActivityById(999L);
+        verify(activityService).getVersionedActivity(999L);
+    }
+
+    private byte[] write(MediaType mediaType, Object value) throws Exception {
+        return binaryFormats.converterFor(mediaType).getObjectMapper().writeValueAsBytes(value);
+    }
+
+    private <T> T read(MediaType mediaType, byte[] body, Class<T> type) throws Exception {
+        return binaryFormats.converterFor(mediaType).getObjectMapper().readValue(body, type);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.controllers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBatchResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportService;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityJsonImportResultDTO;
+import com.jabaddon.learning.java_spring_testing.config.ActivityImportConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ActivityImportController.class)
+@Import(ActivityImportConfiguration.class)
+class ActivityImportControllerWebMvcTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ActivityImportService activityImportService;
+
+    @Test
+    @DisplayName("Should import a CSV body and answer with the counts")
+    void shouldImportCsvBody() throws Exception {
+        StringWriter received = new StringWriter();
+        when(activityImportService.importCsv(any(Reader.class), any(Writer.class))).thenAnswer(invocation -> {
+            invocation.<Reader>getArgument(0).transferTo(received);
+            return new ActivityImportResultDTO(2, 0);
+        });
+
+        mockMvc.perform(post("/api/activities/import")
+                        .contentType("text/csv")
+                        .content("Café,45m,2024-01-01\nRun,1h,2024-01-02\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rejected", is(0)))
+                .andExpect(header().doesNotExist(ActivityImportController.REJECTIONS_HEADER));
+
+        org.hamcrest.MatcherAssert.assertThat(received.toString(), startsWith("Café,45m"));
+    }
+
+    @Test
+    @DisplayName("Should decode the body with the charset it is sent in")
+    void shouldDecodeBodyWithItsCharset() throws Exception {
+        StringWriter received = new StringWriter();
+        when(activityImportService.importCsv(any(Reader.class), any(Writer.class))).thenAnswer(invocation -> {
+            invocation.<Reader>getArgument(0).transferTo(received);
+            return new ActivityImportResultDTO(1, 0);
+        });
+
+        mockMvc.perform(post("/api/activities/import")
+                        .contentType("text/csv;charset=ISO-8859-1")
+                        .content("Café,45m,2024-01-01\n".getBytes(StandardCharsets.ISO_8859_1)))
+                .andExpect(status().isOk());
+
+        org.hamcrest.MatcherAssert.assertThat(received.toString(), startsWith("Café,45m"));
+    }
+
+    @Test
+    @DisplayName("Should point to a downloadable report when rows are rejected")
+    void shouldPointToDownloadableReportWhenRowsAreRejected() throws Exception {
+        when(activityImportService.importCsv(any(Reader.class), any(Writer.class))).thenAnswer(invocation -> {
+            Writer rejections = invocation.getArgument(1);
+            rejections.write("line,name,time,date,error\n2,Run,30x,2024-01-01,Invalid time\n");
+            return new ActivityImportResultDTO(1, 1);
+        });
+
+        String report = mockMvc.perform(post("/api/activities/import")
+                        .contentType("text/csv")
+                        .content("Walk,1h,2024-01-01\nRun,30x,2024-01-01\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(header().string(ActivityImportController.REJECTIONS_HEADER,
+                        matchesPattern("/api/activities/import/[0-9a-f-]{36}/rejections")))
+                .andReturn().getResponse().getHeader(ActivityImportController.REJECTIONS_HEADER);
+
+        mockMvc.perform(get(report))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv")))
+                .andExpect(header().string("Content-Disposition", containsString("attachment")))
+                .andExpect(content().string("line,name,time,date,error\n2,Run,30x,2024-01-01,Invalid time\n"));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for a report that does not exist")
+    void shouldReturnNotFoundForUnknownReport() throws Exception {
+        mockMvc.perform(get("/api/activities/import/{id}/rejections", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a report id that is not a UUID")
+    void shouldReturnBadRequestForMalformedReportId() throws Exception {
+        mockMvc.perform(get("/api/activities/import/{id}/rejections", "..%2F..%2Fetc%2Fpasswd"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should hand a JSON body to the import as a parser and answer with the summary")
+    void shouldImportJsonBody() throws Exception {
+        when(activityImportService.importJson(any(JsonParser.class))).thenAnswer(invocation -> {
+            JsonParser parser = invocation.getArgument(0);
+            org.hamcrest.MatcherAssert.assertThat(parser.getCodec(), notNullValue());
+            org.hamcrest.MatcherAssert.assertThat(parser.readValueAsTree().toString(), startsWith("[{\"name\":\"Run\""));
+            return new ActivityJsonImportResultDTO(1, 1, 1, List.of(ActivityBatchResultDTO.failed(1, "Activity cannot be null")));
+        });
+
+        mockMvc.perform(post("/api/activities/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Run\",\"time\":\"1h\",\"date\":\"2024-01-01\"},null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.chunks", is(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[0].error", is("Activity cannot be null")));
+    }
+
+    @Test
+    @DisplayName("Should only take CSV and JSON bodies")
+    void shouldOnlyTakeCsvAndJsonBodies() throws Exception {
+        mockMvc.perform(post("/api/activities/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<activities/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
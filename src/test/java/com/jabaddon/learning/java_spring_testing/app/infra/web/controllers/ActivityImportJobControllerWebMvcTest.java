@@ -0,0 +1,117 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.controllers;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobService;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityImportJobStatus;
+import com.jabaddon.learning.java_spring_testing.app.application.ConflictException;
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportJobFiles;
+import com.jabaddon.learning.java_spring_testing.app.infra.imports.ActivityImportJobRunner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ActivityImportJobController.class)
+class ActivityImportJobControllerWebMvcTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ActivityImportJobService activityImportJobService;
+
+    @MockitoBean
+    private ActivityImportJobFiles activityImportJobFiles;
+
+    @MockitoBean
+    private ActivityImportJobRunner activityImportJobRunner;
+
+    @Test
+    @DisplayName("Should store the body, start a job for it and point to its status")
+    void shouldStartJob() throws Exception {
+        when(activityImportJobService.createJob(any(UUID.class))).thenAnswer(invocation -> job(invocation.getArgument(0),
+                ActivityImportJobStatus.QUEUED, 0));
+
+        mockMvc.perform(post("/api/activities/import/jobs")
+                        .contentType("text/csv;charset=ISO-8859-1")
+                        .content("Café,45m,2024-01-01\n".getBytes(StandardCharsets.ISO_8859_1)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", matchesPattern("/api/activities/import/jobs/[0-9a-f-]{36}")))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+
+        verify(activityImportJobFiles).store(any(UUID.class), any(InputStream.class), eq(StandardCharsets.ISO_8859_1));
+        verify(activityImportJobRunner).submit(any(UUID.class));
+    }
+
+    @Test
+    @DisplayName("Should return the progress of a job")
+    void shouldReturnJobProgress() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(activityImportJobService.getJob(id)).thenReturn(job(id, ActivityImportJobStatus.FAILED, 5000));
+
+        mockMvc.perform(get("/api/activities/import/jobs/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(id.toString())))
+                .andExpect(jsonPath("$.status", is("FAILED")))
+                .andExpect(jsonPath("$.imported", is(5000)))
+                .andExpect(jsonPath("$.line", is(5002)));
+    }
+
+    @Test
+    @DisplayName("Should resume a job that stopped")
+    void shouldResumeJob() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(activityImportJobService.resumeJob(id)).thenReturn(job(id, ActivityImportJobStatus.QUEUED, 5000));
+
+        mockMvc.perform(post("/api/activities/import/jobs/{id}/resume", id))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+
+        verify(activityImportJobRunner).submit(id);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 to resuming a job that cannot be resumed")
+    void shouldNotResumeJobThatCannotBeResumed() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(activityImportJobService.resumeJob(id)).thenThrow(new ConflictException("Import job is already completed"));
+
+        mockMvc.perform(post("/api/activities/import/jobs/{id}/resume", id))
+                .andExpect(status().isConflict())
+                .andExpect(content().string(containsString("already completed")));
+
+        verifyNoInteractions(activityImportJobRunner);
+    }
+
+    @Test
+    @DisplayName("Should return 404 for a job that does not exist and 400 for an id that is not a UUID")
+    void shouldReturnNotFoundOrBadRequestForUnknownJobs() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(activityImportJobService.getJob(id)).thenThrow(new NoSuchElementException("Import job not found"));
+
+        mockMvc.perform(get("/api/activities/import/jobs/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/activities/import/jobs/{id}", "not-a-uuid"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static ActivityImportJobDTO job(UUID id, ActivityImportJobStatus status, long imported) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ActivityImportJobDTO(id, status, imported * 20, imported + 2, imported, 0, null, now, now);
+    }
+}
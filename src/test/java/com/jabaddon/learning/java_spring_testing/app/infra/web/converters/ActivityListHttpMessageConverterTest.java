@@ -0,0 +1,98 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.converters;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBatchResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The list converter has to write exactly what the Jackson converters it stands in for would, in every format.
+ */
+@JsonTest
+class ActivityListHttpMessageConverterTest {
+
+    private static final Type ACTIVITIES = new TypeReference<List<ActivityDTO>>() {
+    }.getType();
+    private static final Type BATCH_RESULTS = new TypeReference<List<ActivityBatchResultDTO>>() {
+    }.getType();
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<AbstractJackson2HttpMessageConverter> jackson;
+    private ActivityListHttpMessageConverter converter;
+
+    private final List<ActivityDTO> activities = List.of(
+            new ActivityDTO(1L, "Swimming", 45L, LocalDate.of(2024, 3, 15)),
+            new ActivityDTO(2L, "Ciclismo \"largo\" ñ", 1440L, LocalDate.of(2024, 2, 29)),
+            new ActivityDTO(null, null, 0L, LocalDate.of(2024, 3, 17)));
+
+    @BeforeEach
+    void setUp() {
+        jackson = new ArrayList<>();
+        jackson.add(new MappingJackson2HttpMessageConverter(objectMapper));
+        jackson.addAll(new BinaryFormats(builders::getObject).converters());
+        converter = new ActivityListHttpMessageConverter(jackson);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/json", "application/cbor", "application/x-jackson-smile",
+            "application/msgpack", "application/x-msgpack"})
+    void shouldWriteWhatTheJacksonConverterWrites(String mediaType) throws Exception {
+        MediaType contentType = MediaType.parseMediaType(mediaType);
+        AbstractJackson2HttpMessageConverter standIn = jackson.stream()
+                .filter(candidate -> candidate.canWrite(ACTIVITIES, List.class, contentType))
+                .findFirst().orElseThrow();
+        MockHttpOutputMessage expected = new MockHttpOutputMessage();
+        standIn.write(activities, ACTIVITIES, contentType, expected);
+        MockHttpOutputMessage actual = new MockHttpOutputMessage();
+
+        converter.write(activities, ACTIVITIES, contentType, actual);
+
+        assertThat(actual.getBodyAsBytes()).isEqualTo(expected.getBodyAsBytes());
+        assertThat(actual.getHeaders().getContentType()).isEqualTo(contentType);
+    }
+
+    @Test
+    void shouldOnlyWriteListsOfActivities() {
+        assertThat(converter.canWrite(ACTIVITIES, List.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(ACTIVITIES, List.class, null)).isTrue();
+        assertThat(converter.canWrite(BATCH_RESULTS, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(ACTIVITIES, List.class, MediaType.APPLICATION_XML)).isFalse();
+        assertThat(converter.canRead(ACTIVITIES, null, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    @Test
+    void shouldLeaveCharsetsOtherThanUtf8ToJackson() {
+        assertThat(converter.canWrite(ACTIVITIES, List.class, MediaType.parseMediaType("application/json;charset=UTF-8"))).isTrue();
+        assertThat(converter.canWrite(ACTIVITIES, List.class, MediaType.parseMediaType("application/json;charset=UTF-16"))).isFalse();
+    }
+
+    @Test
+    void shouldNegotiateJsonFirst() {
+        assertThat(converter.getSupportedMediaTypes(List.class).getFirst()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,141 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.converters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Round trips of the activity DTOs through each binary format, like {@code ActivityDTOJsonTest} does for JSON.
+ * The decoded tree is compared with the JSON one, so the binary bodies carry the same fields.
+ */
+@JsonTest
+class BinaryFormatsTest {
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private BinaryFormats binaryFormats;
+
+    @BeforeEach
+    void setUp() {
+        binaryFormats = new BinaryFormats(builders::getObject);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile", "application/msgpack", "application/x-msgpack"})
+    void shouldRoundTripActivityDTO(String mediaType) throws Exception {
+        ObjectMapper mapper = mapperFor(mediaType);
+        ActivityDTO dto = new ActivityDTO(1L, "Swimming", 45L, LocalDate.of(2024, 3, 15));
+
+        byte[] bytes = mapper.writeValueAsBytes(dto);
+
+        assertThat(mapper.readValue(bytes, ActivityDTO.class)).isEqualTo(dto);
+        assertThat(mapper.readTree(bytes)).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(dto)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile", "application/msgpack"})
+    void shouldHandleNullIdAndName(String mediaType) throws Exception {
+        ObjectMapper mapper = mapperFor(mediaType);
+        ActivityDTO dto = new ActivityDTO(null, null, 30L, LocalDate.of(2024, 3, 17));
+
+        byte[] bytes = mapper.writeValueAsBytes(dto);
+
+        assertThat(mapper.readValue(bytes, ActivityDTO.class)).isEqualTo(dto);
+        assertThat(mapper.readTree(bytes).has("id")).isFalse();
+        assertThat(mapper.readTree(bytes).get("time").asText()).isEqualTo("30m");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile", "application/msgpack"})
+    void shouldHandleZeroMinutes(String mediaType) throws Exception {
+        ObjectMapper mapper = mapperFor(mediaType);
+        ActivityDTO dto = new ActivityDTO(3L, "Rest Day", 0L, LocalDate.of(2024, 3, 18));
+
+        byte[] bytes = mapper.writeValueAsBytes(dto);
+
+        assertThat(mapper.readValue(bytes, ActivityDTO.class)).isEqualTo(dto);
+        assertThat(mapper.readTree(bytes)).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(dto)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile", "application/msgpack"})
+    void shouldRoundTripListOfActivityDTO(String mediaType) throws Exception {
+        ObjectMapper mapper = mapperFor(mediaType);
+        List<ActivityDTO> activities = List.of(
+                new ActivityDTO(1L, "Swimming", 45L, LocalDate.of(2024, 3, 15)),
+                new ActivityDTO(2L, "Running", 30L, LocalDate.of(2024, 3, 16)),
+                new ActivityDTO(3L, "Cycling", 90L, LocalDate.of(2024, 3, 17)),
+                new ActivityDTO(4L, "Café 🏃", 13155L, LocalDate.of(2024, 2, 29)));
+
+        byte[] bytes = mapper.writeValueAsBytes(activities);
+
+        assertThat(mapper.readValue(bytes, ActivityDTO[].class)).containsExactlyElementsOf(activities);
+        assertThat(mapper.readTree(bytes)).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(activities)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile", "application/msgpack"})
+    void shouldRoundTripNewActivityDTO(String mediaType) throws Exception {
+        ObjectMapper mapper = mapperFor(mediaType);
+        NewActivityDTO dto = new NewActivityDTO("Morning Run", "1h30m", LocalDate.of(2024, 1, 15));
+
+        assertThat(mapper.readValue(mapper.writeValueAsBytes(dto), NewActivityDTO.class)).isEqualTo(dto);
+        assertThat(mapper.readValue(mapper.writeValueAsBytes(List.of(dto, dto)), NewActivityDTO[].class))
+                .containsExactly(dto, dto);
+    }
+
+    @Test
+    void shouldSelectTheFirstBinaryTypeNamed() {
+        List<MediaType> accepted = MediaType.parseMediaTypes("application/json, */*, application/x-msgpack, application/cbor");
+
+        assertThat(binaryFormats.select(accepted)).contains(MessagePackHttpMessageConverter.APPLICATION_X_MSGPACK);
+        assertThat(binaryFormats.select(MediaType.parseMediaTypes("application/*, */*"))).isEmpty();
+    }
+
+    @Test
+    void shouldSelectByQualityAndLeaveOutRefusedTypes() {
+        List<MediaType> accepted = MediaType.parseMediaTypes("application/cbor;q=0, application/x-jackson-smile;q=0.5, application/msgpack");
+
+        assertThat(binaryFormats.select(accepted)).contains(MessagePackHttpMessageConverter.APPLICATION_MSGPACK);
+        assertThat(binaryFormats.select(MediaType.parseMediaTypes("application/cbor;q=0"))).isEmpty();
+    }
+
+    @Test
+    void shouldNegotiateJsonWhenItIsPreferred() {
+        assertThat(binaryFormats.negotiate(MediaType.parseMediaTypes("application/json, application/cbor"))).isEmpty();
+        assertThat(binaryFormats.negotiate(MediaType.parseMediaTypes("application/cbor;q=0.5, */*"))).isEmpty();
+        assertThat(binaryFormats.negotiate(MediaType.parseMediaTypes("*/*, application/cbor")))
+                .contains(MediaType.APPLICATION_CBOR);
+        assertThat(binaryFormats.negotiate(List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldRejectTypesThatAreNotBinaryFormats() {
+        assertThatThrownBy(() -> binaryFormats.converterFor(MediaType.APPLICATION_JSON))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not a binary format");
+    }
+
+    private ObjectMapper mapperFor(String mediaType) {
+        return binaryFormats.converterFor(MediaType.parseMediaType(mediaType)).getObjectMapper();
+    }
+}
@@ -0,0 +1,71 @@
+package com.jabaddon.learning.java_spring_testing.app.infra.web.filters;
+
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.routing.ReadYourWrites;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReadYourWritesFilter")
+class ReadYourWritesFilterTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    private final ReadYourWritesFilter filter =
+            new ReadYourWritesFilter(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("Should hand out a token on writes and read them from the primary")
+    void shouldIssueTokenOnWrite() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean pinned = filter(new MockHttpServletRequest("POST", "/api/activities"), response);
+
+        assertThat(pinned).isTrue();
+        assertThat(response.getHeader(ReadYourWritesFilter.HEADER)).isEqualTo(Long.toString(NOW.toEpochMilli()));
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should read from the primary only while the token is fresh")
+    void shouldPinReadsWithFreshToken() throws ServletException, IOException {
+        assertThat(read(null)).isFalse();
+        assertThat(read(Long.toString(NOW.minusSeconds(2).toEpochMilli()))).isTrue();
+        assertThat(read(Long.toString(NOW.minusSeconds(6).toEpochMilli()))).isFalse();
+        assertThat(read(Long.toString(NOW.plusSeconds(60).toEpochMilli()))).isFalse();
+        assertThat(read("not-a-token")).isFalse();
+    }
+
+    private boolean read(String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/activities");
+        if (token != null) {
+            request.addHeader(ReadYourWritesFilter.HEADER, token);
+        }
+        return filter(request, new MockHttpServletResponse());
+    }
+
+    private boolean filter(MockHttpServletRequest request, MockHttpServletResponse response) throws ServletException, IOException {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                pinned.set(ReadYourWrites.isPinnedToPrimary());
+            }
+        }));
+        return pinned.get();
+    }
+}
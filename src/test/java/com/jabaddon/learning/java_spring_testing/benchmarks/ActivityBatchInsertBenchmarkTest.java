@@ -0,0 +1,83 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityBatchResultDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityService;
+import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import com.jabaddon.learning.java_spring_testing.app.infra.persistence.repositories.ActivityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput of one POST per activity against the batch path.
+ * Only runs on demand: {@code ./mvnw test -Dtest=ActivityBatchInsertBenchmarkTest -Dbenchmarks=true}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DisplayName("Batch insert throughput benchmark")
+class ActivityBatchInsertBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityBatchInsertBenchmarkTest.class);
+    private static final int ACTIVITIES = 5_000;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    private List<NewActivityDTO> activities;
+
+    @BeforeEach
+    void setUp() {
+        activityRepository.deleteAllInBatch();
+        activities = IntStream.range(0, ACTIVITIES)
+                .mapToObj(i -> new NewActivityDTO("Activity " + i, (i % 120) + "m", LocalDate.of(2024, 1, 1)))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Batch create should outperform one create per activity")
+    void batchCreateShouldOutperformSingleCreates() {
+        // Warm up both paths before measuring
+        activities.subList(0, 500).forEach(activityService::createActivity);
+        activityService.createActivities(activities.subList(0, 500));
+        activityRepository.deleteAllInBatch();
+
+        long singleStart = System.nanoTime();
+        activities.forEach(activityService::createActivity);
+        long singleNanos = System.nanoTime() - singleStart;
+        activityRepository.deleteAllInBatch();
+
+        long batchStart = System.nanoTime();
+        List<ActivityBatchResultDTO> results = activityService.createActivities(activities);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        logger.info("Single creates: {} activities/s", throughput(singleNanos));
+        logger.info("Batch create:   {} activities/s", throughput(batchNanos));
+        assertThat(results).allMatch(result -> result.error() == null);
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+
+    private static long throughput(long nanos) {
+        return ACTIVITIES * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
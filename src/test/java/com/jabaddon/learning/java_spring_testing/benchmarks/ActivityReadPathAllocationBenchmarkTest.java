@@ -0,0 +1,100 @@
+package com.jabaddon.learning.java_spring_testing.benchmarks;
+
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
+import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
+import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares allocations and time of the entity read path against the DTO projection.
+ * Only runs on demand: {@code ./mvnw test -Dtest=ActivityReadPathAllocationBenchmarkTest -Dbenchmarks=true}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DisplayName("Read path allocation benchmark")
+class ActivityReadPathAllocationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityReadPathAllocationBenchmarkTest.class);
+    private static final int ROWS = 20_000;
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private ActivityDomainRepository activityDomainRepository;
+
+    @Autowired
+    private ActivityReadRepository activityReadRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NotificationDomainService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM activities");
+        Date date = Date.valueOf(LocalDate.of(2024, 1, 1));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO activities (id, name, minutes, date, version) VALUES (?, ?, ?, ?, 0)",
+                IntStream.range(0, ROWS)
+                        .mapToObj(i -> new Object[]{(long) i + 1, "Activity " + i, (long) i, date})
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Projection should allocate less than hydrating entities")
+    void projectionShouldAllocateLessThanHydratingEntities() {
+        Supplier<List<ActivityDTO>> entityPath = () -> activityDomainRepository.findAll().stream()
+                .map(activity -> new ActivityDTO(activity.getId(), activity.getName(), activity.getMinutes(), activity.getDate()))
+                .toList();
+        Supplier<List<ActivityDTO>> projectionPath = activityReadRepository::findAll;
+
+        // Warm up both paths before measuring
+        for (int i = 0; i < ITERATIONS; i++) {
+            entityPath.get();
+            projectionPath.get();
+        }
+
+        Measurement entities = measure(entityPath);
+        Measurement projection = measure(projectionPath);
+
+        logger.info("Entity path:     {} bytes/row, {} ms/query", entities.bytesPerRow(), entities.millisPerQuery());
+        logger.info("Projection path: {} bytes/row, {} ms/query", projection.bytesPerRow(), projection.millisPerQuery());
+        assertThat(projection.bytesPerRow()).isLessThan(entities.bytesPerRow());
+    }
+
+    private static Measurement measure(Supplier<List<ActivityDTO>> query) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(query.get()).hasSize(ROWS);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Measurement(allocated / ((long) ROWS * ITERATIONS), nanos / 1_000_000 / ITERATIONS);
+    }
+
+    private record Measurement(long bytesPerRow, long millisPerQuery) {}
+}
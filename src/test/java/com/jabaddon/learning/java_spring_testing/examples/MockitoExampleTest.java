@@ -1,6 +1,7 @@
 package com.jabaddon.learning.java_spring_testing.examples;
 
 import com.jabaddon.learning.java_spring_testing.app.application.ActivityDTO;
+import com.jabaddon.learning.java_spring_testing.app.application.ActivityReadRepository;
 import com.jabaddon.learning.java_spring_testing.app.application.ActivityService;
 import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
 import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
@@ -37,6 +38,9 @@ class MockitoExampleTest {
     @Mock
     private ActivityDomainRepository activityDomainRepository;
 
+    @Mock
+    private ActivityReadRepository activityReadRepository;
+
     @InjectMocks
     private ActivityService activityService;
 
@@ -50,8 +54,8 @@ class MockitoExampleTest {
     @DisplayName("Basic mocking - when/thenReturn")
     void shouldDemonstrateBasicMocking() {
         // Arrange
-        Activity expectedActivity = new Activity("Running", 30, LocalDate.now());
-        when(activityDomainRepository.findById(1L)).thenReturn(Optional.of(expectedActivity));
+        ActivityDTO expectedActivity = new ActivityDTO(1L, "Running", 30, LocalDate.now());
+        when(activityReadRepository.findById(1L)).thenReturn(Optional.of(expectedActivity));
 
         // Act
         ActivityDTO actualActivity = activityService.getActivityById(1L);
@@ -66,8 +70,7 @@ class MockitoExampleTest {
         // Arrange
         Activity expectedActivity = new Activity("Running", 30, LocalDate.now());
         expectedActivity.setId(1L);
-        when(activityDomainRepository.save(any(Activity.class))).thenReturn(1L);
-        when(activityDomainRepository.findById(1L)).thenReturn(Optional.of(expectedActivity));
+        when(activityDomainRepository.save(any(Activity.class))).thenReturn(expectedActivity);
 
         // Act
         NewActivityDTO newActivityDTO = new NewActivityDTO("Running", "30m", LocalDate.now());
@@ -75,7 +78,7 @@ class MockitoExampleTest {
 
         // Assert - verify interactions
         verify(activityDomainRepository, times(1)).save(any(Activity.class));
-        verify(activityDomainRepository, times(1)).findById(1L);
+        verify(activityDomainRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -143,13 +146,10 @@ class MockitoExampleTest {
         when(activityDomainRepository.save(any(Activity.class))).thenAnswer(invocation -> {
             Activity activity = invocation.getArgument(0);
             // Simulate setting an ID after saving
-            return activity.getMinutes();
+            activity.setId(activity.getMinutes());
+            return activity;
         });
 
-        Activity savedActivity = new Activity("Running", 30, LocalDate.now());
-        // just for demo purposes
-        when(activityDomainRepository.findById(eq(savedActivity.getMinutes()))).thenReturn(Optional.of(savedActivity));
-
         // Act
         NewActivityDTO newActivityDTO = new NewActivityDTO("Running", "30m", LocalDate.now());
         ActivityDTO result = activityService.createActivity(newActivityDTO);
@@ -26,13 +26,12 @@ public class MockitoMockObjectDemoTest {
         // Arrange
         ActivityDomainRepository repositoryResponderStub = mock(ActivityDomainRepository.class);
         NotificationDomainService notificationDomainServiceDummy = mock(NotificationDomainService.class);
-        ActivityService service = new ActivityService(repositoryResponderStub, notificationDomainServiceDummy);
+        ActivityService service = new ActivityService(repositoryResponderStub, null, notificationDomainServiceDummy);
 
         Activity activity = new Activity("Morning Run", 42L, LocalDate.now());
         activity.setId(1L);
-        // Stub: simulate valid save and findById
-        when(repositoryResponderStub.save(any(Activity.class))).thenReturn(activity.getId());
-        when(repositoryResponderStub.findById(anyLong())).thenReturn(Optional.of(activity));
+        // Stub: simulate valid save
+        when(repositoryResponderStub.save(any(Activity.class))).thenReturn(activity);
 
         // Act
         ActivityDTO created = service.createActivity(
@@ -46,6 +45,6 @@ public class MockitoMockObjectDemoTest {
 
         // Verify interactions
         verify(repositoryResponderStub, times(1)).save(any(Activity.class));
-        verify(repositoryResponderStub, times(1)).findById(anyLong());
+        verify(repositoryResponderStub, never()).findById(anyLong());
     }
 }
@@ -3,6 +3,7 @@ package com.jabaddon.learning.java_spring_testing.examples;
 import com.jabaddon.learning.java_spring_testing.app.application.ActivityService;
 import com.jabaddon.learning.java_spring_testing.app.application.NewActivityDTO;
 import com.jabaddon.learning.java_spring_testing.app.domain.models.Activity;
+import com.jabaddon.learning.java_spring_testing.app.domain.models.ActivityVersion;
 import com.jabaddon.learning.java_spring_testing.app.domain.repositories.ActivityDomainRepository;
 import com.jabaddon.learning.java_spring_testing.app.domain.services.NotificationDomainService;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +14,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.sameInstance;
@@ -28,7 +30,7 @@ public class MockitoTestSpyDemoTest implements ActivityDomainRepository {
     @DisplayName("should create test spy with self shunt")
     void shouldCreateTestSpyWithSelfShunt() {
         // Arrange
-        ActivityService service = new ActivityService(this, null);
+        ActivityService service = new ActivityService(this, null, null);
 
         // Act
         service.updateActivity(11L, new NewActivityDTO("Demo", "1h", LocalDate.now()));
@@ -48,7 +50,7 @@ public class MockitoTestSpyDemoTest implements ActivityDomainRepository {
         ArgumentCaptor<Activity> activityCaptor = ArgumentCaptor.forClass(Activity.class);
         ActivityDomainRepository repoMock = mock();
         NotificationDomainService notificationDomainServiceDummy = mock();
-        ActivityService service = new ActivityService(repoMock, notificationDomainServiceDummy);
+        ActivityService service = new ActivityService(repoMock, null, notificationDomainServiceDummy);
 
         // Stub: simulate findById works but update fails
         Activity activity = new Activity("123", 0L, LocalDate.now());
@@ -72,6 +74,11 @@ public class MockitoTestSpyDemoTest implements ActivityDomainRepository {
         return Optional.of(new Activity("123", 0L, LocalDate.now()));
     }
 
+    @Override
+    public Optional<ActivityVersion> findVersionById(Long id) {
+        return Optional.empty();
+    }
+
     @Override
     public List<Activity> findAll() {
         return List.of();
@@ -83,8 +90,18 @@ public class MockitoTestSpyDemoTest implements ActivityDomainRepository {
     }
 
     @Override
-    public Long save(Activity activity) {
-        return 0L;
+    public Stream<Activity> streamAll() {
+        return Stream.empty();
+    }
+
+    @Override
+    public Activity save(Activity activity) {
+        return activity;
+    }
+
+    @Override
+    public List<Activity> saveAll(List<Activity> activities) {
+        return activities;
     }
 
     @Override
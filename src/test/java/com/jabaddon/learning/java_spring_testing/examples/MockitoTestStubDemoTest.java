@@ -34,13 +34,12 @@ public class MockitoTestStubDemoTest {
         // Arrange
         ActivityDomainRepository repositoryResponderStub = mock(ActivityDomainRepository.class);
         NotificationDomainService notificationDomainServiceDummy = mock(NotificationDomainService.class);
-        ActivityService service = new ActivityService(repositoryResponderStub, notificationDomainServiceDummy);
+        ActivityService service = new ActivityService(repositoryResponderStub, null, notificationDomainServiceDummy);
 
         Activity activity = new Activity("Morning Run", 42L, LocalDate.now());
         activity.setId(1L);
-        // Stub: simulate valid save and findById
-        when(repositoryResponderStub.save(any(Activity.class))).thenReturn(activity.getId());
-        when(repositoryResponderStub.findById(anyLong())).thenReturn(Optional.of(activity));
+        // Stub: simulate valid save
+        when(repositoryResponderStub.save(any(Activity.class))).thenReturn(activity);
 
         // Act
         ActivityDTO created = service.createActivity(
@@ -59,7 +58,7 @@ public class MockitoTestStubDemoTest {
         // Arrange
         ActivityDomainRepository repoMock = mock();
         NotificationDomainService notificationDomainServiceDummy = mock();
-        ActivityService service = new ActivityService(repoMock, notificationDomainServiceDummy);
+        ActivityService service = new ActivityService(repoMock, null, notificationDomainServiceDummy);
         Activity activityDummy = mock();
 
         // Stub: simulate findById works but update fails
@@ -23,4 +23,16 @@ public class TimeTranslatorDynamicTest {
 
                 );
     }
+
+    @TestFactory
+    Stream<DynamicTest> compactAndIsoFormsAreEquivalent() {
+        return Stream.of(List.of("1h30m", "PT1H30M"), List.of("1d12h", "P1DT12H"), List.of("2w", "P2W"),
+                        List.of("1w1d1h1m", "P1W1DT1H1M"))
+                .map(v ->
+                        dynamicTest(v.get(0) + " should equal " + v.get(1), () -> {
+                            assertThat(TimeTranslator.toMinutes(v.get(0)), is(TimeTranslator.toMinutes(v.get(1))));
+                            assertThat(TimeTranslator.format(TimeTranslator.toMinutes(v.get(1))), is(v.get(0)));
+                        })
+                );
+    }
 }
@@ -15,7 +15,9 @@ public class TimeTranslatorParameterizedTest {
     @CsvSource({
             "1m, 1", "30m, 30", "0m, 0",
             "1h, 60", "2h, 120", "3h, 180", "24h, 1440",
-            "1d, 1440", "2d, 2880", "3d, 4320"
+            "1d, 1440", "2d, 2880", "3d, 4320",
+            "1h30m, 90", "1w2d3h15m, 13155", "2d12h, 3600",
+            "PT45M, 45", "PT1H30M, 90", "P1DT12H, 2160", "P2W, 20160"
     })
     void testMinuteConversionParameterizedWithCsvSource(String input, int expected) {
         assertEquals(expected, TimeTranslator.toMinutes(input));
@@ -39,6 +41,12 @@ public class TimeTranslatorParameterizedTest {
 
     static final Arguments[] VALUES_FROM_FIELD = { Arguments.arguments("1m", 1), Arguments.arguments("10m", 10) };
 
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 59, 60, 61, 1439, 1440, 1441, 10079, 10080, 13155, Long.MAX_VALUE})
+    void testFormatIsTheInverseOfToMinutes(long minutes) {
+        assertEquals(minutes, TimeTranslator.toMinutes(TimeTranslator.format(minutes)));
+    }
+
     @ParameterizedTest(name = "{index} => the input {0} should be transformed to {1} minutes")
     @ArgumentsSource(ArgumentsProvider.class)
     void testMinuteConversionParameterizedWithArgumentsSource(String input, int expected) {
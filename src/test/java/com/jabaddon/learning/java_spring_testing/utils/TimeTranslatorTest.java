@@ -5,6 +5,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -152,12 +157,132 @@ class TimeTranslatorTest {
 
     @Test
     void testMultipleUnits() {
-        // Should fail because we only accept single unit
+        assertEquals(62, TimeTranslator.toMinutes("1h2m"));
+        assertEquals(13155, TimeTranslator.toMinutes("1w2d3h15m"));
+        assertEquals(1445, TimeTranslator.toMinutes("1d5m"));
+    }
+
+    @Test
+    void testMultipleUnitsOutOfOrder() {
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
-                () -> TimeTranslator.toMinutes("1h2m")
+                () -> TimeTranslator.toMinutes("2m1h")
         );
-        assertEquals("Invalid number format in time string: 1h2m", exception.getMessage());
+        assertEquals("Invalid time format: 2m1h", exception.getMessage());
+        assertEquals(TimeTranslator.INVALID_FORMAT, TimeTranslator.parseMinutes("1h1h"));
+        assertEquals(TimeTranslator.INVALID_UNIT, TimeTranslator.parseMinutes("1h2"));
     }
-}
 
+    @Test
+    void testIsoDurations() {
+        assertEquals(90, TimeTranslator.toMinutes("PT1H30M"));
+        assertEquals(2160, TimeTranslator.toMinutes("P1DT12H"));
+        assertEquals(20160, TimeTranslator.toMinutes("P2W"));
+        assertEquals(0, TimeTranslator.toMinutes("PT0M"));
+        assertEquals(TimeTranslator.INVALID_FORMAT, TimeTranslator.parseMinutes("PT"));
+        assertEquals(TimeTranslator.INVALID_FORMAT, TimeTranslator.parseMinutes("P1DT"));
+        // Months, years and seconds have no fixed length in minutes
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeTranslator.toMinutes("P1Y")
+        );
+        assertEquals("Invalid time unit 'Y'. Valid units are: w, d, h, m", exception.getMessage());
+        assertEquals(TimeTranslator.INVALID_UNIT, TimeTranslator.parseMinutes("P1M"));
+        assertEquals(TimeTranslator.INVALID_UNIT, TimeTranslator.parseMinutes("PT1H30S"));
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("0m", TimeTranslator.format(0));
+        assertEquals("45m", TimeTranslator.format(45));
+        assertEquals("1h30m", TimeTranslator.format(90));
+        assertEquals("1d5m", TimeTranslator.format(1445));
+        assertEquals("1w2d3h15m", TimeTranslator.format(13155));
+        assertThrows(IllegalArgumentException.class, () -> TimeTranslator.format(-1));
+    }
+
+    @Test
+    void testOverflow() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeTranslator.toMinutes("9223372036854775807w")
+        );
+        assertEquals("Time value is too large: 9223372036854775807w", exception.getMessage());
+        assertEquals(Long.MAX_VALUE, TimeTranslator.toMinutes("9223372036854775807m"));
+        assertEquals(TimeTranslator.INVALID_NUMBER, TimeTranslator.parseMinutes("9223372036854775808m"));
+        assertEquals(TimeTranslator.NEGATIVE, TimeTranslator.parseMinutes("-9223372036854775808m"));
+    }
+
+    @Test
+    void testSignedNumbers() {
+        assertEquals(90, TimeTranslator.toMinutes("+90m"));
+        assertEquals(0, TimeTranslator.toMinutes("-0h"));
+        assertEquals(TimeTranslator.INVALID_NUMBER, TimeTranslator.parseMinutes("+m"));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "''          | -1", "'   '     | -1", "h           | -2", "abc       | -3",
+            "-1h         | -4", "3x        | -5", "99999999999999999w | -6"
+    })
+    void testParseMinutesReturnsFailureCodes(String input, long failure) {
+        assertEquals(failure, TimeTranslator.parseMinutes(input));
+        assertTrue(TimeTranslator.isFailure(failure));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> TimeTranslator.toMinutes(input));
+        assertEquals(TimeTranslator.failureMessage(failure, input), exception.getMessage());
+    }
+
+    @Test
+    void testParseMinutesOverRanges() {
+        String line = "run, 2h ,walk";
+        assertEquals(120, TimeTranslator.parseMinutes(line, 4, 8));
+        assertEquals(120, TimeTranslator.parseMinutes(new StringBuilder(line), 4, 8));
+        assertEquals(120, TimeTranslator.parseMinutes(line.toCharArray(), 4, 8));
+        assertEquals(120, TimeTranslator.parseMinutes(line.getBytes(StandardCharsets.UTF_8), 4, 8));
+        assertEquals(10080, TimeTranslator.parseMinutes("1w".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testParseMinutesRejectsNonAsciiBytes() {
+        // The lead byte of a multi-byte unit is read as a (non-unit) letter
+        assertEquals(TimeTranslator.INVALID_UNIT, TimeTranslator.parseMinutes("5\u00b5".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(TimeTranslator.INVALID_NUMBER, TimeTranslator.parseMinutes("\u0661m".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testParseAll() {
+        String[] times = {"45m", "2h", "30x", null, "1w2d3h15m", "-5m", "PT1H30M", "9m"};
+        BitSet failures = new BitSet();
+        failures.set(100);
+
+        long[] minutes = TimeTranslator.parseAll(times, failures);
+
+        assertArrayEquals(new long[]{45, 120, TimeTranslator.INVALID_UNIT, TimeTranslator.EMPTY, 13155,
+                TimeTranslator.NEGATIVE, 90, 9}, minutes);
+        assertEquals(BitSet.valueOf(new long[]{0b101100}), failures);
+        assertArrayEquals(minutes, TimeTranslator.parseAll(new LinkedList<>(Arrays.asList(times)), new BitSet()));
+    }
+
+    @Test
+    void testParseAllAgreesWithParseMinutesOnShortTimes() {
+        // Every string of up to three characters that the short-time shortcut could see
+        String alphabet = "0159mhdwxMP+- ";
+        List<String> times = new ArrayList<>();
+        for (char a : alphabet.toCharArray()) {
+            for (char b : alphabet.toCharArray()) {
+                times.add("" + a + b);
+                for (char c : alphabet.toCharArray()) {
+                    times.add("" + a + b + c);
+                }
+            }
+        }
+        BitSet failures = new BitSet();
+
+        long[] minutes = TimeTranslator.parseAll(times, failures);
+
+        for (int i = 0; i < times.size(); i++) {
+            assertEquals(TimeTranslator.parseMinutes(times.get(i)), minutes[i], times.get(i));
+            assertEquals(TimeTranslator.isFailure(minutes[i]), failures.get(i), times.get(i));
+        }
+    }
+}
@@ -157,11 +157,15 @@ class TimeTranslatorWithHamcrestTest {
 
     @Test
     void testMultipleUnitsWithHamcrest() {
-        // Should fail because we only accept single unit
+        assertThat(TimeTranslator.toMinutes("1h2m"), is(equalTo(62L)));
+    }
+
+    @Test
+    void testMultipleUnitsOutOfOrderWithHamcrest() {
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
-            () -> TimeTranslator.toMinutes("1h2m")
+            () -> TimeTranslator.toMinutes("2m1h")
         );
-        assertThat(exception.getMessage(), is(equalTo("Invalid number format in time string: 1h2m")));
+        assertThat(exception.getMessage(), is(equalTo("Invalid time format: 2m1h")));
     }
 }